@@ -1,8 +1,8 @@
 package com.apiestoque.crud.controllers;
 
+import com.apiestoque.crud.domain.email.dto.OutboxEmailResponseDTO;
 import com.apiestoque.crud.services.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,15 +13,14 @@ public class EmailController {
     private EmailService emailService;
 
     @PostMapping("/send")
-    public ResponseEntity<String> sendEmail(@RequestParam String to, 
-                                             @RequestParam String subject, 
-                                             @RequestParam String body) {
-        try {
-            emailService.sendEmail(to, subject, body);
-            return ResponseEntity.ok("Email enviado com sucesso!");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                                 .body("Erro ao enviar email: " + e.getMessage());
-        }
+    public ResponseEntity<OutboxEmailResponseDTO> sendEmail(@RequestParam String to, 
+                                                            @RequestParam String subject, 
+                                                            @RequestParam String body) {
+        return ResponseEntity.accepted().body(emailService.sendEmail(to, subject, body));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OutboxEmailResponseDTO> getById(@PathVariable String id) {
+        return ResponseEntity.ok(emailService.getById(id));
     }
 }
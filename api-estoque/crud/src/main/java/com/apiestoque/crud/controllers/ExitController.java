@@ -1,16 +1,30 @@
 package com.apiestoque.crud.controllers;
 
 import com.apiestoque.crud.controllers.base.CrudController;
+import com.apiestoque.crud.domain.exit.dto.ExitBatchRequestDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitBatchResponseDTO;
 import com.apiestoque.crud.domain.exit.dto.ExitRequestDTO;
 import com.apiestoque.crud.domain.exit.dto.ExitResponseDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitStatus;
 import com.apiestoque.crud.domain.exit.dto.ExitStatusUpdateDTO;     
+import com.apiestoque.crud.infra.export.ExportFilter;
+import com.apiestoque.crud.infra.export.ExportFormat;
+import com.apiestoque.crud.infra.export.ExportResponses;
+import com.apiestoque.crud.infra.idempotency.Idempotent;
+import com.apiestoque.crud.infra.pagination.CursorPage;
 import com.apiestoque.crud.services.ExitService;
+import com.apiestoque.crud.services.ExportService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.time.LocalDate;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -22,13 +36,24 @@ public class ExitController implements CrudController<String, ExitRequestDTO, Ex
     @Autowired
     private ExitService exitService;
 
+    @Autowired
+    private ExportService exportService;
+
     @Override
+    @Idempotent
     @PostMapping
     public ResponseEntity<ExitResponseDTO> create(@RequestBody @Validated ExitRequestDTO data) {
         ExitResponseDTO response = exitService.create(data);
         return ResponseEntity.status(201).body(response);
     }
 
+    @Idempotent
+    @PostMapping("/batch")
+    public ResponseEntity<ExitBatchResponseDTO> createBatch(@RequestBody @Validated ExitBatchRequestDTO data) {
+        ExitBatchResponseDTO response = exitService.createBatch(data);
+        return ResponseEntity.status(201).body(response);
+    }
+
     @Override
     @PatchMapping("/{id}")
     public ResponseEntity<ExitResponseDTO> update(@PathVariable String id, @RequestBody ExitRequestDTO data) {
@@ -59,6 +84,28 @@ public class ExitController implements CrudController<String, ExitRequestDTO, Ex
         return ResponseEntity.ok(responsePage);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ExitResponseDTO>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(exitService.scroll(cursor, sort, direction, size));
+    }
+
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) ExitStatus status,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        ExportFilter filter = new ExportFilter(from, to, status == null ? null : status.name());
+        exportService.exportExits(filter, exportFormat, ExportResponses.open(response, "exits", exportFormat, gzip));
+    }
+
     @Override
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable String id) {
@@ -3,22 +3,37 @@ package com.apiestoque.crud.controllers;
 import com.apiestoque.crud.controllers.base.CrudController;
 import com.apiestoque.crud.domain.inventory.dto.InventoryRequestDTO;
 import com.apiestoque.crud.domain.inventory.dto.InventoryResponseDTO;
+import com.apiestoque.crud.domain.movement.dto.StockMovementResponseDTO;
+import com.apiestoque.crud.domain.movement.dto.StockMovementType;
 import com.apiestoque.crud.domain.product.dto.ProductDetailedResponseDTO;
 import com.apiestoque.crud.domain.product.dto.ProductRequestDTO;
 import com.apiestoque.crud.domain.product.dto.ProductResponseDTO;
+import com.apiestoque.crud.domain.product.dto.ProductSearchResultDTO;
 import com.apiestoque.crud.domain.product.dto.ProductUpdateDTO;
+import com.apiestoque.crud.infra.export.ExportFilter;
+import com.apiestoque.crud.infra.export.ExportFormat;
+import com.apiestoque.crud.infra.export.ExportResponses;
+import com.apiestoque.crud.infra.pagination.CursorPage;
+import com.apiestoque.crud.services.ExportService;
+import com.apiestoque.crud.services.ProductSearchService;
 import com.apiestoque.crud.services.ProductService;
+import com.apiestoque.crud.services.StockMovementService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -26,6 +41,15 @@ public class ProductController implements CrudController<String, ProductRequestD
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ExportService exportService;
+
     @Override
     @PostMapping
     public ResponseEntity<ProductResponseDTO> create(@RequestBody @Validated ProductRequestDTO data) {
@@ -53,6 +77,17 @@ public class ProductController implements CrudController<String, ProductRequestD
         return ResponseEntity.ok(productService.getById(id));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSearchResultDTO>> search(@RequestParam("q") String query,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productSearchService.search(query, limit));
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSearchIndex() {
+        return ResponseEntity.ok(Map.of("indexedProducts", productSearchService.rebuild()));
+    }
+
     @GetMapping("/name/{name}")
     public ResponseEntity<List<ProductResponseDTO>> getProductByName(@PathVariable String name) {
         return ResponseEntity.ok(productService.getProductByName(name));
@@ -80,11 +115,41 @@ public class ProductController implements CrudController<String, ProductRequestD
         return ResponseEntity.ok(productService.getAllInventories(pageable));
     }
 
+    @GetMapping("/inventory/scroll")
+    public ResponseEntity<CursorPage<InventoryResponseDTO>> scrollInventories(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(productService.scrollInventories(cursor, direction, size));
+    }
+
+    @GetMapping("/inventory/export")
+    public void exportInventories(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        ExportFilter filter = new ExportFilter(from, to, null);
+        exportService.exportInventory(filter, exportFormat, ExportResponses.open(response, "inventory", exportFormat, gzip));
+    }
+
     @GetMapping("/{id}/inventory")
     public ResponseEntity<List<InventoryResponseDTO>> getInventoryById(@PathVariable String id) {
         return ResponseEntity.ok(productService.getInventoryById(id));
     }
 
+    @GetMapping("/inventory/{inventoryId}/movements")
+    public ResponseEntity<Page<StockMovementResponseDTO>> getInventoryMovements(
+            @PathVariable String inventoryId,
+            @RequestParam(required = false) StockMovementType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Pageable pageable) {
+        return ResponseEntity.ok(stockMovementService.getByInventory(inventoryId, type, from, to, pageable));
+    }
+
     @DeleteMapping("/{productId}/inventory/{inventoryId}")
     @Transactional
     public ResponseEntity<Void> deleteInventory(@PathVariable String productId,
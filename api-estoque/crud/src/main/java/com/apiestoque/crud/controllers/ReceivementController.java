@@ -1,16 +1,33 @@
 package com.apiestoque.crud.controllers;
 
 import com.apiestoque.crud.controllers.base.CrudController;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementImportProgressDTO;
 import com.apiestoque.crud.domain.receivement.dto.ReceivementRequestDTO;
 import com.apiestoque.crud.domain.receivement.dto.ReceivementResponseDTO;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementStatus;
 import com.apiestoque.crud.domain.receivement.dto.ReceivementStatusUpdateDTO;
+import com.apiestoque.crud.infra.export.ExportFilter;
+import com.apiestoque.crud.infra.export.ExportFormat;
+import com.apiestoque.crud.infra.export.ExportResponses;
+import com.apiestoque.crud.infra.idempotency.Idempotent;
+import com.apiestoque.crud.infra.pagination.CursorPage;
+import com.apiestoque.crud.services.ExportService;
+import com.apiestoque.crud.services.ReceivementImportService;
+import com.apiestoque.crud.services.ReceivementImportService.ImportFormat;
 import com.apiestoque.crud.services.ReceivementService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -21,13 +38,36 @@ public class ReceivementController implements CrudController<String, Receivement
     @Autowired
     private ReceivementService receivementService;
 
+    @Autowired
+    private ReceivementImportService receivementImportService;
+
+    @Autowired
+    private ExportService exportService;
+
     @Override
+    @Idempotent
     @PostMapping
     public ResponseEntity<ReceivementResponseDTO> create(@RequestBody @Validated ReceivementRequestDTO data) {
         ReceivementResponseDTO createdReceivement = receivementService.create(data);
         return ResponseEntity.status(201).body(createdReceivement);
     }
 
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<ReceivementImportProgressDTO> importReceivements(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        @RequestParam(required = false) String importId,
+        InputStream body) {
+
+        ImportFormat format = contentType.startsWith("text/csv") ? ImportFormat.CSV : ImportFormat.NDJSON;
+        ReceivementImportProgressDTO result = receivementImportService.importReceivements(body, format, importId);
+        return ResponseEntity.status(201).body(result);
+    }
+
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ReceivementImportProgressDTO> getImportProgress(@PathVariable String importId) {
+        return ResponseEntity.ok(receivementImportService.getProgress(importId));
+    }
+
     @Override
     @GetMapping("/{id}")
     public ResponseEntity<ReceivementResponseDTO> getById(@PathVariable String id) {
@@ -42,6 +82,28 @@ public class ReceivementController implements CrudController<String, Receivement
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ReceivementResponseDTO>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(receivementService.scroll(cursor, sort, direction, size));
+    }
+
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) ReceivementStatus status,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        ExportFilter filter = new ExportFilter(from, to, status == null ? null : status.name());
+        exportService.exportReceivements(filter, exportFormat, ExportResponses.open(response, "receivements", exportFormat, gzip));
+    }
+
     @Override
     @PatchMapping("/{id}")
     public ResponseEntity<ReceivementResponseDTO> update(@PathVariable String id, @RequestBody @Validated ReceivementRequestDTO data) {
@@ -0,0 +1,65 @@
+package com.apiestoque.crud.controllers;
+
+import com.apiestoque.crud.domain.report.dto.CategoryRollupSummaryDTO;
+import com.apiestoque.crud.domain.report.dto.DailyRollupDTO;
+import com.apiestoque.crud.domain.report.dto.ProductRollupSummaryDTO;
+import com.apiestoque.crud.services.ReportService;
+import com.apiestoque.crud.services.RollupService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @GetMapping("/products")
+    public ResponseEntity<Page<ProductRollupSummaryDTO>> getProductSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String categoryId,
+            Pageable pageable) {
+        return ResponseEntity.ok(reportService.getProductSummary(from, to, categoryId, pageable));
+    }
+
+    @GetMapping("/products/{productId}/daily")
+    public ResponseEntity<List<DailyRollupDTO>> getProductDaily(
+            @PathVariable String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getProductDaily(productId, from, to));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryRollupSummaryDTO>> getCategorySummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getCategorySummary(from, to));
+    }
+
+    @GetMapping("/categories/{categoryId}/daily")
+    public ResponseEntity<List<DailyRollupDTO>> getCategoryDaily(
+            @PathVariable String categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getCategoryDaily(categoryId, from, to));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.accepted().body(Map.of("pendingDays", rollupService.rebuild()));
+    }
+}
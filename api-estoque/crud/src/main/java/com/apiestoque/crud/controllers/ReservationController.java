@@ -0,0 +1,51 @@
+package com.apiestoque.crud.controllers;
+
+import com.apiestoque.crud.domain.reservation.dto.ReservationConfirmDTO;
+import com.apiestoque.crud.domain.reservation.dto.ReservationRequestDTO;
+import com.apiestoque.crud.domain.reservation.dto.ReservationResponseDTO;
+import com.apiestoque.crud.domain.reservation.dto.ReservationStatusDTO;
+import com.apiestoque.crud.domain.reservation.dto.StockAvailabilityDTO;
+import com.apiestoque.crud.infra.idempotency.Idempotent;
+import com.apiestoque.crud.services.StockReservationService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservations")
+public class ReservationController {
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Idempotent
+    @PostMapping
+    public ResponseEntity<ReservationResponseDTO> hold(@RequestBody @Validated ReservationRequestDTO data) {
+        ReservationResponseDTO reservation = stockReservationService.hold(data);
+        return ResponseEntity.status(201).body(reservation);
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ReservationStatusDTO> confirm(@PathVariable String id,
+                                                        @RequestBody(required = false) ReservationConfirmDTO data) {
+        ReservationStatusDTO status = stockReservationService.confirm(id, data != null ? data.exitStatus() : null);
+        return ResponseEntity.accepted().body(status);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReservationStatusDTO> cancel(@PathVariable String id) {
+        return ResponseEntity.ok(stockReservationService.cancel(id));
+    }
+
+    @GetMapping("/availability/{inventoryId}")
+    public ResponseEntity<StockAvailabilityDTO> getAvailability(@PathVariable String inventoryId) {
+        return ResponseEntity.ok(stockReservationService.getAvailability(inventoryId));
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<Void> reconcile() {
+        stockReservationService.reconcile();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -10,6 +10,7 @@ import com.apiestoque.crud.infra.response.ApiResponse;
 import com.apiestoque.crud.infra.response.ApiResult;
 import com.apiestoque.crud.services.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,8 +18,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.apiestoque.crud.domain.user.User;
 
@@ -30,42 +35,71 @@ public class UserController {
     private UserService userService;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody AuthenticationDTO data) {
+    public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody AuthenticationDTO data,
+                                                                     HttpServletRequest request) {
+        // Com server.forward-headers-strategy=native, getRemoteAddr() já é o IP do cliente quando a
+        // requisição passa por um proxy confiável; um X-Forwarded-For vindo de fora é ignorado.
         try {
-            LoginResponseDTO response = userService.authenticateUser(data);
-            return ResponseEntity.ok(response);
+            return userService.authenticateUser(data, request.getRemoteAddr())
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(this::loginError);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new LoginResponseDTO("Falha na autenticação: " + e.getMessage()));
+            return CompletableFuture.completedFuture(loginError(e));
         }
     }
 
     @PostMapping("/verify-face")
-    public ResponseEntity<Map<String, Object>> verifyFace(@RequestBody Map<String, String> payload) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> verifyFace(@RequestBody Map<String, String> payload) {
+        if (payload == null || !payload.containsKey("image") || !payload.containsKey("email")) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Payload inválido. Campos 'image' e 'email' são obrigatórios.")));
+        }
+
+        String image = payload.get("image");
+        String email = payload.get("email");
+
+        if (image == null || image.isBlank() || email == null || email.isBlank()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Imagem ou e-mail não podem ser vazios.")));
+        }
+
         try {
-            if (payload == null || !payload.containsKey("image") || !payload.containsKey("email")) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Payload inválido. Campos 'image' e 'email' são obrigatórios."));
-            }
+            return userService.verifyFace(image, email)
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(this::verifyFaceError);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(verifyFaceError(e));
+        }
+    }
 
-            String image = payload.get("image");
-            String email = payload.get("email");
+    private ResponseEntity<LoginResponseDTO> loginError(Throwable error) {
+        Throwable cause = unwrap(error);
 
-            if (image == null || image.isBlank() || email == null || email.isBlank()) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Imagem ou e-mail não podem ser vazios."));
-            }
+        // Limite de tentativas (429) e pool de hash saturado (503) mantêm o status próprio.
+        if (cause instanceof ResponseStatusException statusException) {
+            return ResponseEntity.status(statusException.getStatusCode())
+                    .body(new LoginResponseDTO(statusException.getReason()));
+        }
 
-            Map<String, Object> result = userService.verifyFace(image, email);
-            return ResponseEntity.ok(result);
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new LoginResponseDTO("Falha na autenticação: " + cause.getMessage()));
+    }
 
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Erro ao verificar face: " +
-                            (e.getMessage() != null ? e.getMessage() : "Erro desconhecido")));
+    private ResponseEntity<Map<String, Object>> verifyFaceError(Throwable error) {
+        Throwable cause = unwrap(error);
+
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
         }
+
+        if (cause instanceof ResponseStatusException statusException) {
+            return ResponseEntity.status(statusException.getStatusCode())
+                    .body(Map.of("error", String.valueOf(statusException.getReason())));
+        }
+
+        return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Erro ao verificar face: " +
+                        (cause.getMessage() != null ? cause.getMessage() : "Erro desconhecido")));
     }
 
     @PostMapping("/register/admin")
@@ -123,4 +157,8 @@ public class UserController {
         List<UserResponseDTO> dtos = userService.listUsers();
         return ResponseEntity.ok(dtos);
     }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 }
@@ -0,0 +1,31 @@
+package com.apiestoque.crud.domain.email.dto;
+
+import com.apiestoque.crud.domain.email.OutboxEmail;
+
+import java.time.LocalDateTime;
+
+public record OutboxEmailResponseDTO(
+    String id,
+    String recipient,
+    String subject,
+    OutboxEmailStatus status,
+    Integer attempts,
+    LocalDateTime nextAttemptAt,
+    String lastError,
+    LocalDateTime createdAt,
+    LocalDateTime sentAt
+) {
+    public OutboxEmailResponseDTO(OutboxEmail email) {
+        this(
+            email.getId(),
+            email.getRecipient(),
+            email.getSubject(),
+            email.getStatus(),
+            email.getAttempts(),
+            email.getNextAttemptAt(),
+            email.getLastError(),
+            email.getCreatedAt(),
+            email.getSentAt()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.apiestoque.crud.domain.email.dto;
+
+public enum OutboxEmailStatus {
+    PENDING("Pending"),
+    SENT("Sent"),
+    DEAD("Dead");
+
+    private final String description;
+
+    OutboxEmailStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return this.description;
+    }
+}
@@ -1,5 +1,6 @@
 package com.apiestoque.crud.domain.exit;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -15,10 +16,12 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -28,7 +31,12 @@ import java.time.LocalDate;
 import java.util.Date;
 
 @Entity(name = "exits")
-@Table(name = "exits")
+@Table(name = "exits", indexes = {
+    @Index(name = "ix_exits_reservation", columnList = "reservation_id"),
+    @Index(name = "ix_exits_created_at", columnList = "created_at, id"),
+    @Index(name = "ix_exits_exit_date", columnList = "exit_date, id"),
+    @Index(name = "ix_exits_product_exit_date", columnList = "product_id, exit_date")
+})
 @Setter
 @Getter
 @NoArgsConstructor
@@ -48,10 +56,19 @@ public class Exit {
     @Column(name = "inventory_code", nullable = false)
     private String inventoryCode;
 
+    // Único entre as saídas com reserva: índice filtrado ux_exits_reservation_id, criado no scripts/init.sql.
+    @Column(name = "reservation_id", updatable = false)
+    private String reservationId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "exit_status")
     private ExitStatus status;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedBy
     private String createdBy;
 
@@ -0,0 +1,19 @@
+package com.apiestoque.crud.domain.exit.dto;
+
+public record ExitBatchLineResultDTO(
+    int line,
+    String productId,
+    String inventoryId,
+    Integer quantity,
+    boolean accepted,
+    String exitId,
+    String message
+) {
+    public static ExitBatchLineResultDTO accepted(int line, ExitRequestDTO item, String exitId) {
+        return new ExitBatchLineResultDTO(line, item.productId(), item.inventoryId(), item.quantity(), true, exitId, null);
+    }
+
+    public static ExitBatchLineResultDTO rejected(int line, ExitRequestDTO item, String message) {
+        return new ExitBatchLineResultDTO(line, item.productId(), item.inventoryId(), item.quantity(), false, null, message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.apiestoque.crud.domain.exit.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record ExitBatchRequestDTO(
+    @NotEmpty(message = "At least one exit line is required")
+    @Size(max = 1000, message = "A pick list cannot have more than 1000 lines")
+    List<@Valid ExitRequestDTO> items,
+
+    Boolean partial
+) { }
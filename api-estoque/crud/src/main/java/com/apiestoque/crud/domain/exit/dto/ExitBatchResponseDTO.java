@@ -0,0 +1,17 @@
+package com.apiestoque.crud.domain.exit.dto;
+
+import java.util.List;
+
+public record ExitBatchResponseDTO(
+    int accepted,
+    int rejected,
+    List<ExitBatchLineResultDTO> lines
+) {
+    public ExitBatchResponseDTO(List<ExitBatchLineResultDTO> lines) {
+        this(
+            (int) lines.stream().filter(ExitBatchLineResultDTO::accepted).count(),
+            (int) lines.stream().filter(line -> !line.accepted()).count(),
+            lines
+        );
+    }
+}
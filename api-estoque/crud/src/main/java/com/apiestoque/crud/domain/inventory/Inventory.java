@@ -1,8 +1,6 @@
 package com.apiestoque.crud.domain.inventory;
 
-import com.apiestoque.crud.domain.exit.Exit;
 import com.apiestoque.crud.domain.product.Product;
-import com.apiestoque.crud.domain.receivement.Receivement;
 
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
@@ -10,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -18,11 +17,9 @@ import org.springframework.data.annotation.LastModifiedDate;
 import java.util.Date;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity(name = "inventory")
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = @Index(name = "ix_inventory_created_at", columnList = "created_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,22 +33,6 @@ public class Inventory {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
-    @ManyToMany(cascade = CascadeType.PERSIST)
-    @JoinTable(
-        name = "inventory_receivements",
-        joinColumns = @JoinColumn(name = "inventory_id"),
-        inverseJoinColumns = @JoinColumn(name = "receivement_id")
-    )
-    private List<Receivement> receivements = new ArrayList<>();
-
-    @ManyToMany(cascade = CascadeType.PERSIST)
-    @JoinTable(
-        name = "inventory_exits",
-        joinColumns = @JoinColumn(name = "inventory_id"),
-        inverseJoinColumns = @JoinColumn(name = "exit_id")
-    )
-    private List<Exit> exits = new ArrayList<>();
-
     @Column(nullable = false)
     private Integer quantity = 0;
 
@@ -68,6 +49,11 @@ public class Inventory {
     @Column(name = "inventory_code", nullable = false, unique = true)
     private String inventoryCode;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedBy
     private String createdBy;
 
@@ -92,16 +78,4 @@ public class Inventory {
         this.discount = discount;
         this.inventoryCode = inventoryCode;
     }
-
-    public void addReceivement(Receivement receivement) {
-        this.receivements.add(receivement);
-        this.receivementQuantity += receivement.getQuantity();
-        this.quantity += receivement.getQuantity();
-    }
-
-    public void addExit(Exit exit) {
-        this.exits.add(exit);
-        this.exitQuantity += exit.getQuantity();
-        this.quantity -= exit.getQuantity();
-    }
 }
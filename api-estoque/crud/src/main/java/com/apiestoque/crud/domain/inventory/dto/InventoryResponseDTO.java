@@ -28,4 +28,9 @@ public record InventoryResponseDTO(
             inventory.getInventoryCode()
         );
     }
+
+    public InventoryResponseDTO withQuantities(Integer quantity, Integer receivementQuantity, Integer exitQuantity) {
+        return new InventoryResponseDTO(id, productId, productName, quantity, receivementQuantity, exitQuantity,
+                discount, unitPrice, inventoryCode);
+    }
 }
@@ -0,0 +1,17 @@
+package com.apiestoque.crud.domain.movement;
+
+/**
+ * Publicado ao gravar movimentações no livro, um por inventário, com {@code delta} somando as
+ * quantidades movimentadas nele na mesma gravação. {@code reserved} indica que a baixa
+ * já foi contabilizada pela camada de reservas em Redis (gravação write-behind).
+ */
+public record StockChangedEvent(
+    String inventoryId,
+    String productId,
+    int delta,
+    boolean reserved
+) {
+    public StockChangedEvent(StockMovement movement, boolean reserved) {
+        this(movement.getInventoryId(), movement.getProductId(), movement.getQuantity(), reserved);
+    }
+}
@@ -0,0 +1,56 @@
+package com.apiestoque.crud.domain.movement;
+
+import com.apiestoque.crud.domain.movement.dto.StockMovementType;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "stock_movements")
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "ix_stock_movements_inventory_created", columnList = "inventory_id, created_at"),
+    @Index(name = "ix_stock_movements_reference", columnList = "reference_id")
+})
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "inventory_id", nullable = false, updatable = false)
+    private String inventoryId;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private String productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, updatable = false)
+    private StockMovementType type;
+
+    @Column(nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(name = "reference_id", nullable = false, updatable = false)
+    private String referenceId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onPrePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public StockMovement(String inventoryId, String productId, StockMovementType type, Integer quantity, String referenceId) {
+        this.inventoryId = inventoryId;
+        this.productId = productId;
+        this.type = type;
+        this.quantity = quantity;
+        this.referenceId = referenceId;
+    }
+}
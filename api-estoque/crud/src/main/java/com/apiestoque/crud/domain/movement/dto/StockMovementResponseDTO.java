@@ -0,0 +1,27 @@
+package com.apiestoque.crud.domain.movement.dto;
+
+import java.time.LocalDateTime;
+
+import com.apiestoque.crud.domain.movement.StockMovement;
+
+public record StockMovementResponseDTO(
+    String id,
+    String inventoryId,
+    String productId,
+    StockMovementType type,
+    Integer quantity,
+    String referenceId,
+    LocalDateTime createdAt
+) {
+    public StockMovementResponseDTO(StockMovement movement) {
+        this(
+            movement.getId(),
+            movement.getInventoryId(),
+            movement.getProductId(),
+            movement.getType(),
+            movement.getQuantity(),
+            movement.getReferenceId(),
+            movement.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.apiestoque.crud.domain.movement.dto;
+
+public enum StockMovementType {
+    RECEIVEMENT("Receivement"),
+    EXIT("Exit");
+
+    private final String description;
+
+    StockMovementType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return this.description;
+    }
+}
@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -43,6 +44,14 @@ public class Product {
     @Column(name = "stock_quantity")
     private Integer stockQuantity = 0;
 
+    @Column(name = "minimum_stock")
+    private Integer minimumStock;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "unit_price", nullable = false)
     private BigDecimal unitPrice; 
 
@@ -0,0 +1,9 @@
+package com.apiestoque.crud.domain.product;
+
+/**
+ * Publicado quando algo que compõe a visão detalhada de um produto muda
+ * (dados do produto, inventários, categoria ou fornecedores).
+ */
+public record ProductChangedEvent(
+    String productId
+) { }
@@ -40,4 +40,9 @@ public record ProductDetailedResponseDTO(
                 .collect(Collectors.toSet()) : Set.of() 
         );
     }
+
+    public ProductDetailedResponseDTO withStock(Integer stockQuantity, Set<InventoryResponseDTO> inventory) {
+        return new ProductDetailedResponseDTO(id, name, description, productCode, stockQuantity, unitPrice,
+                expirationDate, category, inventory, suppliers);
+    }
 }
@@ -27,5 +27,8 @@ public record ProductRequestDTO(
     Set<@NotBlank(message = "Supplier ID cannot be blank") String> suppliersId,
     
     @Future(message = "Expiration date must be in the future")
-    LocalDate expirationDate
+    LocalDate expirationDate,
+
+    @PositiveOrZero(message = "Minimum stock must be zero or greater")
+    Integer minimumStock
 ) {}
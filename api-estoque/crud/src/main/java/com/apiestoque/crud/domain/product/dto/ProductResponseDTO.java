@@ -1,12 +1,15 @@
 package com.apiestoque.crud.domain.product.dto;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
 import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.dto.CategoryResponseDTO;
+import com.apiestoque.crud.domain.supplier.dto.SupplierResponseDTO;
 
 public record ProductResponseDTO(
     String id,
@@ -14,6 +17,7 @@ public record ProductResponseDTO(
     String description,
     String productCode,
     Integer stockQuantity,
+    Integer minimumStock,
     BigDecimal unitPrice,
     LocalDate expirationDate,
     String categoryId,
@@ -30,6 +34,7 @@ public record ProductResponseDTO(
             product.getDescription(),
             product.getProductCode(),
             product.getStockQuantity(),
+            product.getMinimumStock(),
             product.getUnitPrice(),
             product.getExpirationDate(),
             product.getCategory() != null ? product.getCategory().getId() : null,
@@ -49,4 +54,26 @@ public record ProductResponseDTO(
             product.getCreatedAt()
         );
     }
+
+    public ProductResponseDTO(Product product, CategoryResponseDTO category, Collection<SupplierResponseDTO> suppliers) {
+        this(
+            product.getId(),
+            product.getName(),
+            product.getDescription(),
+            product.getProductCode(),
+            product.getStockQuantity(),
+            product.getMinimumStock(),
+            product.getUnitPrice(),
+            product.getExpirationDate(),
+            category != null ? category.id() : null,
+            category != null ? category.name() : null,
+            product.getInventories() != null ?
+                product.getInventories().stream()
+                    .map(inventory -> inventory.getId())
+                    .collect(Collectors.toList()) : null,
+            suppliers.stream().map(SupplierResponseDTO::id).collect(Collectors.toList()),
+            suppliers.stream().map(SupplierResponseDTO::socialReason).collect(Collectors.toList()),
+            product.getCreatedAt()
+        );
+    }
 }
@@ -0,0 +1,9 @@
+package com.apiestoque.crud.domain.product.dto;
+
+public record ProductSearchResultDTO(
+    String id,
+    String name,
+    String productCode,
+    String categoryName,
+    double score
+) { }
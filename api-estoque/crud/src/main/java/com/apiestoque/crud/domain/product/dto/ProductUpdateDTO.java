@@ -11,5 +11,6 @@ public record ProductUpdateDTO(
     BigDecimal price,
     Set<String> supplierIds,
     LocalDate expirationDate,
-    String categoryId
+    String categoryId,
+    Integer minimumStock
 ) { }
@@ -13,13 +13,19 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Date;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 
 @Entity(name = "receivings")
-@Table(name = "receivings")
+@Table(name = "receivings", indexes = {
+    @Index(name = "ix_receivings_created_at", columnList = "created_at, id"),
+    @Index(name = "ix_receivings_receiving_date", columnList = "receiving_date, id"),
+    @Index(name = "ix_receivings_product_receiving_date", columnList = "product_id, receiving_date"),
+    @Index(name = "ix_receivings_inventory_code", columnList = "inventory_code, receiving_date")
+})
 @Setter
 @Getter
 @NoArgsConstructor
@@ -55,6 +61,11 @@ public class Receivement {
     @Column(name = "receiving_status")
     private ReceivementStatus status;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedBy
     private String createdBy;
 
@@ -0,0 +1,6 @@
+package com.apiestoque.crud.domain.receivement.dto;
+
+public record ReceivementImportErrorDTO(
+    long line,
+    String message
+) { }
@@ -0,0 +1,12 @@
+package com.apiestoque.crud.domain.receivement.dto;
+
+import java.util.List;
+
+public record ReceivementImportProgressDTO(
+    String importId,
+    String status,
+    long processedLines,
+    long importedLines,
+    long failedLines,
+    List<ReceivementImportErrorDTO> errors
+) { }
@@ -0,0 +1,41 @@
+package com.apiestoque.crud.domain.report;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Soma das linhas de {@link ProductDailyRollup} de uma categoria em um dia.
+ */
+@Entity(name = "category_daily_rollups")
+@Table(name = "category_daily_rollups", indexes = @Index(name = "ix_category_daily_rollups_day", columnList = "rollup_date"))
+@IdClass(CategoryDailyRollupId.class)
+@Getter
+@NoArgsConstructor
+public class CategoryDailyRollup {
+    @Id
+    @Column(name = "category_id")
+    private String categoryId;
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate day;
+
+    @Column(name = "quantity_in", nullable = false)
+    private Long quantityIn;
+
+    @Column(name = "quantity_out", nullable = false)
+    private Long quantityOut;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "days_to_exit_total", nullable = false)
+    private Long daysToExitTotal;
+
+    @Column(name = "exits_with_receipt", nullable = false)
+    private Long exitsWithReceipt;
+}
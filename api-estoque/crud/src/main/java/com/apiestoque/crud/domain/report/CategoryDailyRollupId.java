@@ -0,0 +1,18 @@
+package com.apiestoque.crud.domain.report;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CategoryDailyRollupId implements Serializable {
+    private String categoryId;
+    private LocalDate day;
+}
@@ -0,0 +1,48 @@
+package com.apiestoque.crud.domain.report;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de um produto em um dia, mantidos pelo {@code RollupService} a partir das saídas e
+ * recebimentos daquele dia. A categoria é a do produto no momento do recálculo.
+ */
+@Entity(name = "product_daily_rollups")
+@Table(name = "product_daily_rollups", indexes = {
+    @Index(name = "ix_product_daily_rollups_day", columnList = "rollup_date"),
+    @Index(name = "ix_product_daily_rollups_category", columnList = "category_id, rollup_date")
+})
+@IdClass(ProductDailyRollupId.class)
+@Getter
+@NoArgsConstructor
+public class ProductDailyRollup {
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate day;
+
+    @Column(name = "category_id", nullable = false)
+    private String categoryId;
+
+    @Column(name = "quantity_in", nullable = false)
+    private Long quantityIn;
+
+    @Column(name = "quantity_out", nullable = false)
+    private Long quantityOut;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "days_to_exit_total", nullable = false)
+    private Long daysToExitTotal;
+
+    @Column(name = "exits_with_receipt", nullable = false)
+    private Long exitsWithReceipt;
+}
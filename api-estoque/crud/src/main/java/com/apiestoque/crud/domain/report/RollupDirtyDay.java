@@ -0,0 +1,27 @@
+package com.apiestoque.crud.domain.report;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de pares produto/dia a recalcular. As linhas são gravadas na mesma transação da
+ * movimentação e consumidas em micro-lotes; duplicatas são esperadas e descartadas no consumo.
+ */
+@Entity(name = "rollup_dirty_days")
+@Table(name = "rollup_dirty_days")
+@Getter
+@NoArgsConstructor
+public class RollupDirtyDay {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate day;
+}
@@ -0,0 +1,18 @@
+package com.apiestoque.crud.domain.report.dto;
+
+import java.math.BigDecimal;
+
+public record CategoryRollupSummaryDTO(
+    String categoryId,
+    String categoryName,
+    long quantityIn,
+    long quantityOut,
+    BigDecimal revenue,
+    Double averageDaysToExit
+) {
+    public CategoryRollupSummaryDTO(String categoryId, String categoryName, Long quantityIn, Long quantityOut,
+                                    BigDecimal revenue, Long daysToExitTotal, Long exitsWithReceipt) {
+        this(categoryId, categoryName, quantityIn, quantityOut, revenue,
+                DailyRollupDTO.average(daysToExitTotal, exitsWithReceipt));
+    }
+}
@@ -0,0 +1,29 @@
+package com.apiestoque.crud.domain.report.dto;
+
+import com.apiestoque.crud.domain.report.CategoryDailyRollup;
+import com.apiestoque.crud.domain.report.ProductDailyRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRollupDTO(
+    LocalDate day,
+    long quantityIn,
+    long quantityOut,
+    BigDecimal revenue,
+    Double averageDaysToExit
+) {
+    public DailyRollupDTO(ProductDailyRollup rollup) {
+        this(rollup.getDay(), rollup.getQuantityIn(), rollup.getQuantityOut(), rollup.getRevenue(),
+                average(rollup.getDaysToExitTotal(), rollup.getExitsWithReceipt()));
+    }
+
+    public DailyRollupDTO(CategoryDailyRollup rollup) {
+        this(rollup.getDay(), rollup.getQuantityIn(), rollup.getQuantityOut(), rollup.getRevenue(),
+                average(rollup.getDaysToExitTotal(), rollup.getExitsWithReceipt()));
+    }
+
+    public static Double average(Long total, Long count) {
+        return count == null || count == 0 ? null : (double) total / count;
+    }
+}
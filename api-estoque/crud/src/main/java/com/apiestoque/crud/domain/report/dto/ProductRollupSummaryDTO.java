@@ -0,0 +1,19 @@
+package com.apiestoque.crud.domain.report.dto;
+
+import java.math.BigDecimal;
+
+public record ProductRollupSummaryDTO(
+    String productId,
+    String productName,
+    String productCode,
+    long quantityIn,
+    long quantityOut,
+    BigDecimal revenue,
+    Double averageDaysToExit
+) {
+    public ProductRollupSummaryDTO(String productId, String productName, String productCode, Long quantityIn,
+                                   Long quantityOut, BigDecimal revenue, Long daysToExitTotal, Long exitsWithReceipt) {
+        this(productId, productName, productCode, quantityIn, quantityOut, revenue,
+                DailyRollupDTO.average(daysToExitTotal, exitsWithReceipt));
+    }
+}
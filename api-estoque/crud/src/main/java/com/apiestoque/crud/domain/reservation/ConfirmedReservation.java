@@ -0,0 +1,15 @@
+package com.apiestoque.crud.domain.reservation;
+
+import com.apiestoque.crud.domain.exit.dto.ExitStatus;
+
+/**
+ * Reserva confirmada aguardando a gravação write-behind como {@code Exit}.
+ * É o conteúdo de cada item da fila {@code stock:confirmed} no Redis.
+ */
+public record ConfirmedReservation(
+    String reservationId,
+    String inventoryId,
+    String productId,
+    int quantity,
+    ExitStatus status
+) { }
@@ -0,0 +1,7 @@
+package com.apiestoque.crud.domain.reservation.dto;
+
+import com.apiestoque.crud.domain.exit.dto.ExitStatus;
+
+public record ReservationConfirmDTO(
+    ExitStatus exitStatus
+) { }
@@ -0,0 +1,19 @@
+package com.apiestoque.crud.domain.reservation.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record ReservationRequestDTO(
+    @NotNull(message = "Product ID is required")
+    String productId,
+
+    @NotNull(message = "Inventory is required")
+    String inventoryId,
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    Integer quantity,
+
+    @Positive(message = "TTL must be positive")
+    Integer ttlSeconds
+) { }
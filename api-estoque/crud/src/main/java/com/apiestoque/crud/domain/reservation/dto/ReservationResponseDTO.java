@@ -0,0 +1,12 @@
+package com.apiestoque.crud.domain.reservation.dto;
+
+import java.time.Instant;
+
+public record ReservationResponseDTO(
+    String reservationId,
+    String inventoryId,
+    String productId,
+    Integer quantity,
+    Instant expiresAt,
+    long remaining
+) { }
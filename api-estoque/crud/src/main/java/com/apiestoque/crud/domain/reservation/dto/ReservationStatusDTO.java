@@ -0,0 +1,7 @@
+package com.apiestoque.crud.domain.reservation.dto;
+
+public record ReservationStatusDTO(
+    String reservationId,
+    String status,
+    Integer quantity
+) { }
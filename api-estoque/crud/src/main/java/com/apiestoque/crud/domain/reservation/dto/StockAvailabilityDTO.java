@@ -0,0 +1,8 @@
+package com.apiestoque.crud.domain.reservation.dto;
+
+public record StockAvailabilityDTO(
+    String inventoryId,
+    long available,
+    long held,
+    long pending
+) { }
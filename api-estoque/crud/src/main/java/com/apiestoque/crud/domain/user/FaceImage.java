@@ -0,0 +1,54 @@
+package com.apiestoque.crud.domain.user;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Imagem facial endereçada pelo próprio conteúdo: a chave é o SHA-256 dos bytes, então imagens
+ * idênticas são gravadas uma única vez e a linha nunca muda depois de criada.
+ */
+@Entity(name = "face_images")
+@Table(name = "face_images")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "checksum")
+public class FaceImage {
+    @Id
+    @Column(length = 64)
+    private String checksum;
+
+    @Column(nullable = false, columnDefinition = "VARBINARY(MAX)")
+    private byte[] image;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Integer sizeBytes;
+
+    // Embedding de referência calculado pelo serviço de reconhecimento na primeira verificação.
+    @Column(columnDefinition = "VARBINARY(MAX)")
+    private byte[] embedding;
+
+    @Column(name = "embedding_model", length = 50)
+    private String embeddingModel;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onPrePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public FaceImage(String checksum, byte[] image) {
+        this.checksum = checksum;
+        this.image = image;
+        this.sizeBytes = image.length;
+    }
+}
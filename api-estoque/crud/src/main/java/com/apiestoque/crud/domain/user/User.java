@@ -49,8 +49,9 @@ public class User implements UserDetails {
 
     private String password;
 
-    @Column(name = "face_image", nullable = true, columnDefinition = "VARBINARY(MAX)")
-    private byte[] faceImage;
+    // Referência para face_images: o SHA-256 da imagem, que fica fora da linha do usuário.
+    @Column(name = "face_image_checksum", length = 64)
+    private String faceImageChecksum;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -110,13 +111,17 @@ public class User implements UserDetails {
         return true;
     }
 
-    public User(String username, String email, String password, UserStatus status, UserRole role, byte[] faceImage) {
+    public User(String username, String email, String password, UserStatus status, UserRole role, String faceImageChecksum) {
         this.username = username;
         this.email = email;
         this.password = password;
         this.status = status;
         this.role = role;
-        this.faceImage = faceImage;
+        this.faceImageChecksum = faceImageChecksum;
+    }
+
+    public boolean hasFaceImage() {
+        return faceImageChecksum != null;
     }
 
     public User orElseThrow(Object object) {
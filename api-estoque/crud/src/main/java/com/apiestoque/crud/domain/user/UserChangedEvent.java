@@ -0,0 +1,8 @@
+package com.apiestoque.crud.domain.user;
+
+/**
+ * Publicado quando muda algo que compõe o principal autenticado (status ou senha).
+ */
+public record UserChangedEvent(
+    String email
+) { }
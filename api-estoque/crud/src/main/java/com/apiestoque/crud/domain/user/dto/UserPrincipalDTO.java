@@ -0,0 +1,23 @@
+package com.apiestoque.crud.domain.user.dto;
+
+import com.apiestoque.crud.domain.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Somente as colunas necessárias para autenticar uma requisição; evita trazer a senha.
+ */
+public record UserPrincipalDTO(
+    String id,
+    String username,
+    String email,
+    UserRole role,
+    UserStatus status,
+    Date createdAt,
+    LocalDateTime updatedAt
+) {
+    public User toUser() {
+        return new User(id, username, email, null, null, role, status, createdAt, updatedAt);
+    }
+}
@@ -1,32 +1,86 @@
 package com.apiestoque.crud.infra;
 
+import com.apiestoque.crud.domain.product.dto.ProductDetailedResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.lettuce.core.resource.ClientResources;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 @EnableCaching
-public class RedisConfig {
+public class RedisConfig implements CachingConfigurer {
+    public static final String PRODUCT_DETAILS_CACHE = "productDetails";
+
+    @Value("${cache.product-details.ttl:10m}")
+    private Duration productDetailsTtl;
+
+    // Os ClientResources do Spring Boot trazem o coletor de latência de comandos do Lettuce
+    // ligado ao Micrometer (lettuce.command.completion / lettuce.command.firstresponse).
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        LettuceConnectionFactory factory = new LettuceConnectionFactory("redis", 6379);
+    public RedisConnectionFactory redisConnectionFactory(ObjectProvider<ClientResources> clientResources) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfiguration = LettuceClientConfiguration.builder();
+        clientResources.ifAvailable(clientConfiguration::clientResources);
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("redis", 6379), clientConfiguration.build());
         factory.afterPropertiesSet(); 
         return factory;
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate() {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(redisConnectionFactory());
+        template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
         template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
         return template;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .prefixCacheNameWith("cache:")
+                .disableCachingNullValues();
+
+        RedisCacheConfiguration productDetails = defaults
+                .entryTtl(productDetailsTtl)
+                .serializeValuesWith(SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, ProductDetailedResponseDTO.class)));
+
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withCacheConfiguration(PRODUCT_DETAILS_CACHE, productDetails)
+                .enableStatistics()
+                .build();
+    }
+
+    // Redis fora do ar não pode derrubar a leitura: a falha é registrada e a consulta vai ao banco.
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+}
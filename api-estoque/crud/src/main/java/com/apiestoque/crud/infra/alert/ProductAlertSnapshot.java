@@ -0,0 +1,12 @@
+package com.apiestoque.crud.infra.alert;
+
+import java.time.LocalDate;
+
+public record ProductAlertSnapshot(
+    String productId,
+    String productName,
+    String productCode,
+    int stockQuantity,
+    Integer minimumStock,
+    LocalDate expirationDate
+) { }
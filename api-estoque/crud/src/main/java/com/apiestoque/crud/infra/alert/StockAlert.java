@@ -0,0 +1,27 @@
+package com.apiestoque.crud.infra.alert;
+
+import java.time.LocalDate;
+
+public record StockAlert(
+    StockAlertType type,
+    String productId,
+    String productName,
+    String productCode,
+    int stockQuantity,
+    Integer minimumStock,
+    LocalDate expirationDate
+) {
+    /**
+     * Chave de deduplicação: um alerta de vencimento por data de validade, um de estoque baixo por produto.
+     */
+    public String key() {
+        return type == StockAlertType.EXPIRATION ? type + ":" + productId + ":" + expirationDate : type + ":" + productId;
+    }
+
+    public String describe() {
+        String product = productName + " (" + productCode + ")";
+        return type == StockAlertType.EXPIRATION
+                ? product + ": vence em " + expirationDate + ", " + stockQuantity + " unidades em estoque"
+                : product + ": " + stockQuantity + " unidades em estoque, mínimo " + minimumStock;
+    }
+}
@@ -0,0 +1,27 @@
+package com.apiestoque.crud.infra.alert;
+
+import com.apiestoque.crud.services.StockAlertService;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class StockAlertConfig {
+    // Cada instância assina o canal e relê no banco os produtos alterados em qualquer nó.
+    @Bean
+    public RedisMessageListenerContainer stockAlertListenerContainer(RedisConnectionFactory connectionFactory,
+            StockAlertService stockAlertService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> stockAlertService.onRemoteChange(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(StockAlertService.CHANGED_CHANNEL));
+
+        return container;
+    }
+}
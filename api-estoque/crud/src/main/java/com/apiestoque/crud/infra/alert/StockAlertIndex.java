@@ -0,0 +1,136 @@
+package com.apiestoque.crud.infra.alert;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Índice em memória dos produtos monitorados. Os vencimentos ficam numa árvore ordenada pela data
+ * de disparo, então o agendador só olha o início da fila; o estoque mínimo é conferido no próprio
+ * produto a cada movimentação. Toda alteração custa O(log n), sem varrer o catálogo.
+ */
+public class StockAlertIndex {
+    private static final Comparator<Entry> BY_FIRE_DATE = Comparator
+            .comparing((Entry entry) -> entry.fireDate)
+            .thenComparing(entry -> entry.productId);
+
+    private final int leadDays;
+    private final Map<String, Entry> products = new HashMap<>();
+    private final TreeSet<Entry> expirations = new TreeSet<>(BY_FIRE_DATE);
+
+    public StockAlertIndex(int leadDays) {
+        this.leadDays = leadDays;
+    }
+
+    /**
+     * Registra ou substitui o estado de um produto. Devolve o alerta de estoque baixo quando o
+     * produto acabou de cruzar o mínimo.
+     */
+    public synchronized StockAlert upsert(ProductAlertSnapshot snapshot) {
+        Entry previous = products.get(snapshot.productId());
+        Entry entry = new Entry(snapshot);
+
+        if (previous != null) {
+            if (previous.fireDate != null) {
+                expirations.remove(previous);
+            }
+            entry.belowMinimum = previous.belowMinimum;
+            entry.expirationFired = previous.expirationFired
+                    && Objects.equals(previous.expirationDate, snapshot.expirationDate());
+        }
+
+        if (entry.expirationDate != null && !entry.expirationFired) {
+            entry.fireDate = entry.expirationDate.minusDays(leadDays);
+            expirations.add(entry);
+        }
+
+        products.put(entry.productId, entry);
+        return checkMinimum(entry);
+    }
+
+    public synchronized StockAlert applyDelta(String productId, int delta) {
+        Entry entry = products.get(productId);
+        if (entry == null) {
+            return null;
+        }
+
+        entry.stockQuantity += delta;
+        return checkMinimum(entry);
+    }
+
+    public synchronized void remove(String productId) {
+        Entry entry = products.remove(productId);
+        if (entry != null && entry.fireDate != null) {
+            expirations.remove(entry);
+        }
+    }
+
+    /**
+     * Retira da fila os vencimentos cuja data de disparo já chegou. Produtos sem saldo saem da fila
+     * sem gerar alerta.
+     */
+    public synchronized List<StockAlert> pollDueExpirations(LocalDate today) {
+        List<StockAlert> due = new ArrayList<>();
+
+        while (!expirations.isEmpty() && !expirations.first().fireDate.isAfter(today)) {
+            Entry entry = expirations.pollFirst();
+            entry.expirationFired = true;
+
+            if (entry.stockQuantity > 0) {
+                due.add(entry.toAlert(StockAlertType.EXPIRATION));
+            }
+        }
+
+        return due;
+    }
+
+    public synchronized int size() {
+        return products.size();
+    }
+
+    public synchronized int pendingExpirations() {
+        return expirations.size();
+    }
+
+    private StockAlert checkMinimum(Entry entry) {
+        boolean below = entry.minimumStock != null && entry.stockQuantity <= entry.minimumStock;
+
+        if (below && !entry.belowMinimum) {
+            entry.belowMinimum = true;
+            return entry.toAlert(StockAlertType.LOW_STOCK);
+        }
+
+        entry.belowMinimum = below;
+        return null;
+    }
+
+    private static final class Entry {
+        private final String productId;
+        private final String productName;
+        private final String productCode;
+        private final Integer minimumStock;
+        private final LocalDate expirationDate;
+        private int stockQuantity;
+        private LocalDate fireDate;
+        private boolean belowMinimum;
+        private boolean expirationFired;
+
+        private Entry(ProductAlertSnapshot snapshot) {
+            this.productId = snapshot.productId();
+            this.productName = snapshot.productName();
+            this.productCode = snapshot.productCode();
+            this.minimumStock = snapshot.minimumStock();
+            this.expirationDate = snapshot.expirationDate();
+            this.stockQuantity = snapshot.stockQuantity();
+        }
+
+        private StockAlert toAlert(StockAlertType type) {
+            return new StockAlert(type, productId, productName, productCode, stockQuantity, minimumStock, expirationDate);
+        }
+    }
+}
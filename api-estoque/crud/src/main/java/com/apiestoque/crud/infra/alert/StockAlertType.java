@@ -0,0 +1,16 @@
+package com.apiestoque.crud.infra.alert;
+
+public enum StockAlertType {
+    LOW_STOCK("Estoque baixo"),
+    EXPIRATION("Vencimento");
+
+    private final String description;
+
+    StockAlertType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,38 @@
+package com.apiestoque.crud.infra.cache;
+
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
+import com.apiestoque.crud.infra.RedisConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Remove o detalhe do produto do cache depois do commit de uma edição. Movimentações de estoque
+ * não removem nada: as quantidades são lidas do banco a cada consulta ({@link ProductDetailsCache}).
+ * Uma leitura que consultou o banco antes do commit ainda pode gravar o estado antigo depois da
+ * remoção; como edições são raras, essa janela fica limitada pelo TTL do cache
+ * ({@code cache.product-details.ttl}).
+ */
+@Component
+public class ProductCacheInvalidator {
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Cache cache = cacheManager.getCache(RedisConfig.PRODUCT_DETAILS_CACHE);
+
+        if (cache != null && event.productId() != null) {
+            cache.evict(event.productId());
+            meterRegistry.counter("cache.invalidations", "cache", RedisConfig.PRODUCT_DETAILS_CACHE, "reason", "product").increment();
+        }
+    }
+}
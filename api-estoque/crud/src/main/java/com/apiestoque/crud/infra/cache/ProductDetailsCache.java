@@ -0,0 +1,30 @@
+package com.apiestoque.crud.infra.cache;
+
+import com.apiestoque.crud.domain.product.dto.ProductDetailedResponseDTO;
+import com.apiestoque.crud.infra.RedisConfig;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Detalhe do produto no cache do Redis. As quantidades gravadas junto ficam defasadas a cada
+ * movimentação e não são usadas: quem lê sobrepõe o estoque atual do banco. Por isso só a edição
+ * do produto remove a entrada ({@link ProductCacheInvalidator}), e SKUs movimentados continuam no cache.
+ */
+@Component
+public class ProductDetailsCache {
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Fica no primário: o resultado vai para o cache do Redis e não pode nascer de uma réplica atrasada.
+    @Cacheable(cacheNames = RedisConfig.PRODUCT_DETAILS_CACHE, key = "#id", unless = "#result == null")
+    @Transactional
+    public Optional<ProductDetailedResponseDTO> get(String id) {
+        return productRepository.findById(id).map(ProductDetailedResponseDTO::new);
+    }
+}
@@ -0,0 +1,169 @@
+package com.apiestoque.crud.infra.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache em dois níveis para dados de referência: L1 em memória (Caffeine, limitado por tamanho e TTL)
+ * na frente de um L2 compartilhado no Redis. Escritas chamam {@link #evict(String)}, que apaga o L2 e
+ * publica a invalidação para que todas as instâncias descartem o L1; se a mensagem se perder, o TTL do
+ * L1 limita o tempo de leitura desatualizada.
+ */
+public class ReferenceDataCache<V> {
+    public static final String INVALIDATION_CHANNEL = "refcache:invalidate";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final String name;
+    private final Class<V> type;
+    private final Function<Collection<String>, Map<String, V>> loader;
+    private final Cache<String, V> local;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration remoteTtl;
+
+    public ReferenceDataCache(String name, Class<V> type, Function<Collection<String>, Map<String, V>> loader,
+                              ReferenceDataCacheProperties properties, StringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.loader = loader;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.remoteTtl = properties.remoteTtl();
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.localMaxSize())
+                .expireAfterWrite(properties.localTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<V> get(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(getAll(List.of(id)).get(id));
+    }
+
+    /**
+     * Resolve vários ids de uma vez: o que faltar no L1 vai em um único MGET ao Redis e o que faltar
+     * no Redis em uma única consulta ao banco. Ids inexistentes ficam fora do mapa retornado.
+     */
+    public Map<String, V> getAll(Collection<String> ids) {
+        Map<String, V> found = new HashMap<>(local.getAllPresent(ids));
+
+        List<String> missing = new ArrayList<>(new LinkedHashSet<>(ids));
+        missing.removeAll(found.keySet());
+        missing.remove(null);
+
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<String, V> remote = readRemote(missing);
+        local.putAll(remote);
+        found.putAll(remote);
+        missing.removeAll(remote.keySet());
+
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<String, V> loaded = loader.apply(missing);
+        local.putAll(loaded);
+        writeRemote(loaded);
+        found.putAll(loaded);
+
+        return found;
+    }
+
+    public void evict(String id) {
+        local.invalidate(id);
+
+        try {
+            redisTemplate.delete(key(id));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, name + ":" + id);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao propagar invalidação de {} {}: {}", name, id, e.getMessage());
+        }
+    }
+
+    void evictLocal(String id) {
+        local.invalidate(id);
+    }
+
+    private Map<String, V> readRemote(List<String> ids) {
+        Map<String, V> values = new HashMap<>();
+
+        try {
+            List<String> payloads = redisTemplate.opsForValue().multiGet(ids.stream().map(this::key).toList());
+
+            for (int i = 0; payloads != null && i < ids.size(); i++) {
+                if (payloads.get(i) != null) {
+                    values.put(ids.get(i), objectMapper.readValue(payloads.get(i), type));
+                }
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            logger.warn("Falha ao ler {} do Redis, consultando o banco: {}", name, e.getMessage());
+        }
+
+        return values;
+    }
+
+    // Um SET com expiração por item, todos no mesmo pipeline: uma ida ao Redis por lote em vez de uma por id.
+    private void writeRemote(Map<String, V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<byte[], byte[]> payloads = new HashMap<>();
+            for (Map.Entry<String, V> entry : values.entrySet()) {
+                payloads.put(key(entry.getKey()).getBytes(StandardCharsets.UTF_8), objectMapper.writeValueAsBytes(entry.getValue()));
+            }
+
+            Expiration expiration = Expiration.from(remoteTtl);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                payloads.forEach((key, payload) -> connection.stringCommands().set(key, payload, expiration, SetOption.upsert()));
+                return null;
+            });
+        } catch (DataAccessException | JsonProcessingException e) {
+            logger.warn("Falha ao gravar {} no Redis: {}", name, e.getMessage());
+        }
+    }
+
+    private String key(String id) {
+        return "refcache:" + name + ":" + id;
+    }
+}
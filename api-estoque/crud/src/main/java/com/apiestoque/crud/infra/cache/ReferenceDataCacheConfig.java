@@ -0,0 +1,82 @@
+package com.apiestoque.crud.infra.cache;
+
+import com.apiestoque.crud.domain.product.category.dto.CategoryResponseDTO;
+import com.apiestoque.crud.domain.supplier.dto.SupplierResponseDTO;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.SupplierRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Configuration
+public class ReferenceDataCacheConfig {
+    @Value("${reference-cache.local.max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${reference-cache.local.ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${reference-cache.remote.ttl:1h}")
+    private Duration remoteTtl;
+
+    @Bean
+    public ReferenceDataCache<CategoryResponseDTO> categoryCache(CategoryRepository categoryRepository,
+            StringRedisTemplate redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new ReferenceDataCache<>("categories", CategoryResponseDTO.class,
+                ids -> categoryRepository.findAllById(ids).stream()
+                        .map(CategoryResponseDTO::new)
+                        .collect(Collectors.toMap(CategoryResponseDTO::id, Function.identity())),
+                properties(), redisTemplate, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public ReferenceDataCache<SupplierResponseDTO> supplierCache(SupplierRepository supplierRepository,
+            StringRedisTemplate redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new ReferenceDataCache<>("suppliers", SupplierResponseDTO.class,
+                ids -> supplierRepository.findAllById(ids).stream()
+                        .map(SupplierResponseDTO::new)
+                        .collect(Collectors.toMap(SupplierResponseDTO::id, Function.identity())),
+                properties(), redisTemplate, objectMapper, meterRegistry);
+    }
+
+    // Cada instância assina o canal e descarta do seu L1 os ids alterados em qualquer nó.
+    @Bean
+    public RedisMessageListenerContainer referenceCacheListenerContainer(RedisConnectionFactory connectionFactory,
+            List<ReferenceDataCache<?>> caches) {
+        Map<String, ReferenceDataCache<?>> cachesByName = caches.stream()
+                .collect(Collectors.toMap(ReferenceDataCache::getName, Function.identity()));
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf(':');
+            ReferenceDataCache<?> cache = separator > 0 ? cachesByName.get(body.substring(0, separator)) : null;
+
+            if (cache != null) {
+                cache.evictLocal(body.substring(separator + 1));
+            }
+        }, new ChannelTopic(ReferenceDataCache.INVALIDATION_CHANNEL));
+
+        return container;
+    }
+
+    private ReferenceDataCacheProperties properties() {
+        return new ReferenceDataCacheProperties(localMaxSize, localTtl, remoteTtl);
+    }
+}
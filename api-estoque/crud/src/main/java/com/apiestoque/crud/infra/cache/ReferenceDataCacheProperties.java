@@ -0,0 +1,9 @@
+package com.apiestoque.crud.infra.cache;
+
+import java.time.Duration;
+
+public record ReferenceDataCacheProperties(
+    long localMaxSize,
+    Duration localTtl,
+    Duration remoteTtl
+) { }
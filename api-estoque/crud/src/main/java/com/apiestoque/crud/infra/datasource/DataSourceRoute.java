@@ -0,0 +1,6 @@
+package com.apiestoque.crud.infra.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
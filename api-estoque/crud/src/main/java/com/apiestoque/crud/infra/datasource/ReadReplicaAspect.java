@@ -0,0 +1,32 @@
+package com.apiestoque.crud.infra.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Libera a réplica para os métodos da aplicação anotados com {@code @Transactional(readOnly = true)}.
+ * As transações somente leitura que o Spring Data abre por conta própria nos repositórios não passam
+ * por aqui e continuam no primário: checagens feitas antes de uma escrita e a carga do principal
+ * não podem ler dados atrasados.
+ */
+@Aspect
+@Component
+public class ReadReplicaAspect {
+
+    @Around("@annotation(transactional) && within(com.apiestoque.crud..*)")
+    public Object route(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly() || ReadWriteRoutingDataSource.replicaRequested()) {
+            return joinPoint.proceed();
+        }
+
+        ReadWriteRoutingDataSource.requestReplica(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.requestReplica(false);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.apiestoque.crud.infra.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Escolhe o pool na hora em que a conexão física é pedida. Só vai para a réplica a transação
+ * somente leitura aberta por um método que pediu a réplica (ver {@link ReadReplicaAspect}) e cujo
+ * usuário não escreveu dentro da janela de lag; o resto, inclusive as transações padrão dos
+ * repositórios, fica no primário.
+ * <p>
+ * Precisa estar atrás de um {@code LazyConnectionDataSourceProxy}: a flag de somente leitura da
+ * transação só é publicada depois do begin, e a conexão só pode ser escolhida depois disso.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> REPLICA_REQUESTED = new ThreadLocal<>();
+
+    private final ReplicationLagGuard lagGuard;
+
+    public ReadWriteRoutingDataSource(ReplicationLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+    }
+
+    static boolean replicaRequested() {
+        return Boolean.TRUE.equals(REPLICA_REQUESTED.get());
+    }
+
+    static void requestReplica(boolean requested) {
+        if (requested) {
+            REPLICA_REQUESTED.set(Boolean.TRUE);
+        } else {
+            REPLICA_REQUESTED.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                lagGuard.trackWrite();
+            }
+            return DataSourceRoute.PRIMARY;
+        }
+
+        return replicaRequested() && !lagGuard.mustReadPrimary() ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+    }
+}
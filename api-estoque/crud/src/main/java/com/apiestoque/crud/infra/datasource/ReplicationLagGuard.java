@@ -0,0 +1,112 @@
+package com.apiestoque.crud.infra.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas com réplica assíncrona: depois que uma transação de escrita de um
+ * usuário (uma movimentação de estoque, por exemplo) faz commit, as leituras desse mesmo usuário
+ * continuam no primário por {@code datasource.replica.max-lag}. Os demais usuários seguem na
+ * réplica. Com {@code max-lag=0} a proteção fica desligada.
+ *
+ * <p>A marca vai para o Redis com o mesmo prazo, porque a próxima requisição do usuário pode cair em
+ * outra instância. A instância que fez a escrita também guarda a marca em memória e responde sem ir
+ * ao Redis; nas demais, cada leitura de usuário autenticado custa um EXISTS. Com o Redis fora do ar
+ * a leitura vai para o primário, já que não há como saber se o usuário acabou de escrever.
+ */
+@Component
+public class ReplicationLagGuard {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationLagGuard.class);
+    private static final String KEY_PREFIX = "replica:recent-writer:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration maxLag;
+    private final Cache<String, Boolean> recentWriters;
+    private final Counter primaryReads;
+    private final Counter redisFailures;
+
+    public ReplicationLagGuard(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                               @Value("${datasource.replica.max-lag:2s}") Duration maxLag,
+                               @Value("${datasource.replica.lag-guard.max-size:100000}") long maxSize) {
+        this.redisTemplate = redisTemplate;
+        this.maxLag = maxLag;
+        this.recentWriters = maxLag.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxLag)
+                .build();
+        this.primaryReads = meterRegistry.counter("datasource.replica.lag-guard.primary-reads");
+        this.redisFailures = meterRegistry.counter("datasource.replica.lag-guard.redis-failures");
+    }
+
+    /**
+     * Marca o usuário atual no commit da transação de escrita em andamento.
+     */
+    void trackWrite() {
+        String principal = currentPrincipal();
+        if (recentWriters == null || principal == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(principal, Boolean.TRUE);
+
+                try {
+                    redisTemplate.opsForValue().set(KEY_PREFIX + principal, "1", maxLag);
+                } catch (DataAccessException e) {
+                    redisFailures.increment();
+                    logger.warn("Não foi possível registrar a escrita de {} no Redis: {}", principal, e.getMessage());
+                }
+            }
+        });
+    }
+
+    boolean mustReadPrimary() {
+        String principal = currentPrincipal();
+        if (recentWriters == null || principal == null) {
+            return false;
+        }
+
+        if (recentWriters.getIfPresent(principal) == null && !writtenOnAnotherNode(principal)) {
+            return false;
+        }
+
+        primaryReads.increment();
+        return true;
+    }
+
+    private boolean writtenOnAnotherNode(String principal) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + principal));
+        } catch (DataAccessException e) {
+            redisFailures.increment();
+            return true;
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
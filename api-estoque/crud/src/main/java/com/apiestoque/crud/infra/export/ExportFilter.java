@@ -0,0 +1,14 @@
+package com.apiestoque.crud.infra.export;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+public record ExportFilter(LocalDate from, LocalDate to, String status) {
+    public ExportFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A data inicial deve ser anterior ou igual à data final.");
+        }
+    }
+}
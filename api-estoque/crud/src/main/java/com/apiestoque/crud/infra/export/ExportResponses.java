@@ -0,0 +1,30 @@
+package com.apiestoque.crud.infra.export;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    /**
+     * Prepara os cabeçalhos do download e devolve o stream onde as linhas devem ser escritas.
+     * Com gzip o arquivo é entregue como {@code .gz}, sem Content-Encoding, para que o cliente
+     * salve o conteúdo compactado do jeito que pediu.
+     */
+    public static OutputStream open(HttpServletResponse response, String name, ExportFormat format, boolean gzip)
+            throws IOException {
+        String fileName = name + "." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        OutputStream out = response.getOutputStream();
+        return gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+    }
+}
@@ -0,0 +1,127 @@
+package com.apiestoque.crud.infra.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve linhas de exportação direto no stream da resposta, sem acumular nada além do buffer de
+ * saída. Fechar o writer fecha o stream (e finaliza o gzip, quando houver).
+ */
+public abstract class ExportWriter implements Closeable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    protected final String[] columns;
+
+    protected ExportWriter(String[] columns) {
+        this.columns = columns;
+    }
+
+    public abstract void writeRow(Object[] values) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    public static ExportWriter of(ExportFormat format, OutputStream out, String[] columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        return format == ExportFormat.CSV ? new Csv(writer, columns) : new NdJson(writer, columns);
+    }
+
+    private static final class Csv extends ExportWriter {
+        private final Writer writer;
+
+        private Csv(Writer writer, String[] columns) throws IOException {
+            super(columns);
+            this.writer = writer;
+            writeLine(columns);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i] instanceof BigDecimal decimal ? decimal.toPlainString() : values[i].toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class NdJson extends ExportWriter {
+        private final JsonGenerator generator;
+
+        private NdJson(Writer writer, String[] columns) throws IOException {
+            super(columns);
+            this.generator = JSON_FACTORY.createGenerator(writer);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.apiestoque.crud.infra.face;
+
+public record FaceComparison(
+    boolean verified,
+    double distance
+) { }
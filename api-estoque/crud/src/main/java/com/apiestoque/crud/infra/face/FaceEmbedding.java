@@ -0,0 +1,28 @@
+package com.apiestoque.crud.infra.face;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Embedding de referência de um rosto, gravado como float32 little-endian para caber em poucos KB.
+ */
+public record FaceEmbedding(
+    String model,
+    float[] vector
+) {
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    public FaceEmbedding(String model, byte[] bytes) {
+        this(model, decode(bytes));
+    }
+
+    private static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
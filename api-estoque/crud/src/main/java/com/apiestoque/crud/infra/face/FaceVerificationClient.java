@@ -0,0 +1,174 @@
+package com.apiestoque.crud.infra.face;
+
+import com.apiestoque.crud.infra.resilience.CircuitBreaker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Cliente assíncrono do serviço de reconhecimento facial. Um único {@link HttpClient} é compartilhado;
+ * o número de chamadas simultâneas é limitado por um bulkhead e falhas seguidas abrem o disjuntor,
+ * de modo que um serviço lento ou fora do ar devolve 503 na hora em vez de prender threads.
+ * Só falhas de rede e respostas 5xx contam para o disjuntor; um 4xx (imagem sem rosto, embedding
+ * de outro modelo) é problema da requisição e volta ao chamador com o mesmo status.
+ */
+@Component
+public class FaceVerificationClient {
+    private final URI baseUri;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public FaceVerificationClient(@Value("${face.api.url:http://deepface-api:5000}") String baseUrl,
+                                  @Value("${face.api.connect-timeout:2s}") Duration connectTimeout,
+                                  @Value("${face.api.timeout:10s}") Duration timeout,
+                                  @Value("${face.api.max-concurrent:16}") int maxConcurrent,
+                                  @Value("${face.api.circuit.failure-threshold:5}") int failureThreshold,
+                                  @Value("${face.api.circuit.open-duration:30s}") Duration openDuration,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("face.client.circuit.open", circuitBreaker, cb -> cb.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
+        Gauge.builder("face.client.in-flight", bulkhead, b -> maxConcurrent - b.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Extrai o embedding de referência de uma imagem salva; feito uma vez por imagem.
+     */
+    public CompletableFuture<FaceEmbedding> represent(byte[] image) {
+        return post("represent", Map.of("image", Base64.getEncoder().encodeToString(image)))
+                .thenApply(json -> {
+                    JsonNode embedding = json.path("embedding");
+                    if (!embedding.isArray() || embedding.isEmpty()) {
+                        throw new IllegalStateException("Resposta do serviço não contém campo 'embedding'");
+                    }
+
+                    float[] vector = new float[embedding.size()];
+                    for (int i = 0; i < vector.length; i++) {
+                        vector[i] = (float) embedding.get(i).asDouble();
+                    }
+                    return new FaceEmbedding(json.path("model").asText(null), vector);
+                });
+    }
+
+    /**
+     * Compara a imagem capturada com o embedding já conhecido, sem reenviar a imagem salva. O modelo
+     * do embedding vai junto: se o serviço usar outro, a resposta é 409 e o embedding precisa ser
+     * extraído de novo.
+     */
+    public CompletableFuture<FaceComparison> compare(String capturedImage, FaceEmbedding reference) {
+        Map<String, Object> body = reference.model() != null
+                ? Map.of("image", capturedImage, "embedding", reference.vector(), "model", reference.model())
+                : Map.of("image", capturedImage, "embedding", reference.vector());
+
+        return post("compare-embedding", body)
+                .thenApply(json -> {
+                    if (!json.has("verified")) {
+                        throw new IllegalStateException("Resposta do serviço não contém campo 'verified'");
+                    }
+                    return new FaceComparison(json.get("verified").asBoolean(), json.path("distance").asDouble());
+                });
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private CompletableFuture<JsonNode> post(String path, Map<String, Object> body) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Falha ao criar JSON para requisição", e));
+        }
+
+        if (!bulkhead.tryAcquire()) {
+            meterRegistry.counter("face.client.rejected", "reason", "bulkhead").increment();
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Serviço de reconhecimento facial sobrecarregado, tente novamente."));
+        }
+
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            meterRegistry.counter("face.client.rejected", "reason", "circuit").increment();
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Serviço de reconhecimento facial indisponível."));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    bulkhead.release();
+                    String outcome = error != null ? "error" : String.valueOf(response.statusCode());
+                    sample.stop(meterRegistry.timer("face.client.requests", "operation", path, "outcome", outcome));
+
+                    if (error != null || response.statusCode() >= 500) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+
+                    if (error != null) {
+                        throw new RuntimeException("Falha na comunicação com o serviço de reconhecimento facial", error);
+                    }
+                    if (response.statusCode() >= 400 && response.statusCode() < 500) {
+                        throw new ResponseStatusException(HttpStatus.valueOf(response.statusCode()), errorMessage(response.body()));
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new RuntimeException("Serviço de reconhecimento retornou status: " + response.statusCode());
+                    }
+
+                    try {
+                        return objectMapper.readTree(response.body());
+                    } catch (IOException e) {
+                        throw new RuntimeException("Resposta inválida do serviço de reconhecimento", e);
+                    }
+                });
+    }
+
+    private String errorMessage(byte[] body) {
+        try {
+            return objectMapper.readTree(body).path("error").asText("Requisição recusada pelo serviço de reconhecimento facial.");
+        } catch (IOException e) {
+            return "Requisição recusada pelo serviço de reconhecimento facial.";
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.apiestoque.crud.infra.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+public class IdempotencyAspect {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyAspect.class);
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    // Os scripts só mexem na chave enquanto ela ainda é a marca desta execução: se ela expirou e
+    // outra requisição assumiu a chave, renovar, concluir ou liberar não pode atropelar a outra.
+    private static final String OWNED = """
+            local current = redis.call('GET', KEYS[1])
+            if not current then return 0 end
+            local ok, record = pcall(cjson.decode, current)
+            if not ok or record.owner ~= ARGV[1] then return 0 end
+            """;
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(OWNED + """
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(OWNED + """
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(OWNED + """
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${idempotency.in-flight-ttl:30s}")
+    private Duration inFlightTtl;
+
+    @Value("${idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    // Renova a marca de processamento enquanto a requisição original roda, inclusive entre as
+    // tentativas do @RetryOnConflict; se o nó cair, a marca expira em idempotency.in-flight-ttl.
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotency-heartbeat").daemon().factory());
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    @Around("@annotation(com.apiestoque.crud.infra.idempotency.Idempotent)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return joinPoint.proceed();
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        String idempotencyKey = request.getHeader(HEADER);
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return joinPoint.proceed();
+        }
+
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "O cabeçalho Idempotency-Key deve ter no máximo " + MAX_KEY_LENGTH + " caracteres.");
+        }
+
+        String redisKey = KEY_PREFIX + principal() + ":" + request.getMethod() + ":" + request.getRequestURI() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(joinPoint.getArgs());
+        String owner = UUID.randomUUID().toString();
+
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(redisKey, write(IdempotencyRecord.processing(fingerprint, owner)), inFlightTtl);
+        } catch (DataAccessException e) {
+            // Sem Redis não há como garantir a idempotência; a requisição segue como se não tivesse chave.
+            logger.warn("Redis indisponível para Idempotency-Key, executando sem proteção: {}", e.getMessage());
+            return joinPoint.proceed();
+        }
+
+        if (Boolean.TRUE.equals(acquired)) {
+            return execute(joinPoint, redisKey, fingerprint, owner);
+        }
+
+        return replay(redisKey, fingerprint);
+    }
+
+    private Object execute(ProceedingJoinPoint joinPoint, String redisKey, String fingerprint, String owner) throws Throwable {
+        long period = Math.max(inFlightTtl.toMillis() / 3, 1);
+        ScheduledFuture<?> renewal = heartbeat.scheduleAtFixedRate(() -> renew(redisKey, owner),
+                period, period, TimeUnit.MILLISECONDS);
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            // Falhas não são memorizadas: o cliente pode repetir com a mesma chave.
+            renewal.cancel(false);
+            release(redisKey, owner);
+            throw e;
+        }
+        renewal.cancel(false);
+
+        if (result instanceof ResponseEntity<?> response && response.getStatusCode().is2xxSuccessful()) {
+            String body;
+            try {
+                body = objectMapper.writeValueAsString(response.getBody());
+            } catch (JsonProcessingException e) {
+                // A escrita já foi confirmada: a chave é concluída sem corpo em vez de liberada,
+                // para que uma repetição não execute a operação de novo.
+                logger.warn("Resposta idempotente {} gravada sem corpo: {}", redisKey, e.getMessage());
+                body = null;
+            }
+            complete(redisKey, owner, IdempotencyRecord.completed(fingerprint, response.getStatusCode().value(), body));
+        } else {
+            release(redisKey, owner);
+        }
+
+        return result;
+    }
+
+    private ResponseEntity<Object> replay(String redisKey, String fingerprint) throws Exception {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long pause = 10;
+
+        while (true) {
+            String stored = redisTemplate.opsForValue().get(redisKey);
+
+            if (stored == null) {
+                // A execução original falhou e liberou a chave enquanto esta requisição esperava.
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A requisição original com esta Idempotency-Key falhou. Tente novamente.");
+            }
+
+            IdempotencyRecord record = objectMapper.readValue(stored, IdempotencyRecord.class);
+
+            if (!record.fingerprint().equals(fingerprint)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "A Idempotency-Key já foi usada com outro conteúdo.");
+            }
+
+            if (record.completed()) {
+                // Sem corpo gravado, a repetição confirma só o status da execução original.
+                return ResponseEntity.status(record.status())
+                        .header(REPLAYED_HEADER, "true")
+                        .body(record.body() != null ? objectMapper.readTree(record.body()) : null);
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Uma requisição com esta Idempotency-Key ainda está em processamento.");
+            }
+
+            Thread.sleep(pause);
+            pause = Math.min(pause * 2, 200);
+        }
+    }
+
+    private void renew(String redisKey, String owner) {
+        try {
+            redisTemplate.execute(RENEW_SCRIPT, List.of(redisKey), owner, String.valueOf(inFlightTtl.toMillis()));
+        } catch (DataAccessException e) {
+            logger.debug("Não foi possível renovar a Idempotency-Key {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private void complete(String redisKey, String owner, IdempotencyRecord record) {
+        try {
+            Long stored = redisTemplate.execute(COMPLETE_SCRIPT, List.of(redisKey), owner, write(record),
+                    String.valueOf(ttl.toMillis()));
+            if (stored == null || stored == 0) {
+                logger.warn("A marca da Idempotency-Key {} expirou antes do fim da requisição original", redisKey);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            // A marca de processamento continua até expirar: nesse prazo as repetições recebem 409
+            // em vez de executar a escrita de novo.
+            logger.warn("Não foi possível armazenar a resposta idempotente {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private void release(String redisKey, String owner) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(redisKey), owner);
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível liberar a Idempotency-Key {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private String fingerprint(Object[] args) throws JsonProcessingException {
+        return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(args));
+    }
+
+    private String write(IdempotencyRecord record) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(record);
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+}
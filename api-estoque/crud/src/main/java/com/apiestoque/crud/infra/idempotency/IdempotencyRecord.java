@@ -0,0 +1,17 @@
+package com.apiestoque.crud.infra.idempotency;
+
+public record IdempotencyRecord(
+    String fingerprint,
+    boolean completed,
+    int status,
+    String body,
+    String owner
+) {
+    public static IdempotencyRecord processing(String fingerprint, String owner) {
+        return new IdempotencyRecord(fingerprint, false, 0, null, owner);
+    }
+
+    public static IdempotencyRecord completed(String fingerprint, int status, String body) {
+        return new IdempotencyRecord(fingerprint, true, status, body, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.apiestoque.crud.infra.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um endpoint de escrita que aceita o cabeçalho {@code Idempotency-Key}.
+ * Repetições com a mesma chave devolvem a primeira resposta em vez de executar de novo.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,27 @@
+package com.apiestoque.crud.infra.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deixa passar só uma fração dos eventos ({@code rate} entre 0 e 1). Usado no log de consultas
+ * lentas: num pico, todas as consultas ficam lentas ao mesmo tempo e registrar cada uma só piora.
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+    private double rate = 1.0;
+
+    public void setRate(double rate) {
+        this.rate = Math.max(0.0, Math.min(1.0, rate));
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
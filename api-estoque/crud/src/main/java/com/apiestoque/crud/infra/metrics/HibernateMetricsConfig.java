@@ -0,0 +1,54 @@
+package com.apiestoque.crud.infra.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Liga o Hibernate aos contadores de {@link HibernateRequestStatistics}: cada SQL preparado, cada
+ * entidade carregada e cada coleção inicializada incrementam a contagem da requisição em andamento.
+ * Não depende de {@code hibernate.generate_statistics}, que mantém contadores globais disputados por
+ * todas as threads.
+ */
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        return properties -> {
+            properties.put(JdbcSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                HibernateRequestStatistics.statementPrepared();
+                return sql;
+            });
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new RequestStatisticsIntegrator()));
+        };
+    }
+
+    private static class RequestStatisticsIntegrator implements Integrator {
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> HibernateRequestStatistics.entityLoaded());
+            registry.appendListeners(EventType.INIT_COLLECTION,
+                    (InitializeCollectionEventListener) event -> HibernateRequestStatistics.collectionFetched());
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
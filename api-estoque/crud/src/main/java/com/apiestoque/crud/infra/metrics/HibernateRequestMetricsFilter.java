@@ -0,0 +1,60 @@
+package com.apiestoque.crud.infra.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Publica, por endpoint, quantos SQLs, entidades e coleções cada requisição custou
+ * ({@code hibernate.request.statements}, {@code hibernate.request.entity.loads} e
+ * {@code hibernate.request.collection.fetches}). O p99 dessas distribuições denuncia N+1 antes de
+ * ele aparecer na latência. Roda antes da segurança para contar também a carga do principal.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class HibernateRequestMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    public HibernateRequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HibernateRequestStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            HibernateRequestStatistics.Counts counts = HibernateRequestStatistics.end();
+            if (counts != null) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+                record("hibernate.request.statements", request.getMethod(), uri, counts.statements());
+                record("hibernate.request.entity.loads", request.getMethod(), uri, counts.entityLoads());
+                record("hibernate.request.collection.fetches", request.getMethod(), uri, counts.collectionFetches());
+            }
+        }
+    }
+
+    private void record(String name, String method, String uri, long value) {
+        DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
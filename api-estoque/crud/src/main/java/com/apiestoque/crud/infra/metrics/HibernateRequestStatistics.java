@@ -0,0 +1,53 @@
+package com.apiestoque.crud.infra.metrics;
+
+/**
+ * Contadores do Hibernate por requisição, presos à thread que atende a requisição. As estatísticas
+ * globais do Hibernate misturam todas as requisições concorrentes; aqui cada uma mede só o que ela
+ * mesma executou. Trabalho feito fora da thread da requisição (tarefas assíncronas) não entra.
+ */
+public final class HibernateRequestStatistics {
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    private HibernateRequestStatistics() {
+    }
+
+    public record Counts(long statements, long entityLoads, long collectionFetches) {
+    }
+
+    private static final class Tally {
+        private long statements;
+        private long entityLoads;
+        private long collectionFetches;
+    }
+
+    static void begin() {
+        CURRENT.set(new Tally());
+    }
+
+    static Counts end() {
+        Tally tally = CURRENT.get();
+        CURRENT.remove();
+        return tally == null ? null : new Counts(tally.statements, tally.entityLoads, tally.collectionFetches);
+    }
+
+    static void statementPrepared() {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.entityLoads++;
+        }
+    }
+
+    static void collectionFetched() {
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.collectionFetches++;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.apiestoque.crud.infra.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.NamingConvention;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/prometheus} no formato texto do Prometheus (0.0.4), gerado a partir do registro
+ * do Micrometer da aplicação. Timers e distribuições saem como {@code summary} com os percentis
+ * configurados em {@code management.metrics.distribution.percentiles.*}, mais um {@code _max}.
+ * <p>
+ * Some sozinho quando o {@code micrometer-registry-prometheus} entrar no classpath: o endpoint
+ * oficial do Spring Boot assume o mesmo id.
+ */
+@Component
+@WebEndpoint(id = "prometheus")
+@ConditionalOnMissingClass("io.micrometer.prometheusmetrics.PrometheusMeterRegistry")
+public class PrometheusScrapeEndpoint {
+    private static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MeterRegistry meterRegistry;
+
+    public PrometheusScrapeEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation(produces = CONTENT_TYPE)
+    public String scrape() {
+        Map<String, Family> families = new TreeMap<>();
+
+        for (Meter meter : meterRegistry.getMeters()) {
+            if (isPercentileGauge(meter)) {
+                continue;
+            }
+            String name = sanitize(meter.getId().getConventionName(NamingConvention.snakeCase));
+            String baseUnit = meter.getId().getBaseUnit();
+            List<Tag> tags = meter.getId().getConventionTags(NamingConvention.snakeCase);
+
+            meter.use(
+                    gauge -> family(families, withUnit(name, baseUnit), "gauge")
+                            .add(withUnit(name, baseUnit), tags, gauge.value()),
+                    counter -> family(families, withUnit(name, baseUnit) + "_total", "counter")
+                            .add(withUnit(name, baseUnit) + "_total", tags, counter.count()),
+                    timer -> timer(families, name, tags, timer),
+                    summary -> summary(families, withUnit(name, baseUnit), tags, summary),
+                    longTaskTimer -> longTaskTimer(families, name, tags, longTaskTimer),
+                    timeGauge -> family(families, name + "_seconds", "gauge")
+                            .add(name + "_seconds", tags, timeGauge.value(TimeUnit.SECONDS)),
+                    functionCounter -> family(families, withUnit(name, baseUnit) + "_total", "counter")
+                            .add(withUnit(name, baseUnit) + "_total", tags, functionCounter.count()),
+                    functionTimer -> functionTimer(families, name, tags, functionTimer),
+                    other -> other(families, withUnit(name, baseUnit), tags, other));
+        }
+
+        StringBuilder output = new StringBuilder();
+        for (Family family : families.values()) {
+            output.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            family.samples.forEach(sample -> output.append(sample).append('\n'));
+        }
+        return output.toString();
+    }
+
+    private void timer(Map<String, Family> families, String name, List<Tag> tags, Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        String seconds = name + "_seconds";
+
+        Family family = family(families, seconds, "summary");
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            family.add(seconds, tags, "quantile", Double.toString(percentile.percentile()),
+                    percentile.value(TimeUnit.SECONDS));
+        }
+        family.add(seconds + "_count", tags, snapshot.count());
+        family.add(seconds + "_sum", tags, snapshot.total(TimeUnit.SECONDS));
+
+        family(families, seconds + "_max", "gauge").add(seconds + "_max", tags, snapshot.max(TimeUnit.SECONDS));
+    }
+
+    private void summary(Map<String, Family> families, String name, List<Tag> tags, DistributionSummary summary) {
+        HistogramSnapshot snapshot = summary.takeSnapshot();
+
+        Family family = family(families, name, "summary");
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            family.add(name, tags, "quantile", Double.toString(percentile.percentile()), percentile.value());
+        }
+        family.add(name + "_count", tags, snapshot.count());
+        family.add(name + "_sum", tags, snapshot.total());
+
+        family(families, name + "_max", "gauge").add(name + "_max", tags, snapshot.max());
+    }
+
+    private void functionTimer(Map<String, Family> families, String name, List<Tag> tags, FunctionTimer timer) {
+        String seconds = name + "_seconds";
+        family(families, seconds, "summary")
+                .add(seconds + "_count", tags, timer.count())
+                .add(seconds + "_sum", tags, timer.totalTime(TimeUnit.SECONDS));
+    }
+
+    private void longTaskTimer(Map<String, Family> families, String name, List<Tag> tags, LongTaskTimer timer) {
+        String seconds = name + "_seconds";
+        family(families, seconds + "_active_count", "gauge").add(seconds + "_active_count", tags, timer.activeTasks());
+        family(families, seconds + "_duration_sum", "gauge")
+                .add(seconds + "_duration_sum", tags, timer.duration(TimeUnit.SECONDS));
+        family(families, seconds + "_max", "gauge").add(seconds + "_max", tags, timer.max(TimeUnit.SECONDS));
+    }
+
+    private void other(Map<String, Family> families, String name, List<Tag> tags, Meter meter) {
+        for (Measurement measurement : meter.measure()) {
+            String sample = name + "_" + sanitize(measurement.getStatistic().getTagValueRepresentation());
+            family(families, sample, "gauge").add(sample, tags, measurement.getValue());
+        }
+    }
+
+    // Registros sem percentil nativo publicam cada percentil como um gauge "<nome>.percentile"; aqui
+    // eles já saem como quantile do summary.
+    private static boolean isPercentileGauge(Meter meter) {
+        return meter.getId().getName().endsWith(".percentile") && meter.getId().getTag("phi") != null;
+    }
+
+    private static Family family(Map<String, Family> families, String name, String type) {
+        return families.computeIfAbsent(name, key -> new Family(key, type));
+    }
+
+    private static String withUnit(String name, String baseUnit) {
+        if (baseUnit == null || baseUnit.isBlank()) {
+            return name;
+        }
+        String suffix = "_" + sanitize(baseUnit);
+        return name.endsWith(suffix) ? name : name + suffix;
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^a-zA-Z0-9_:]", "_");
+        return Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String type;
+        private final List<String> samples = new ArrayList<>();
+
+        private Family(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        private Family add(String sampleName, List<Tag> tags, double value) {
+            return add(sampleName, tags, null, null, value);
+        }
+
+        private Family add(String sampleName, List<Tag> tags, String extraKey, String extraValue, double value) {
+            StringBuilder sample = new StringBuilder(sampleName);
+            if (!tags.isEmpty() || extraKey != null) {
+                sample.append('{');
+                for (Tag tag : tags) {
+                    sample.append(sanitize(tag.getKey())).append("=\"").append(escape(tag.getValue())).append("\",");
+                }
+                if (extraKey != null) {
+                    sample.append(extraKey).append("=\"").append(extraValue).append("\",");
+                }
+                sample.setCharAt(sample.length() - 1, '}');
+            }
+            samples.add(sample.append(' ').append(format(value)).toString());
+            return this;
+        }
+    }
+}
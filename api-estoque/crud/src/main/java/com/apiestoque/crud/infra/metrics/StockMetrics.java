@@ -0,0 +1,52 @@
+package com.apiestoque.crud.infra.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Contadores de negócio do estoque. Saídas e recebimentos só contam depois do commit, para que
+ * rollbacks e novas tentativas por conflito não inflem a taxa; as recusas por falta de estoque contam
+ * na hora, já que a transação recusada nunca faz commit.
+ */
+@Component
+public class StockMetrics {
+    private final Counter exits;
+    private final Counter receivements;
+    private final Counter insufficientStock;
+
+    public StockMetrics(MeterRegistry meterRegistry) {
+        this.exits = meterRegistry.counter("stock.exits");
+        this.receivements = meterRegistry.counter("stock.receivements");
+        this.insufficientStock = meterRegistry.counter("stock.exit.rejected", "reason", "insufficient_stock");
+    }
+
+    public void exitsCreated(int count) {
+        afterCommit(() -> exits.increment(count));
+    }
+
+    public void receivementsCreated(int count) {
+        afterCommit(() -> receivements.increment(count));
+    }
+
+    public void insufficientStock() {
+        insufficientStock.increment();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.apiestoque.crud.infra.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem por cursor. Não traz total de elementos: {@code nextCursor} é opaco e
+ * deve ser repassado como está para buscar a página seguinte; fica nulo na última página.
+ */
+public record CursorPage<T>(
+    List<T> content,
+    int size,
+    boolean hasNext,
+    String nextCursor
+) {
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).toList(), size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,150 @@
+package com.apiestoque.crud.infra.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Paginação por chave (keyset) sobre um campo de data mais o id como desempate. O cursor carrega
+ * a ordenação e os valores da última linha entregue, então a próxima página é um
+ * {@code WHERE (campo, id) > (...)} servido pelo índice, sem OFFSET e sem COUNT.
+ */
+public final class KeysetCursor {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "\n";
+
+    private final Sort sort;
+    private final ScrollPosition position;
+    private final Limit limit;
+
+    private KeysetCursor(Sort sort, ScrollPosition position, Limit limit) {
+        this.sort = sort;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    public Sort sort() {
+        return sort;
+    }
+
+    public ScrollPosition position() {
+        return position;
+    }
+
+    public Limit limit() {
+        return limit;
+    }
+
+    /**
+     * Monta a consulta a partir do cursor recebido ou, na primeira página, do campo e direção
+     * pedidos. Quando há cursor, a ordenação dele prevalece para que as páginas sigam estáveis.
+     */
+    public static KeysetCursor of(String cursor, String sortField, String direction, Integer size,
+                                  Set<String> allowedFields) {
+        int pageSize = size == null ? DEFAULT_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "O tamanho da página deve estar entre 1 e " + MAX_SIZE + ".");
+        }
+
+        if (cursor == null || cursor.isBlank()) {
+            String field = sortField == null ? "createdAt" : sortField;
+            if (!allowedFields.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Ordenação não suportada: " + field + ". Use um de " + allowedFields + ".");
+            }
+
+            Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.DESC);
+            return new KeysetCursor(Sort.by(sortDirection, field, ID), ScrollPosition.keyset(), Limit.of(pageSize));
+        }
+
+        return decode(cursor, allowedFields, pageSize);
+    }
+
+    public <E, T> CursorPage<T> toPage(Window<E> window, Function<E, T> mapper) {
+        String nextCursor = null;
+
+        if (window.hasNext() && window.positionAt(window.size() - 1) instanceof KeysetScrollPosition next) {
+            nextCursor = encode(next);
+        }
+
+        return new CursorPage<>(window.map(mapper).getContent(), limit.max(), window.hasNext(), nextCursor);
+    }
+
+    private String encode(KeysetScrollPosition next) {
+        Sort.Order order = sort.iterator().next();
+        StringBuilder builder = new StringBuilder(order.getProperty()).append(SEPARATOR).append(order.getDirection());
+
+        for (Map.Entry<String, Object> key : next.getKeys().entrySet()) {
+            builder.append(SEPARATOR).append(key.getKey()).append('=').append(encodeValue(key.getValue()));
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static KeysetCursor decode(String cursor, Set<String> allowedFields, int pageSize) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR);
+            String field = parts[0];
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+
+            if (!allowedFields.contains(field)) {
+                throw new IllegalArgumentException(field);
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 2; i < parts.length; i++) {
+                int separator = parts[i].indexOf('=');
+                keys.put(parts[i].substring(0, separator), decodeValue(parts[i].substring(separator + 1)));
+            }
+
+            if (!keys.containsKey(field) || !keys.containsKey(ID)) {
+                throw new IllegalArgumentException(cursor);
+            }
+
+            return new KeysetCursor(Sort.by(direction, field, ID), ScrollPosition.forward(keys), Limit.of(pageSize));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido.");
+        }
+    }
+
+    // Os tipos são preservados no cursor para que o parâmetro volte ao banco com o mesmo tipo da coluna.
+    private static String encodeValue(Object value) {
+        if (value instanceof Date date) {
+            return "t:" + date.getTime();
+        }
+
+        if (value instanceof LocalDate date) {
+            return "d:" + date;
+        }
+
+        return "s:" + value;
+    }
+
+    private static Object decodeValue(String value) {
+        String content = value.substring(2);
+
+        return switch (value.substring(0, 2)) {
+            case "t:" -> new Date(Long.parseLong(content));
+            case "d:" -> LocalDate.parse(content);
+            case "s:" -> content;
+            default -> throw new IllegalArgumentException(value);
+        };
+    }
+}
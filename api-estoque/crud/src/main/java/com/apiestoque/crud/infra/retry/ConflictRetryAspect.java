@@ -0,0 +1,79 @@
+package com.apiestoque.crud.infra.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String endpoint = resolveEndpoint(joinPoint);
+        long backoff = retryOnConflict.initialBackoffMs();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                meterRegistry.counter("stock.write.conflicts", "endpoint", endpoint,
+                        "type", e.getClass().getSimpleName()).increment();
+
+                if (attempt >= retryOnConflict.maxAttempts()) {
+                    meterRegistry.counter("stock.write.retries.exhausted", "endpoint", endpoint).increment();
+                    logger.warn("Conflito de escrita em {} após {} tentativas: {}", endpoint, attempt, e.getMessage());
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "O registro foi alterado por outra operação. Tente novamente.", e);
+                }
+
+                meterRegistry.counter("stock.write.retries", "endpoint", endpoint).increment();
+                logger.debug("Conflito de escrita em {} (tentativa {}), repetindo em até {} ms", endpoint, attempt, backoff);
+
+                // Jitter completo: transações que colidiram não voltam a colidir no mesmo instante.
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+                backoff = Math.min(backoff * 2, retryOnConflict.maxBackoffMs());
+            }
+        }
+    }
+
+    private String resolveEndpoint(ProceedingJoinPoint joinPoint) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+            if (pattern != null) {
+                return request.getMethod() + " " + pattern;
+            }
+        }
+
+        return joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+}
@@ -0,0 +1,24 @@
+package com.apiestoque.crud.infra.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reexecuta o método transacional quando a escrita perde para outra transação
+ * (conflito de versão otimista ou vítima de deadlock), com backoff exponencial limitado.
+ * Só tem efeito na fronteira da transação: chamadas aninhadas em uma transação já aberta
+ * não são repetidas, o conflito sobe para o método mais externo.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+    int maxAttempts() default 4;
+
+    long initialBackoffMs() default 20;
+
+    long maxBackoffMs() default 500;
+}
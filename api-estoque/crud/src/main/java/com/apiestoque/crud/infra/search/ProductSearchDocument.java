@@ -0,0 +1,31 @@
+package com.apiestoque.crud.infra.search;
+
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.supplier.Supplier;
+
+import java.util.List;
+
+/**
+ * Campos de um produto que entram no índice de busca, já desacoplados da entidade JPA.
+ */
+public record ProductSearchDocument(
+    String id,
+    String name,
+    String productCode,
+    String description,
+    String categoryName,
+    List<String> supplierNames
+) {
+    public static ProductSearchDocument of(Product product) {
+        return new ProductSearchDocument(
+            product.getId(),
+            product.getName(),
+            product.getProductCode(),
+            product.getDescription(),
+            product.getCategory() != null ? product.getCategory().getName() : null,
+            product.getSuppliers() != null
+                ? product.getSuppliers().stream().map(Supplier::getSocialReason).toList()
+                : List.of()
+        );
+    }
+}
@@ -0,0 +1,358 @@
+package com.apiestoque.crud.infra.search;
+
+import com.apiestoque.crud.domain.product.dto.ProductSearchResultDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice invertido em memória para busca de produtos por prefixo.
+ *
+ * <p>Os termos ficam ordenados em um skip list, então um prefixo vira uma faixa contígua do mapa.
+ * Cada termo aponta para um {@code int[]} de documentos trocado por cópia nas escritas: leituras não
+ * usam lock e as escritas (poucas, vindas de eventos de produto) são serializadas. A carga inicial
+ * usa {@link Builder}, que monta as listas de uma vez em vez de copiar array a cada produto.
+ */
+public class ProductSearchIndex {
+    static final int MAX_DESCRIPTION_TOKENS = 40;
+
+    // Limite de documentos que casam com a consulta: prefixos de uma letra casam com boa parte do
+    // catálogo e o typeahead precisa responder em poucos milissegundos mesmo assim. Candidatos que
+    // não casam não contam, senão um termo seletivo atrás de um termo amplo nunca acharia nada.
+    private static final int MATCH_BUDGET = 1_000;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "e", "de", "da", "do", "das", "dos", "em", "na", "no", "para", "com", "por", "um", "uma");
+
+    private final ConcurrentSkipListMap<String, int[]> postings;
+    private final ConcurrentHashMap<Integer, IndexedProduct> documents;
+    private final Map<String, Integer> docIds;
+    private int nextDocId;
+
+    public ProductSearchIndex() {
+        this(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(), new HashMap<>(), 0);
+    }
+
+    private ProductSearchIndex(ConcurrentSkipListMap<String, int[]> postings,
+                               ConcurrentHashMap<Integer, IndexedProduct> documents,
+                               Map<String, Integer> docIds, int nextDocId) {
+        this.postings = postings;
+        this.documents = documents;
+        this.docIds = docIds;
+        this.nextDocId = nextDocId;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public synchronized void index(ProductSearchDocument document) {
+        Integer docId = docIds.get(document.id());
+        IndexedProduct previous = docId != null ? documents.get(docId) : null;
+
+        if (docId == null) {
+            docId = nextDocId++;
+            docIds.put(document.id(), docId);
+        }
+
+        IndexedProduct indexed = IndexedProduct.of(docId, document);
+        Set<String> previousTerms = previous != null ? previous.terms() : Set.of();
+
+        documents.put(docId, indexed);
+
+        for (String term : indexed.terms()) {
+            if (!previousTerms.contains(term)) {
+                addPosting(term, docId);
+            }
+        }
+
+        for (String term : previousTerms) {
+            if (!indexed.terms().contains(term)) {
+                removePosting(term, docId);
+            }
+        }
+    }
+
+    public synchronized void remove(String productId) {
+        Integer docId = docIds.remove(productId);
+        IndexedProduct previous = docId != null ? documents.remove(docId) : null;
+
+        if (previous != null) {
+            previous.terms().forEach(term -> removePosting(term, docId));
+        }
+    }
+
+    /**
+     * Todos os termos da consulta precisam casar (como termo inteiro ou prefixo) com algum campo.
+     * Os candidatos saem da faixa de prefixo do termo com menos documentos.
+     */
+    public List<ProductSearchResultDTO> search(String query, int limit) {
+        List<String> tokens = SearchText.tokenize(query, 8);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        String normalizedQuery = String.join(" ", tokens);
+        String driver = mostSelective(tokens);
+
+        String[] queryTokens = tokens.toArray(String[]::new);
+        String compactQuery = String.join("", tokens);
+
+        PriorityQueue<ProductSearchResultDTO> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        BitSet visited = new BitSet();
+        int budget = MATCH_BUDGET;
+
+        scan:
+        for (int[] docIdsForTerm : prefixRange(driver).values()) {
+            for (int docId : docIdsForTerm) {
+                if (visited.get(docId)) {
+                    continue;
+                }
+
+                visited.set(docId);
+
+                IndexedProduct document = documents.get(docId);
+                double score = document != null ? document.score(queryTokens, normalizedQuery, compactQuery) : 0;
+
+                if (score <= 0) {
+                    continue;
+                }
+
+                if (--budget < 0) {
+                    break scan;
+                }
+
+                // Só materializa o resultado quando ele entra no top-N.
+                if (top.size() < limit || score >= top.peek().score()) {
+                    top.offer(document.toResult(score));
+
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        }
+
+        List<ProductSearchResultDTO> results = new ArrayList<>(top);
+        results.sort(RANKING);
+        return results;
+    }
+
+    private static final Comparator<ProductSearchResultDTO> RANKING = Comparator
+            .comparingDouble(ProductSearchResultDTO::score).reversed()
+            .thenComparing(ProductSearchResultDTO::name, Comparator.nullsLast(String::compareTo))
+            .thenComparing(ProductSearchResultDTO::id);
+
+    /**
+     * Escolhe o termo cuja faixa de prefixo tem menos entradas nas listas. Os termos mais longos vão
+     * primeiro e a contagem de cada um para assim que passa da melhor até ali, então um prefixo amplo
+     * não é percorrido inteiro só para ser descartado. Stopwords não estão no índice e só dirigem a
+     * busca quando a consulta não tem outro termo.
+     */
+    private String mostSelective(List<String> tokens) {
+        List<String> candidates = tokens.stream()
+                .filter(ProductSearchIndex::indexable)
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toList();
+
+        if (candidates.isEmpty()) {
+            return tokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        }
+
+        String best = null;
+        long bestCount = Long.MAX_VALUE;
+
+        for (String token : candidates) {
+            long count = 0;
+
+            for (int[] docIdsForTerm : prefixRange(token).values()) {
+                count += docIdsForTerm.length;
+                if (count >= bestCount) {
+                    break;
+                }
+            }
+
+            if (count < bestCount) {
+                best = token;
+                bestCount = count;
+            }
+        }
+
+        return best;
+    }
+
+    private Map<String, int[]> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void addPosting(String term, int docId) {
+        int[] current = postings.get(term);
+
+        if (current == null) {
+            postings.put(term, new int[] { docId });
+            return;
+        }
+
+        int[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = docId;
+        postings.put(term, updated);
+    }
+
+    private void removePosting(String term, int docId) {
+        int[] current = postings.get(term);
+        if (current == null) {
+            return;
+        }
+
+        int[] updated = Arrays.stream(current).filter(id -> id != docId).toArray();
+
+        if (updated.length == 0) {
+            postings.remove(term);
+        } else {
+            postings.put(term, updated);
+        }
+    }
+
+    private static boolean indexable(String term) {
+        return !STOPWORDS.contains(term);
+    }
+
+    public static class Builder {
+        private final Map<String, List<Integer>> postings = new HashMap<>();
+        private final ConcurrentHashMap<Integer, IndexedProduct> documents = new ConcurrentHashMap<>();
+        private final Map<String, Integer> docIds = new HashMap<>();
+        private int nextDocId;
+
+        public Builder add(ProductSearchDocument document) {
+            if (docIds.containsKey(document.id())) {
+                return this;
+            }
+
+            int docId = nextDocId++;
+            IndexedProduct indexed = IndexedProduct.of(docId, document);
+
+            docIds.put(document.id(), docId);
+            documents.put(docId, indexed);
+            indexed.terms().forEach(term -> postings.computeIfAbsent(term, key -> new ArrayList<>()).add(docId));
+            return this;
+        }
+
+        public ProductSearchIndex build() {
+            ConcurrentSkipListMap<String, int[]> frozen = new ConcurrentSkipListMap<>();
+            postings.forEach((term, ids) -> frozen.put(term, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new ProductSearchIndex(frozen, documents, docIds, nextDocId);
+        }
+    }
+
+    /**
+     * Produto já normalizado, com os termos de cada campo para pontuar sem reprocessar texto.
+     */
+    private record IndexedProduct(
+        int docId,
+        String id,
+        String name,
+        String productCode,
+        String categoryName,
+        String normalizedName,
+        String compactCode,
+        String[] fieldTerms,
+        byte[] fieldWeights,
+        Set<String> terms
+    ) {
+        // Pesos por campo: código, nome, categoria, fornecedores, descrição.
+        private static final byte[] FIELD_WEIGHTS = { 8, 5, 3, 2, 1 };
+
+        static IndexedProduct of(int docId, ProductSearchDocument document) {
+            String compactCode = SearchText.compact(document.productCode());
+
+            List<String> codeTerms = new ArrayList<>(SearchText.tokenize(document.productCode(), 8));
+            if (!compactCode.isEmpty() && !codeTerms.contains(compactCode)) {
+                codeTerms.add(compactCode);
+            }
+
+            List<String> supplierTerms = new ArrayList<>();
+            for (String supplierName : document.supplierNames()) {
+                supplierTerms.addAll(SearchText.tokenize(supplierName, 8));
+            }
+
+            List<List<String>> fields = List.of(
+                    codeTerms,
+                    SearchText.tokenize(document.name(), 16),
+                    SearchText.tokenize(document.categoryName(), 8),
+                    supplierTerms,
+                    SearchText.tokenize(document.description(), MAX_DESCRIPTION_TOKENS));
+
+            List<String> fieldTerms = new ArrayList<>();
+            List<Byte> fieldWeights = new ArrayList<>();
+            Set<String> terms = new LinkedHashSet<>();
+
+            for (int field = 0; field < fields.size(); field++) {
+                for (String term : fields.get(field)) {
+                    fieldTerms.add(term);
+                    fieldWeights.add(FIELD_WEIGHTS[field]);
+
+                    if (indexable(term)) {
+                        terms.add(term);
+                    }
+                }
+            }
+
+            byte[] weights = new byte[fieldWeights.size()];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = fieldWeights.get(i);
+            }
+
+            return new IndexedProduct(docId, document.id(), document.name(), document.productCode(),
+                    document.categoryName(), SearchText.normalize(document.name()), compactCode,
+                    fieldTerms.toArray(String[]::new), weights, Set.copyOf(terms));
+        }
+
+        double score(String[] tokens, String normalizedQuery, String compactQuery) {
+            double score = 0;
+
+            for (String token : tokens) {
+                int best = 0;
+
+                for (int i = 0; i < fieldTerms.length; i++) {
+                    String term = fieldTerms[i];
+
+                    if (term.startsWith(token)) {
+                        best = Math.max(best, term.length() == token.length() ? fieldWeights[i] * 2 : fieldWeights[i]);
+                    }
+                }
+
+                if (best == 0) {
+                    return 0;
+                }
+
+                score += best;
+            }
+
+            if (compactCode.equals(compactQuery)) {
+                score += 20;
+            }
+
+            if (normalizedName.startsWith(normalizedQuery)) {
+                score += 4;
+            }
+
+            // Nomes mais curtos ganham por pouco: "Mouse" antes de "Mouse pad gamer" para a consulta "mouse".
+            return score + 1.0 / (1 + normalizedName.length() / 20.0);
+        }
+
+        ProductSearchResultDTO toResult(double score) {
+            return new ProductSearchResultDTO(id, name, productCode, categoryName, Math.round(score * 100) / 100.0);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.apiestoque.crud.infra.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalização usada tanto na indexação quanto na consulta: remove acentos, passa para minúsculas
+ * e quebra em termos alfanuméricos, para que "Pão" e "pao" caiam no mesmo termo.
+ */
+final class SearchText {
+    private SearchText() {
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT).trim();
+        if (isAscii(lower)) {
+            return lower;
+        }
+
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                builder.append(c);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    static List<String> tokenize(String text, int maxTokens) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+
+        for (int i = 0; i <= normalized.length() && tokens.size() < maxTokens; i++) {
+            boolean alphanumeric = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+
+            if (alphanumeric && start < 0) {
+                start = i;
+            } else if (!alphanumeric && start >= 0) {
+                String token = normalized.substring(start, i);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+
+        return tokens;
+    }
+
+    static String compact(String text) {
+        String normalized = normalize(text);
+        StringBuilder builder = new StringBuilder(normalized.length());
+
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))) {
+                builder.append(normalized.charAt(i));
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
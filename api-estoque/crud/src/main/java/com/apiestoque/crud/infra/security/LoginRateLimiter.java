@@ -0,0 +1,95 @@
+package com.apiestoque.crud.infra.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Token bucket no Redis por IP e por conta, verificado antes de qualquer hash de senha. Os dois
+ * baldes são avaliados no mesmo script: a tentativa só consome ficha se ambos tiverem saldo.
+ * Com o Redis fora do ar o limite é ignorado, para não bloquear todos os logins.
+ */
+@Component
+public class LoginRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private static final RedisScript<Long> TOKEN_BUCKET = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local allowed = 1
+            local balances = {}
+            for i, key in ipairs(KEYS) do
+                local capacity = tonumber(ARGV[i * 2])
+                local rate = tonumber(ARGV[i * 2 + 1])
+                local state = redis.call('HMGET', key, 'tokens', 'ts')
+                local tokens = tonumber(state[1]) or capacity
+                local ts = tonumber(state[2]) or now
+                tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+                if tokens < 1 then allowed = 0 end
+                balances[i] = tokens
+            end
+            for i, key in ipairs(KEYS) do
+                local tokens = balances[i]
+                if allowed == 1 then tokens = tokens - 1 end
+                redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', tostring(now))
+                redis.call('PEXPIRE', key, math.ceil(tonumber(ARGV[i * 2]) / tonumber(ARGV[i * 2 + 1])))
+            end
+            return allowed
+            """, Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${login.rate-limit.ip.capacity:60}")
+    private int ipCapacity;
+
+    @Value("${login.rate-limit.ip.refill-per-minute:60}")
+    private int ipRefillPerMinute;
+
+    @Value("${login.rate-limit.account.capacity:10}")
+    private int accountCapacity;
+
+    @Value("${login.rate-limit.account.refill-per-minute:5}")
+    private int accountRefillPerMinute;
+
+    public void check(String clientIp, String email) {
+        String account = email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+        Long allowed;
+
+        try {
+            allowed = redisTemplate.execute(TOKEN_BUCKET,
+                    List.of("ratelimit:login:ip:" + clientIp, "ratelimit:login:account:" + account),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(ipCapacity), perMillisecond(ipRefillPerMinute),
+                    String.valueOf(accountCapacity), perMillisecond(accountRefillPerMinute));
+        } catch (DataAccessException e) {
+            logger.warn("Limite de login indisponível, seguindo sem limitar: {}", e.getMessage());
+            return;
+        }
+
+        if (allowed != null && allowed == 0L) {
+            meterRegistry.counter("login.rate-limited").increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Muitas tentativas de login. Tente novamente em instantes.");
+        }
+    }
+
+    private static String perMillisecond(int perMinute) {
+        return String.valueOf(perMinute / 60_000.0);
+    }
+}
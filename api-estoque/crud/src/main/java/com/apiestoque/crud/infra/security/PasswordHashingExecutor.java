@@ -0,0 +1,78 @@
+package com.apiestoque.crud.infra.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa a verificação BCrypt fora das threads do servlet, em um pool de tamanho fixo com fila
+ * limitada. Com a fila cheia o login é recusado na hora com 503, em vez de enfileirar trabalho caro
+ * que atrasaria todos os outros endpoints.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    // Hash usado quando o usuário não existe, para que o tempo de resposta não revele o cadastro.
+    private final String missingUserHash;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                   @Value("${login.hash.threads:0}") int threads,
+                                   @Value("${login.hash.queue-capacity:100}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.missingUserHash = passwordEncoder.encode("usuario-inexistente");
+
+        Gauge.builder("login.hash.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("login.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Compara a senha com o hash informado; sem hash (usuário inexistente) compara com um hash
+     * descartável e sempre devolve {@code false}.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : missingUserHash;
+
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> passwordEncoder.matches(rawPassword, hash) && encodedPassword != null, executor);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("login.hash.rejected").increment();
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Servidor ocupado processando logins, tente novamente em instantes."));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,92 @@
+package com.apiestoque.crud.infra.security;
+
+import com.apiestoque.crud.domain.user.User;
+import com.apiestoque.crud.domain.user.UserChangedEvent;
+import com.apiestoque.crud.domain.user.dto.UserPrincipalDTO;
+import com.apiestoque.crud.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache local do principal autenticado, indexado pelo subject do token (email). Evita a ida ao banco
+ * em toda requisição; alterações de status ou senha invalidam a entrada após o commit, nesta
+ * instância e, via Redis, nas demais. O TTL limita a janela caso uma mensagem se perca.
+ */
+@Component
+public class PrincipalCache {
+    public static final String INVALIDATION_CHANNEL = "principal:invalidate";
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, UserPrincipalDTO> local;
+
+    public PrincipalCache(UserRepository userRepository, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "principals");
+    }
+
+    /**
+     * Devolve um {@link User} destacado, sem senha nem imagem facial; cada chamada recebe uma cópia
+     * para que a requisição não altere a entrada compartilhada.
+     */
+    public Optional<User> get(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+
+        UserPrincipalDTO principal = local.getIfPresent(email);
+        if (principal == null) {
+            principal = userRepository.findPrincipalByEmail(email).orElse(null);
+            if (principal == null) {
+                return Optional.empty();
+            }
+            local.put(email, principal);
+        }
+
+        return Optional.of(principal.toUser());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.email());
+    }
+
+    public void evict(String email) {
+        local.invalidate(email);
+
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, email);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao propagar invalidação do principal {}: {}", email, e.getMessage());
+        }
+    }
+
+    void evictLocal(String email) {
+        local.invalidate(email);
+    }
+}
@@ -0,0 +1,25 @@
+package com.apiestoque.crud.infra.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class PrincipalCacheConfig {
+    // Cada instância assina o canal e descarta o principal alterado em qualquer nó.
+    @Bean
+    public RedisMessageListenerContainer principalCacheListenerContainer(RedisConnectionFactory connectionFactory,
+            PrincipalCache principalCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                principalCache.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(PrincipalCache.INVALIDATION_CHANNEL));
+
+        return container;
+    }
+}
@@ -1,8 +1,10 @@
 package com.apiestoque.crud.infra.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -28,6 +30,19 @@ public class SecurityConfiguration {
     @Autowired
     CorsConfigurationImpl corsConfigurationImpl;
 
+    // O actuator responde só na management.server.port, que não sai da rede interna: o scrape do
+    // Prometheus não tem token, então essa porta fica fora da cadeia JWT.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity httpSecurity) throws Exception {
+        return httpSecurity
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         return httpSecurity
@@ -45,6 +60,7 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.GET,   "/api/auth/users").hasRole("ADMIN")
                         
                         .requestMatchers(HttpMethod.POST,   "/api/products").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST,   "/api/products/search/rebuild").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PATCH,  "/api/products/*").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/products/*").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/products/*/inventory").permitAll()
@@ -59,6 +75,10 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.DELETE, "/api/supplier/*").hasRole("ADMIN")
 
                         .requestMatchers(HttpMethod.PATCH,  "/api/customer/*/status").hasRole("ADMIN")
+
+                        .requestMatchers(HttpMethod.POST,   "/api/reservations/reconcile").hasRole("ADMIN")
+
+                        .requestMatchers(HttpMethod.POST,   "/api/reports/rebuild").hasRole("ADMIN")
                         
                         .anyRequest().authenticated()
                 )
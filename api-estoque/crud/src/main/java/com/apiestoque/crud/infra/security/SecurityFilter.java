@@ -7,10 +7,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import com.apiestoque.crud.repositories.UserRepository;
 import com.apiestoque.crud.services.TokenService;
 import java.io.IOException;
 
@@ -20,7 +18,7 @@ public class SecurityFilter extends OncePerRequestFilter {
     TokenService tokenService;
     
     @Autowired
-    UserRepository userRepository;
+    PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -29,7 +27,7 @@ public class SecurityFilter extends OncePerRequestFilter {
         if(token != null){
             var email = tokenService.validateToken(token);
             
-            UserDetails user = userRepository.findByEmail(email);
+            var user = principalCache.get(email).orElse(null);
             if (user == null) {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Usuário não encontrado");
                 return;
@@ -0,0 +1,27 @@
+package com.apiestoque.crud.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.apiestoque.crud.domain.report.CategoryDailyRollup;
+import com.apiestoque.crud.domain.report.CategoryDailyRollupId;
+import com.apiestoque.crud.domain.report.dto.CategoryRollupSummaryDTO;
+
+public interface CategoryDailyRollupRepository extends JpaRepository<CategoryDailyRollup, CategoryDailyRollupId> {
+    List<CategoryDailyRollup> findByCategoryIdAndDayBetweenOrderByDay(String categoryId, LocalDate from, LocalDate to);
+
+    @Query("""
+            SELECT new com.apiestoque.crud.domain.report.dto.CategoryRollupSummaryDTO(
+                r.categoryId, c.name, SUM(r.quantityIn), SUM(r.quantityOut), SUM(r.revenue),
+                SUM(r.daysToExitTotal), SUM(r.exitsWithReceipt))
+            FROM category_daily_rollups r
+            JOIN categories c ON c.id = r.categoryId
+            WHERE r.day BETWEEN :from AND :to
+            GROUP BY r.categoryId, c.name
+            ORDER BY SUM(r.revenue) DESC, r.categoryId
+            """)
+    List<CategoryRollupSummaryDTO> summarize(LocalDate from, LocalDate to);
+}
@@ -1,14 +1,32 @@
 package com.apiestoque.crud.repositories;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.apiestoque.crud.domain.exit.Exit;
+import java.util.Collection;
 import java.util.List;
 
 public interface ExitRepository extends JpaRepository<Exit, String>  { 
     List<Exit> findAllByProductId(String productId);
     boolean existsByInventoryCode(String inventoryId);
+
+    @Override
+    @EntityGraph(attributePaths = { "product", "product.category" })
+    Page<Exit> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = { "product", "product.category" })
+    Window<Exit> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT e.reservationId FROM exits e WHERE e.reservationId IN :reservationIds")
+    List<String> findReservationIdsIn(Collection<String> reservationIds);
      
     @Query(value = "EXEC UpdateExitStatus :id, :newStatus", nativeQuery = true)
     void updateExitStatus(String id, String newStatus);
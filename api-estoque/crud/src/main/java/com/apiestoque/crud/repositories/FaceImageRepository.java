@@ -0,0 +1,22 @@
+package com.apiestoque.crud.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.apiestoque.crud.domain.user.FaceImage;
+import com.apiestoque.crud.infra.face.FaceEmbedding;
+
+public interface FaceImageRepository extends JpaRepository<FaceImage, String> {
+    @Query("SELECT f.image FROM face_images f WHERE f.checksum = :checksum")
+    Optional<byte[]> findImageByChecksum(String checksum);
+
+    @Query("SELECT new com.apiestoque.crud.infra.face.FaceEmbedding(f.embeddingModel, f.embedding) FROM face_images f WHERE f.checksum = :checksum AND f.embedding IS NOT NULL")
+    Optional<FaceEmbedding> findEmbeddingByChecksum(String checksum);
+
+    @Modifying
+    @Query("UPDATE face_images f SET f.embedding = :embedding, f.embeddingModel = :model WHERE f.checksum = :checksum")
+    int updateEmbedding(String checksum, String model, byte[] embedding);
+}
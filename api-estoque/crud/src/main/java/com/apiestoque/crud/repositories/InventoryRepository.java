@@ -2,7 +2,17 @@ package com.apiestoque.crud.repositories;
 
 import com.apiestoque.crud.domain.inventory.Inventory;
 import com.apiestoque.crud.domain.product.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -15,4 +25,45 @@ public interface InventoryRepository extends JpaRepository<Inventory, String> {
     boolean existsByInventoryCode(String inventoryCode);
     Optional<Inventory> findById(String id);
 
+    @Override
+    @EntityGraph(attributePaths = { "product", "product.category" })
+    Page<Inventory> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = { "product", "product.category" })
+    Window<Inventory> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT i FROM inventory i JOIN FETCH i.product p JOIN FETCH p.category WHERE i.id IN :ids")
+    List<Inventory> findAllWithProductByIdIn(Collection<String> ids);
+
+    @Query("SELECT i FROM inventory i JOIN FETCH i.product WHERE i.id = :id")
+    Optional<Inventory> findWithProductById(String id);
+
+    // Projeção escalar: sempre lê o banco, mesmo com o inventário já carregado na transação corrente.
+    @Query("SELECT i.id AS id, i.product.id AS productId, i.quantity AS quantity FROM inventory i WHERE i.id IN :ids")
+    List<StockLevel> findStockLevelsByIdIn(Collection<String> ids);
+
+    interface StockLevel {
+        String getId();
+        String getProductId();
+        Integer getQuantity();
+    }
+
+    @Modifying
+    @Query("UPDATE inventory i SET i.quantity = i.quantity - :quantity, i.exitQuantity = i.exitQuantity + :quantity, " +
+           "i.version = i.version + 1 " +
+           "WHERE i.id = :id AND i.quantity >= :quantity")
+    int decrementStock(String id, int quantity);
+
+    @Modifying
+    @Query("UPDATE inventory i SET i.quantity = i.quantity + :quantity, i.receivementQuantity = i.receivementQuantity + :quantity, " +
+           "i.version = i.version + 1 " +
+           "WHERE i.id = :id")
+    int incrementStock(String id, int quantity);
+
+    // Estorno de recebimento: mesma condição da baixa, para não deixar o estoque negativo.
+    @Modifying
+    @Query("UPDATE inventory i SET i.quantity = i.quantity - :quantity, i.receivementQuantity = i.receivementQuantity - :quantity, " +
+           "i.version = i.version + 1 " +
+           "WHERE i.id = :id AND i.quantity >= :quantity")
+    int decrementReceivedStock(String id, int quantity);
 }
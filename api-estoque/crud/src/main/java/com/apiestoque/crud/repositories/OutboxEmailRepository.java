@@ -0,0 +1,27 @@
+package com.apiestoque.crud.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.apiestoque.crud.domain.email.OutboxEmail;
+import com.apiestoque.crud.domain.email.dto.OutboxEmailStatus;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, String> {
+    @Query("SELECT e FROM email_outbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<OutboxEmail> findDue(OutboxEmailStatus status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Reserva a mensagem para um único despachante: só quem ainda enxerga a versão lida consegue
+     * empurrar o próximo horário para frente.
+     */
+    @Modifying
+    @Query("UPDATE email_outbox e SET e.nextAttemptAt = :lease, e.version = e.version + 1 WHERE e.id = :id AND e.version = :version")
+    int claim(String id, Long version, LocalDateTime lease);
+
+    long countByStatus(OutboxEmailStatus status);
+}
@@ -0,0 +1,33 @@
+package com.apiestoque.crud.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.apiestoque.crud.domain.report.ProductDailyRollup;
+import com.apiestoque.crud.domain.report.ProductDailyRollupId;
+import com.apiestoque.crud.domain.report.dto.ProductRollupSummaryDTO;
+
+public interface ProductDailyRollupRepository extends JpaRepository<ProductDailyRollup, ProductDailyRollupId> {
+    List<ProductDailyRollup> findByProductIdAndDayBetweenOrderByDay(String productId, LocalDate from, LocalDate to);
+
+    @Query(value = """
+            SELECT new com.apiestoque.crud.domain.report.dto.ProductRollupSummaryDTO(
+                r.productId, p.name, p.productCode, SUM(r.quantityIn), SUM(r.quantityOut), SUM(r.revenue),
+                SUM(r.daysToExitTotal), SUM(r.exitsWithReceipt))
+            FROM product_daily_rollups r
+            JOIN products p ON p.id = r.productId
+            WHERE r.day BETWEEN :from AND :to AND (:categoryId IS NULL OR r.categoryId = :categoryId)
+            GROUP BY r.productId, p.name, p.productCode
+            ORDER BY SUM(r.revenue) DESC, r.productId
+            """,
+            countQuery = """
+            SELECT COUNT(DISTINCT r.productId) FROM product_daily_rollups r
+            WHERE r.day BETWEEN :from AND :to AND (:categoryId IS NULL OR r.categoryId = :categoryId)
+            """)
+    Page<ProductRollupSummaryDTO> summarize(LocalDate from, LocalDate to, String categoryId, Pageable pageable);
+}
@@ -1,12 +1,72 @@
 package com.apiestoque.crud.repositories;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import com.apiestoque.crud.domain.product.Product;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, String> {
     boolean existsByProductCode(String productCode);
     List<Product> findByCategoryId(String categoryId);
+
+    @EntityGraph(attributePaths = "category")
     List<Product> findByName(String name);
+
+    @EntityGraph(attributePaths = "category")
     List<Product> findBySuppliersId(String supplierId);
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Pageable pageable);
+
+    @Query("SELECT DISTINCT p FROM products p LEFT JOIN FETCH p.inventories WHERE p IN :products")
+    List<Product> fetchInventories(Collection<Product> products);
+
+    @Query("SELECT DISTINCT p FROM products p LEFT JOIN FETCH p.suppliers WHERE p IN :products")
+    List<Product> fetchSuppliers(Collection<Product> products);
+
+    // Inicializa inventários e fornecedores de todos os produtos com uma consulta por coleção,
+    // em vez de duas por produto. Precisa rodar dentro da mesma transação que carregou a lista.
+    default List<Product> fetchCollections(List<Product> products) {
+        if (!products.isEmpty()) {
+            fetchInventories(products);
+            fetchSuppliers(products);
+        }
+
+        return products;
+    }
+
+    @Query("SELECT p.id FROM products p WHERE p.category.id = :categoryId")
+    List<String> findIdsByCategoryId(String categoryId);
+
+    @Query("SELECT p.id FROM products p JOIN p.suppliers s WHERE s.id = :supplierId")
+    List<String> findIdsBySupplierId(String supplierId);
+
+    // Quantidades atuais do produto e de cada inventário numa só consulta, uma linha por inventário;
+    // sobrepostas ao detalhe que vem do cache.
+    @Query("SELECT p.stockQuantity AS stockQuantity, i.id AS inventoryId, i.quantity AS quantity, " +
+           "i.receivementQuantity AS receivementQuantity, i.exitQuantity AS exitQuantity " +
+           "FROM products p LEFT JOIN p.inventories i WHERE p.id = :id")
+    List<StockLevel> findStockLevelsById(String id);
+
+    interface StockLevel {
+        Integer getStockQuantity();
+        String getInventoryId();
+        Integer getQuantity();
+        Integer getReceivementQuantity();
+        Integer getExitQuantity();
+    }
+
+    @Modifying
+    @Query("UPDATE products p SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 WHERE p.id = :id")
+    int decrementStock(String id, int quantity);
+
+    @Modifying
+    @Query("UPDATE products p SET p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 WHERE p.id = :id")
+    int incrementStock(String id, int quantity);
 }
@@ -1,11 +1,25 @@
 package com.apiestoque.crud.repositories;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import com.apiestoque.crud.domain.receivement.Receivement;
 
 public interface ReceivementRepository extends JpaRepository<Receivement, String> {
     boolean existsByInventoryCode(String inventoryId);
+
+    @Override
+    @EntityGraph(attributePaths = { "product", "product.category", "supplier" })
+    Page<Receivement> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = { "product", "product.category", "supplier" })
+    Window<Receivement> findBy(ScrollPosition position, Sort sort, Limit limit);
     
     @Query(value = "EXEC UpdateReceivementStatus :id, :newStatus", nativeQuery = true)
     void updateReceivementStatus(String id, String newStatus);
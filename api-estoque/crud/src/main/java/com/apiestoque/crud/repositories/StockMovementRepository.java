@@ -0,0 +1,16 @@
+package com.apiestoque.crud.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.apiestoque.crud.domain.movement.StockMovement;
+import com.apiestoque.crud.domain.movement.dto.StockMovementType;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, String> {
+    Page<StockMovement> findByInventoryIdAndCreatedAtBetween(String inventoryId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    Page<StockMovement> findByInventoryIdAndTypeAndCreatedAtBetween(String inventoryId, StockMovementType type, LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
@@ -4,12 +4,24 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.security.core.userdetails.UserDetails;
 import com.apiestoque.crud.domain.user.User;
+import com.apiestoque.crud.domain.user.dto.UserPrincipalDTO;
+import com.apiestoque.crud.domain.user.dto.UserRole;
+import com.apiestoque.crud.domain.user.dto.UserStatus;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, String> {
     UserDetails findByEmail(String email);
     User findByUsername(String username);
     User findUserByEmail(String email);
 
+    @Query("SELECT new com.apiestoque.crud.domain.user.dto.UserPrincipalDTO(u.id, u.username, u.email, u.role, u.status, u.createdAt, u.updatedAt) FROM users u WHERE u.email = :email")
+    Optional<UserPrincipalDTO> findPrincipalByEmail(String email);
+
+    @Query("SELECT u.email FROM users u WHERE u.role = :role AND u.status = :status")
+    List<String> findEmailsByRoleAndStatus(UserRole role, UserStatus status);
+
     @Query(value = "EXEC UpdateUserStatus :id, :newStatus", nativeQuery = true)
     void updateUserStatus(String id, String newStatus);
 }
@@ -23,6 +23,6 @@ public class AuthorizationService implements UserDetailsService {
             throw new UsernameNotFoundException("Usuário não encontrado com o email: " + email);
         }
 
-        return userRepository.findByEmail(email);
+        return user;
     }
 }
@@ -1,16 +1,20 @@
 package com.apiestoque.crud.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
 import com.apiestoque.crud.domain.product.category.Category;
 import com.apiestoque.crud.domain.product.category.dto.CategoryRequestDTO;
 import com.apiestoque.crud.domain.product.category.dto.CategoryResponseDTO;
 import com.apiestoque.crud.domain.product.category.dto.CategoryUpdateDTO;
 import com.apiestoque.crud.domain.product.dto.ProductDetailedResponseDTO;
+import com.apiestoque.crud.infra.cache.ReferenceDataCache;
 import com.apiestoque.crud.repositories.CategoryRepository;
 import com.apiestoque.crud.repositories.ProductRepository;
 import java.util.List;
@@ -24,6 +28,12 @@ public class CategoryService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReferenceDataCache<CategoryResponseDTO> categoryCache;
+
     public CategoryResponseDTO create(CategoryRequestDTO data) {
         if (categoryRepository.existsByName(data.name())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Categoria com esse nome já existe.");
@@ -48,10 +58,14 @@ public class CategoryService {
 
         category.setName(data.name());
         Category updatedCategory = categoryRepository.save(category);
+        categoryCache.evict(id);
+        productRepository.findIdsByCategoryId(id)
+                .forEach(productId -> eventPublisher.publishEvent(new ProductChangedEvent(productId)));
 
         return new CategoryResponseDTO(updatedCategory);
     }
 
+    @Transactional(readOnly = true)
     public Page<CategoryResponseDTO> getAll(Pageable pageable) {
         Page<CategoryResponseDTO> categoryPage = categoryRepository.findAll(pageable)
                 .map(CategoryResponseDTO::new);
@@ -61,13 +75,12 @@ public class CategoryService {
 
 
     public CategoryResponseDTO getById(String id) {
-        Category category = categoryRepository.findById(id)
+        return categoryCache.get(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada."));
-
-        return new CategoryResponseDTO(category);
     }
 
 
+    @Transactional(readOnly = true)
     public List<CategoryResponseDTO> getByName(String name) {
         List<CategoryResponseDTO> categoryList = categoryRepository.findByName(name).stream()
                 .map(CategoryResponseDTO::new)
@@ -85,6 +98,7 @@ public class CategoryService {
         }
 
         this.categoryRepository.deleteById(id);
+        categoryCache.evict(id);
         return null;
     }
 }
@@ -0,0 +1,252 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.email.OutboxEmail;
+import com.apiestoque.crud.domain.email.dto.OutboxEmailStatus;
+import com.apiestoque.crud.repositories.OutboxEmailRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Despacha a tabela de saída de emails em lotes. Cada lote é reservado no banco, enviado por uma
+ * única conexão SMTP e só então tem o resultado gravado; falhas voltam para a fila com backoff
+ * exponencial até {@code email.outbox.max-attempts}, depois ficam como DEAD para análise.
+ * <p>
+ * O {@code SMTPTransport} do javax.mail é sincronizado em volta do socket; com
+ * {@code spring.threads.virtual.enabled} o agendador roda em virtual threads e prenderia o carrier
+ * durante toda a conversa SMTP, por isso o envio é feito numa thread de plataforma própria.
+ */
+@Service
+public class EmailOutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${email.smtp.host:smtp.gmail.com}")
+    private String host;
+
+    @Value("${email.smtp.port:587}")
+    private int port;
+
+    @Value("${email.smtp.username:}")
+    private String username;
+
+    @Value("${email.smtp.password:}")
+    private String password;
+
+    @Value("${email.smtp.starttls:true}")
+    private boolean startTls;
+
+    @Value("${email.smtp.timeout:10s}")
+    private Duration timeout;
+
+    @Value("${email.from:}")
+    private String from;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-base:30s}")
+    private Duration backoffBase;
+
+    @Value("${email.outbox.backoff-max:1h}")
+    private Duration backoffMax;
+
+    @Value("${email.outbox.lease:5m}")
+    private Duration lease;
+
+    private Session session;
+    private Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final ExecutorService smtpExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("email-smtp").daemon().factory());
+
+    @PostConstruct
+    void init() {
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", String.valueOf(!username.isBlank()));
+        properties.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(timeout.toMillis()));
+        properties.put("mail.smtp.timeout", String.valueOf(timeout.toMillis()));
+        properties.put("mail.smtp.writetimeout", String.valueOf(timeout.toMillis()));
+        session = Session.getInstance(properties);
+
+        batchTimer = Timer.builder("email.outbox.batch").register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        smtpExecutor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            int processed;
+            do {
+                processed = dispatchBatch();
+            } while (processed == batchSize);
+
+            pending.set(outboxEmailRepository.countByStatus(OutboxEmailStatus.PENDING));
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao despachar a fila de emails: {}", e.getMessage());
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEmail> claimed = transactionTemplate.execute(status -> claim(LocalDateTime.now()));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Delivery> deliveries = batchTimer.record(() -> sendOnPlatformThread(claimed));
+        transactionTemplate.executeWithoutResult(status -> record(deliveries));
+        return claimed.size();
+    }
+
+    private List<OutboxEmail> claim(LocalDateTime now) {
+        LocalDateTime leaseUntil = now.plus(lease);
+        List<OutboxEmail> claimed = new ArrayList<>();
+
+        for (OutboxEmail email : outboxEmailRepository.findDue(OutboxEmailStatus.PENDING, now, PageRequest.of(0, batchSize))) {
+            if (outboxEmailRepository.claim(email.getId(), email.getVersion(), leaseUntil) == 1) {
+                claimed.add(email);
+            }
+        }
+
+        return claimed;
+    }
+
+    private List<Delivery> sendOnPlatformThread(List<OutboxEmail> emails) {
+        try {
+            return smtpExecutor.submit(() -> send(emails)).get();
+        } catch (InterruptedException e) {
+            // as reservas expiram pelo lease e o lote volta para a fila
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Envio de emails interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no envio de emails", e.getCause());
+        }
+    }
+
+    private List<Delivery> send(List<OutboxEmail> emails) {
+        List<Delivery> deliveries = new ArrayList<>(emails.size());
+
+        try (Transport transport = session.getTransport("smtp")) {
+            transport.connect(host, port, username.isBlank() ? null : username, password.isBlank() ? null : password);
+
+            for (OutboxEmail email : emails) {
+                try {
+                    MimeMessage message = toMessage(email);
+                    transport.sendMessage(message, message.getAllRecipients());
+                    deliveries.add(new Delivery(email.getId(), null, false));
+                } catch (AddressException e) {
+                    deliveries.add(new Delivery(email.getId(), e.getMessage(), true));
+                } catch (MessagingException e) {
+                    deliveries.add(new Delivery(email.getId(), e.getMessage(), false));
+                }
+            }
+        } catch (MessagingException e) {
+            logger.warn("Servidor SMTP indisponível: {}", e.getMessage());
+            for (OutboxEmail email : emails.subList(deliveries.size(), emails.size())) {
+                deliveries.add(new Delivery(email.getId(), e.getMessage(), false));
+            }
+        }
+
+        return deliveries;
+    }
+
+    private MimeMessage toMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(from.isBlank() ? username : from));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getRecipient(), true));
+        message.setSubject(email.getSubject(), "UTF-8");
+        message.setText(email.getBody(), "UTF-8");
+        return message;
+    }
+
+    private void record(List<Delivery> deliveries) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, OutboxEmail> emails = outboxEmailRepository.findAllById(deliveries.stream().map(Delivery::emailId).toList())
+                .stream().collect(Collectors.toMap(OutboxEmail::getId, Function.identity()));
+
+        for (Delivery delivery : deliveries) {
+            OutboxEmail email = emails.get(delivery.emailId());
+            if (email == null) {
+                continue;
+            }
+
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(delivery.error() != null && delivery.error().length() > 1000
+                    ? delivery.error().substring(0, 1000) : delivery.error());
+
+            if (delivery.error() == null) {
+                email.setStatus(OutboxEmailStatus.SENT);
+                email.setSentAt(now);
+                meterRegistry.counter("email.outbox.sent").increment();
+            } else if (delivery.permanent() || email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboxEmailStatus.DEAD);
+                meterRegistry.counter("email.outbox.dead").increment();
+                logger.error("Email {} para {} descartado após {} tentativas: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), delivery.error());
+            } else {
+                email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+                meterRegistry.counter("email.outbox.retried").increment();
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private record Delivery(String emailId, String error, boolean permanent) {
+    }
+}
@@ -1,41 +1,46 @@
 package com.apiestoque.crud.services;
 
+import com.apiestoque.crud.domain.email.OutboxEmail;
+import com.apiestoque.crud.domain.email.dto.OutboxEmailResponseDTO;
+import com.apiestoque.crud.repositories.OutboxEmailRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import javax.mail.*;
-import javax.mail.internet.*;
-import java.util.Properties;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
 
+/**
+ * Enfileira emails na tabela de saída. O envio acontece em segundo plano pelo
+ * {@link EmailOutboxDispatcher}; quando chamado dentro de uma transação, o email só passa a existir
+ * se ela for confirmada.
+ */
 @Service
 public class EmailService {
-    private final String username = "ryanlucas2018gz@gmail.com";
-    private final String password = ""; 
-
-    public void sendEmail(String toEmail, String subject, String body) {
-        Properties properties = new Properties();
-        properties.put("mail.smtp.auth", "true");
-        properties.put("mail.smtp.starttls.enable", "true");
-        properties.put("mail.smtp.host", "smtp.gmail.com");
-        properties.put("mail.smtp.port" , "587");
-
-        Session session = Session.getInstance(properties, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(username, password);
-            }
-        });
 
-        try {
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(username));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail));
-            message.setSubject(subject);
-            message.setText(body);
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
 
-            Transport.send(message);
-            System.out.println("Email enviado com sucesso!");
+    public OutboxEmailResponseDTO sendEmail(String toEmail, String subject, String body) {
+        try {
+            InternetAddress.parse(toEmail, true);
+        } catch (AddressException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Endereço de email inválido.");
+        }
 
-        } catch (MessagingException e) {
-            e.printStackTrace();
+        if (subject == null || subject.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O assunto do email é obrigatório.");
         }
+
+        OutboxEmail email = outboxEmailRepository.save(new OutboxEmail(toEmail, subject, body != null ? body : ""));
+        return new OutboxEmailResponseDTO(email);
+    }
+
+    public OutboxEmailResponseDTO getById(String id) {
+        return outboxEmailRepository.findById(id)
+                .map(OutboxEmailResponseDTO::new)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email não encontrado."));
     }
 }
@@ -1,24 +1,46 @@
 package com.apiestoque.crud.services;
 
 import com.apiestoque.crud.domain.exit.Exit;
+import com.apiestoque.crud.domain.exit.dto.ExitBatchLineResultDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitBatchRequestDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitBatchResponseDTO;
 import com.apiestoque.crud.domain.exit.dto.ExitRequestDTO;
 import com.apiestoque.crud.domain.exit.dto.ExitResponseDTO;
 import com.apiestoque.crud.domain.exit.dto.ExitStatus;
 import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.movement.StockMovement;
+import com.apiestoque.crud.domain.movement.dto.StockMovementType;
 import com.apiestoque.crud.domain.product.Product;
 import com.apiestoque.crud.repositories.ExitRepository;
 import com.apiestoque.crud.repositories.InventoryRepository;
 import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.infra.pagination.CursorPage;
+import com.apiestoque.crud.infra.pagination.KeysetCursor;
+import com.apiestoque.crud.infra.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class ExitService {
+    private static final Set<String> SCROLL_FIELDS = Set.of("createdAt", "exitDate");
 
     @Autowired
     private ExitRepository exitRepository;
@@ -29,23 +51,44 @@ public class ExitService {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockMetrics stockMetrics;
+
+    @RetryOnConflict
     @Transactional
     public ExitResponseDTO create(ExitRequestDTO data) {
-        Product product = productRepository.findById(data.productId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                        "Produto não encontrado. Insira um produto válido!"));
+        if (data.quantity() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A quantidade de saída deve ser maior que zero!");
+        }
 
-        Inventory inventory = inventoryRepository.findById(data.inventoryId())
+        // Uma leitura traz o inventário com o produto: serve para validar o dono e para montar a
+        // saída e a resposta, que só usam código, nome e preço. Os saldos carregados aqui ficam
+        // defasados depois dos UPDATEs abaixo e não são lidos.
+        Inventory inventory = inventoryRepository.findWithProductById(data.inventoryId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         "Inventário não encontrado para o produto!"));
+        Product product = inventory.getProduct();
 
-        if (data.quantity() <= 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A quantidade de saída deve ser maior que zero!");
+        if (!product.getId().equals(data.productId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O inventário informado não pertence ao produto!");
         }
 
-        if (inventory.getQuantity() < data.quantity()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Estoque insuficiente no inventário!");
-        }
+        // A saída sai primeiro do saldo de reservas no Redis, para não consumir estoque reservado ou
+        // confirmado e ainda não gravado. A checagem de saldo e a baixa no banco acontecem no mesmo
+        // UPDATE condicional: o banco serializa apenas a linha do inventário, então saídas
+        // concorrentes não vendem além do estoque.
+        boolean reserved = debitReservedStock(inventory.getId(), data.quantity());
+        decrementInventoryStock(inventory.getId(), data.quantity());
+        productRepository.decrementStock(product.getId(), data.quantity());
 
         Exit newExit = new Exit(
                 product,
@@ -53,17 +96,189 @@ public class ExitService {
                 inventory.getInventoryCode(),
                 data.exitStatus());
         exitRepository.save(newExit);
+        stockMovementService.recordExit(inventory.getId(), product.getId(), data.quantity(), newExit.getId(), reserved);
+        stockMetrics.exitsCreated(1);
+        rollupService.markDirty(product.getId(), newExit.getExitDate());
+
+        return new ExitResponseDTO(newExit);
+    }
 
-        inventory.setQuantity(inventory.getQuantity() - data.quantity());
-        inventory.setExitQuantity(inventory.getExitQuantity() + data.quantity());
-        inventoryRepository.save(inventory);
+    @RetryOnConflict
+    @Transactional
+    public ExitBatchResponseDTO createBatch(ExitBatchRequestDTO data) {
+        boolean partial = Boolean.TRUE.equals(data.partial());
+        List<ExitRequestDTO> items = data.items();
 
-        product.setStockQuantity(product.getStockQuantity() - data.quantity());
-        productRepository.save(product);
+        Set<String> inventoryIds = items.stream()
+                .map(ExitRequestDTO::inventoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
 
-        return new ExitResponseDTO(newExit);
+        Map<String, Inventory> inventories = inventoryRepository.findAllWithProductByIdIn(inventoryIds).stream()
+                .collect(Collectors.toMap(Inventory::getId, Function.identity()));
+
+        Map<String, Integer> availableByInventory = new HashMap<>();
+        inventories.values().forEach(inventory -> availableByInventory.put(inventory.getId(), inventory.getQuantity()));
+
+        String[] rejections = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            rejections[i] = validateBatchLine(items.get(i), inventories, availableByInventory);
+        }
+
+        if (!partial) {
+            throwIfRejected(rejections);
+        }
+
+        // As baixas são agregadas por inventário e aplicadas em ordem de id, a mesma ordem
+        // em qualquer lote, para que lotes concorrentes não entrem em deadlock.
+        Map<String, Integer> quantityByInventory = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (rejections[i] == null) {
+                quantityByInventory.merge(items.get(i).inventoryId(), items.get(i).quantity(), Integer::sum);
+            }
+        }
+
+        Set<String> reservedInventories = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : quantityByInventory.entrySet()) {
+            StockReservationService.DirectDebit debit = stockReservationService.debitDirectExit(entry.getKey(), entry.getValue());
+            if (debit != StockReservationService.DirectDebit.INSUFFICIENT) {
+                if (inventoryRepository.decrementStock(entry.getKey(), entry.getValue()) > 0) {
+                    if (debit == StockReservationService.DirectDebit.COUNTED) {
+                        reservedInventories.add(entry.getKey());
+                    }
+                    continue;
+                }
+
+                if (debit == StockReservationService.DirectDebit.COUNTED) {
+                    // No modo parcial a transação segue; a baixa recusada pelo banco volta ao saldo do Redis.
+                    stockReservationService.refundDirectExit(entry.getKey(), entry.getValue());
+                }
+            }
+
+            for (int i = 0; i < items.size(); i++) {
+                if (rejections[i] == null && entry.getKey().equals(items.get(i).inventoryId())) {
+                    rejections[i] = "Estoque insuficiente no inventário!";
+                    stockMetrics.insufficientStock();
+                }
+            }
+
+            if (!partial) {
+                throwIfRejected(rejections);
+            }
+        }
+
+        Map<String, Integer> quantityByProduct = new TreeMap<>();
+        List<Exit> newExits = new ArrayList<>();
+        Exit[] exitByLine = new Exit[items.size()];
+
+        for (int i = 0; i < items.size(); i++) {
+            if (rejections[i] != null) {
+                continue;
+            }
+
+            ExitRequestDTO item = items.get(i);
+            Inventory inventory = inventories.get(item.inventoryId());
+
+            quantityByProduct.merge(inventory.getProduct().getId(), item.quantity(), Integer::sum);
+
+            Exit newExit = new Exit(
+                    inventory.getProduct(),
+                    item.quantity(),
+                    inventory.getInventoryCode(),
+                    item.exitStatus());
+            newExits.add(newExit);
+            exitByLine[i] = newExit;
+        }
+
+        quantityByProduct.forEach(productRepository::decrementStock);
+        exitRepository.saveAll(newExits);
+        rollupService.markExits(newExits);
+        stockMetrics.exitsCreated(newExits.size());
+
+        List<StockMovement> movements = new ArrayList<>(newExits.size());
+        List<StockMovement> reservedMovements = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (exitByLine[i] != null) {
+                Inventory inventory = inventories.get(items.get(i).inventoryId());
+                (reservedInventories.contains(inventory.getId()) ? reservedMovements : movements).add(
+                        new StockMovement(inventory.getId(), inventory.getProduct().getId(),
+                                StockMovementType.EXIT, -items.get(i).quantity(), exitByLine[i].getId()));
+            }
+        }
+        stockMovementService.recordAll(movements);
+        stockMovementService.recordReserved(reservedMovements);
+
+        List<ExitBatchLineResultDTO> lines = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            lines.add(rejections[i] == null
+                    ? ExitBatchLineResultDTO.accepted(i + 1, items.get(i), exitByLine[i].getId())
+                    : ExitBatchLineResultDTO.rejected(i + 1, items.get(i), rejections[i]));
+        }
+
+        return new ExitBatchResponseDTO(lines);
+    }
+
+    private String validateBatchLine(ExitRequestDTO item, Map<String, Inventory> inventories,
+                                     Map<String, Integer> availableByInventory) {
+        if (item.quantity() == null || item.quantity() <= 0) {
+            return "A quantidade de saída deve ser maior que zero!";
+        }
+
+        Inventory inventory = inventories.get(item.inventoryId());
+        if (inventory == null) {
+            return "Inventário não encontrado para o produto!";
+        }
+
+        if (!inventory.getProduct().getId().equals(item.productId())) {
+            return "O inventário informado não pertence ao produto!";
+        }
+
+        int available = availableByInventory.get(inventory.getId());
+        if (available < item.quantity()) {
+            stockMetrics.insufficientStock();
+            return "Estoque insuficiente no inventário!";
+        }
+
+        availableByInventory.put(inventory.getId(), available - item.quantity());
+        return null;
+    }
+
+    private void throwIfRejected(String[] rejections) {
+        String message = IntStream.range(0, rejections.length)
+                .filter(i -> rejections[i] != null)
+                .mapToObj(i -> "Linha " + (i + 1) + ": " + rejections[i])
+                .collect(Collectors.joining(" "));
+
+        if (!message.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+        }
     }
 
+    private boolean debitReservedStock(String inventoryId, int quantity) {
+        StockReservationService.DirectDebit debit = stockReservationService.debitDirectExit(inventoryId, quantity);
+
+        if (debit == StockReservationService.DirectDebit.INSUFFICIENT) {
+            stockMetrics.insufficientStock();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Estoque insuficiente no inventário!");
+        }
+
+        return debit == StockReservationService.DirectDebit.COUNTED;
+    }
+
+    private void decrementInventoryStock(String inventoryId, int quantity) {
+        if (inventoryRepository.decrementStock(inventoryId, quantity) > 0) {
+            return;
+        }
+
+        if (!inventoryRepository.existsById(inventoryId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventário não encontrado para o produto!");
+        }
+
+        stockMetrics.insufficientStock();
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Estoque insuficiente no inventário!");
+    }
+
+    @RetryOnConflict
     @Transactional
     public ExitResponseDTO update(String id, ExitRequestDTO data) {
         Exit exit = exitRepository.findById(id)
@@ -76,6 +291,7 @@ public class ExitService {
         }
 
         quantityDifference = data.quantity() - exit.getQuantity();
+        LocalDate previousDate = exit.getExitDate();
         exit.setQuantity(data.quantity());
         exit.setExitDate(data.exitDate());
 
@@ -84,17 +300,16 @@ public class ExitService {
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                             "Não foi encontrado nenhum inventário para o produto!"));
 
-            Product product = inventory.getProduct();
-
-            inventory.setQuantity(inventory.getQuantity() - quantityDifference);
-            inventory.setExitQuantity(inventory.getExitQuantity() + quantityDifference);
-            inventoryRepository.save(inventory);
+            String productId = inventory.getProduct().getId();
 
-            product.setStockQuantity(product.getStockQuantity() - quantityDifference);
-            productRepository.save(product);
+            boolean reserved = quantityDifference > 0 && debitReservedStock(inventory.getId(), quantityDifference);
+            decrementInventoryStock(inventory.getId(), quantityDifference);
+            productRepository.decrementStock(productId, quantityDifference);
+            stockMovementService.recordExit(inventory.getId(), productId, quantityDifference, exit.getId(), reserved);
         }
 
         exitRepository.save(exit);
+        rollupService.markDirty(exit.getProduct().getId(), previousDate, exit.getExitDate());
         return new ExitResponseDTO(exit);
     }
 
@@ -108,20 +323,30 @@ public class ExitService {
         }
 
         exitRepository.updateExitStatus(receivement.getId(), status.name());
+        rollupService.markDirty(receivement.getProduct().getId(), receivement.getExitDate());
 
         return new ExitResponseDTO(receivement);
     }
 
+    @Transactional(readOnly = true)
     public ExitResponseDTO getById(String id) {
         Exit exit = exitRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Saída não encontrada!"));
         return new ExitResponseDTO(exit);
     }
 
+    @Transactional(readOnly = true)
     public Page<ExitResponseDTO> getAll(Pageable pageable) {
         return exitRepository.findAll(pageable).map(ExitResponseDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ExitResponseDTO> scroll(String cursor, String sort, String direction, Integer size) {
+        KeysetCursor keyset = KeysetCursor.of(cursor, sort, direction, size, SCROLL_FIELDS);
+        return keyset.toPage(exitRepository.findBy(keyset.position(), keyset.sort(), keyset.limit()), ExitResponseDTO::new);
+    }
+
+    @RetryOnConflict
     @Transactional
     public void delete(String id) {
         Exit exit = exitRepository.findById(id)
@@ -131,18 +356,16 @@ public class ExitService {
         Inventory inventory = inventoryRepository.findByInventoryCode(exit.getInventoryCode())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventário não encontrado."));
 
-        Product product = productRepository.findById(exit.getProduct().getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado."));
+        String productId = exit.getProduct().getId();
 
-        inventory.getExits().remove(exit);
+        inventoryRepository.decrementStock(inventory.getId(), -exit.getQuantity());
 
-        inventory.setQuantity(inventory.getQuantity() + exit.getQuantity());
-        inventory.setExitQuantity(inventory.getExitQuantity() - exit.getQuantity());
-
-        product.setStockQuantity(product.getStockQuantity() + exit.getQuantity());
+        if (productRepository.decrementStock(productId, -exit.getQuantity()) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado.");
+        }
 
-        inventoryRepository.save(inventory);
-        productRepository.save(product);
+        stockMovementService.recordExit(inventory.getId(), productId, -exit.getQuantity(), exit.getId());
+        rollupService.markDirty(productId, exit.getExitDate());
         exitRepository.deleteById(id);
     }
 }
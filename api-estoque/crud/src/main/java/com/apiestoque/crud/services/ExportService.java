@@ -0,0 +1,206 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.infra.export.ExportFilter;
+import com.apiestoque.crud.infra.export.ExportFormat;
+import com.apiestoque.crud.infra.export.ExportWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exporta o histórico de movimentações lendo um ResultSet forward-only com fetch size limitado e
+ * escrevendo cada linha direto na resposta. Nenhuma entidade é carregada no contexto de persistência,
+ * então a memória usada não depende da quantidade de linhas exportadas.
+ */
+@Service
+public class ExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static final int FLUSH_EVERY = 1000;
+
+    private static final String EXITS_SQL = """
+            SELECT e.id, e.product_id, p.product_code, p.name AS product_name, e.inventory_code, e.quantity,
+                   p.unit_price, p.unit_price * e.quantity AS total_price, e.exit_status AS status, e.exit_date,
+                   e.created_by, e.created_at
+            FROM exits e
+            JOIN products p ON p.id = e.product_id
+            """;
+
+    private static final String RECEIVEMENTS_SQL = """
+            SELECT r.id, r.product_id, p.product_code, p.name AS product_name, r.supplier_id,
+                   s.social_reason AS supplier_name, r.inventory_code, r.description, r.quantity, r.total_price,
+                   r.receiving_status AS status, r.receiving_date, r.created_by, r.created_at
+            FROM receivings r
+            JOIN products p ON p.id = r.product_id
+            JOIN suppliers s ON s.id = r.supplier_id
+            """;
+
+    private static final String INVENTORY_SQL = """
+            SELECT i.id, i.product_id, p.product_code, p.name AS product_name, i.inventory_code, i.quantity,
+                   i.receivement_quantity, i.exit_quantity, i.discount, i.created_by, i.created_at
+            FROM inventory i
+            JOIN products p ON p.id = i.product_id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    public long exportExits(ExportFilter filter, ExportFormat format, OutputStream out) {
+        Query query = new Query(EXITS_SQL);
+        query.dateRange("e.exit_date", filter);
+        query.equalTo("e.exit_status", filter.status());
+        return stream("exits", query.orderBy("e.exit_date, e.id"), format, out);
+    }
+
+    public long exportReceivements(ExportFilter filter, ExportFormat format, OutputStream out) {
+        Query query = new Query(RECEIVEMENTS_SQL);
+        query.dateRange("r.receiving_date", filter);
+        query.equalTo("r.receiving_status", filter.status());
+        return stream("receivements", query.orderBy("r.receiving_date, r.id"), format, out);
+    }
+
+    public long exportInventory(ExportFilter filter, ExportFormat format, OutputStream out) {
+        Query query = new Query(INVENTORY_SQL);
+        query.timestampRange("i.created_at", filter);
+        return stream("inventory", query.orderBy("i.created_at, i.id"), format, out);
+    }
+
+    private long stream(String dataset, Query query, ExportFormat format, OutputStream out) {
+        Long exported = jdbcTemplate.execute(connection -> {
+            PreparedStatement statement = connection.prepareStatement(query.sql(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (PreparedStatement statement) -> {
+            for (int i = 0; i < query.params.size(); i++) {
+                statement.setObject(i + 1, query.params.get(i));
+            }
+            ResultSet resultSet = statement.executeQuery();
+            long rows = 0;
+            try (ExportWriter writer = ExportWriter.of(format, out, columns(resultSet.getMetaData()))) {
+                int[] types = types(resultSet.getMetaData());
+                while (resultSet.next()) {
+                    writer.writeRow(values(resultSet, types));
+                    if (++rows % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // O cliente desconectou: cancela a consulta no banco em vez de drenar o restante das linhas.
+                statement.cancel();
+                meterRegistry.counter("export.cancelled", "dataset", dataset).increment();
+                logger.info("Exportação de {} interrompida pelo cliente após {} linhas.", dataset, rows);
+            } finally {
+                JdbcUtils.closeResultSet(resultSet);
+                meterRegistry.counter("export.rows", "dataset", dataset).increment(rows);
+            }
+            return rows;
+        });
+        return exported == null ? 0 : exported;
+    }
+
+    private static String[] columns(ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1).toLowerCase();
+        }
+        return columns;
+    }
+
+    private static int[] types(ResultSetMetaData metaData) throws SQLException {
+        int[] types = new int[metaData.getColumnCount()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        return types;
+    }
+
+    private static Object[] values(ResultSet resultSet, int[] types) throws SQLException {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            int column = i + 1;
+            Object value = switch (types[i]) {
+                case Types.DATE -> resultSet.getObject(column, LocalDate.class);
+                case Types.TIMESTAMP -> resultSet.getObject(column, LocalDateTime.class);
+                case Types.DECIMAL, Types.NUMERIC -> resultSet.getBigDecimal(column);
+                case Types.INTEGER, Types.BIGINT, Types.SMALLINT, Types.TINYINT -> resultSet.getLong(column);
+                default -> resultSet.getString(column);
+            };
+            values[i] = resultSet.wasNull() ? null : value;
+        }
+        return values;
+    }
+
+    private static final class Query {
+        private final StringBuilder where = new StringBuilder();
+        private final List<Object> params = new ArrayList<>();
+        private final String select;
+        private String orderBy;
+
+        private Query(String select) {
+            this.select = select;
+        }
+
+        private void dateRange(String column, ExportFilter filter) {
+            if (filter.from() != null) {
+                condition(column + " >= ?", filter.from());
+            }
+            if (filter.to() != null) {
+                condition(column + " <= ?", filter.to());
+            }
+        }
+
+        private void timestampRange(String column, ExportFilter filter) {
+            if (filter.from() != null) {
+                condition(column + " >= ?", filter.from().atStartOfDay());
+            }
+            if (filter.to() != null) {
+                condition(column + " < ?", filter.to().plusDays(1).atStartOfDay());
+            }
+        }
+
+        private void equalTo(String column, Object value) {
+            if (value != null) {
+                condition(column + " = ?", value);
+            }
+        }
+
+        private void condition(String condition, Object param) {
+            where.append(where.isEmpty() ? "WHERE " : " AND ").append(condition);
+            params.add(param);
+        }
+
+        private Query orderBy(String orderBy) {
+            this.orderBy = orderBy;
+            return this;
+        }
+
+        private String sql() {
+            return select + where + " ORDER BY " + orderBy;
+        }
+    }
+}
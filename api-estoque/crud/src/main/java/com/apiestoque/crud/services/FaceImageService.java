@@ -0,0 +1,101 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.user.FaceImage;
+import com.apiestoque.crud.infra.face.FaceEmbedding;
+import com.apiestoque.crud.repositories.FaceImageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Guarda as imagens faciais fora da tabela de usuários. Só o fluxo de verificação facial lê os
+ * bytes; as consultas de usuário carregam apenas o checksum.
+ */
+@Service
+public class FaceImageService {
+    @Autowired
+    private FaceImageRepository faceImageRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${face.embedding-cache.max-size:10000}")
+    private long embeddingCacheSize;
+
+    // A imagem nunca muda para um mesmo checksum, então o embedding em memória não precisa expirar.
+    private Cache<String, FaceEmbedding> embeddings;
+
+    @PostConstruct
+    void init() {
+        embeddings = Caffeine.newBuilder()
+                .maximumSize(embeddingCacheSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, embeddings, "faceEmbeddings");
+    }
+
+    /**
+     * Grava a imagem, se ainda não existir, e devolve o checksum que o usuário deve referenciar.
+     */
+    public String store(byte[] image) {
+        String checksum = checksum(image);
+
+        if (!faceImageRepository.existsById(checksum)) {
+            faceImageRepository.save(new FaceImage(checksum, image));
+        }
+
+        return checksum;
+    }
+
+    public Optional<byte[]> load(String checksum) {
+        if (checksum == null) {
+            return Optional.empty();
+        }
+
+        return faceImageRepository.findImageByChecksum(checksum);
+    }
+
+    public Optional<FaceEmbedding> embedding(String checksum) {
+        if (checksum == null) {
+            return Optional.empty();
+        }
+
+        FaceEmbedding cached = embeddings.getIfPresent(checksum);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<FaceEmbedding> stored = faceImageRepository.findEmbeddingByChecksum(checksum);
+        stored.ifPresent(embedding -> embeddings.put(checksum, embedding));
+        return stored;
+    }
+
+    @Transactional
+    public void saveEmbedding(String checksum, FaceEmbedding embedding) {
+        faceImageRepository.updateEmbedding(checksum, embedding.model(), embedding.toBytes());
+        embeddings.put(checksum, embedding);
+    }
+
+    static String checksum(byte[] image) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
+import com.apiestoque.crud.domain.product.dto.ProductSearchResultDTO;
+import com.apiestoque.crud.infra.search.ProductSearchDocument;
+import com.apiestoque.crud.infra.search.ProductSearchIndex;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class ProductSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchService.class);
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    public List<ProductSearchResultDTO> search(String query, Integer limit) {
+        int size = limit == null ? 10 : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "O limite de resultados deve estar entre 1 e " + MAX_LIMIT + ".");
+        }
+
+        return index.search(query, size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (DataAccessException e) {
+                logger.warn("Não foi possível montar o índice de busca na inicialização: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Recarrega o catálogo em lotes e troca o índice de uma vez; as buscas seguem no índice antigo
+     * enquanto isso. Produtos alterados durante a carga são reindexados logo após a troca.
+     */
+    public int rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "O índice de busca já está sendo reconstruído.");
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            ProductSearchIndex.Builder builder = new ProductSearchIndex.Builder();
+            PageRequest pageRequest = PageRequest.of(0, rebuildBatchSize, Sort.by("id"));
+            Page<Product> page;
+
+            do {
+                PageRequest current = pageRequest;
+                page = transactionTemplate.execute(status -> {
+                    Page<Product> products = productRepository.findAll(current);
+                    productRepository.fetchSuppliers(products.getContent());
+                    products.forEach(product -> builder.add(ProductSearchDocument.of(product)));
+                    return products;
+                });
+                pageRequest = pageRequest.next();
+            } while (page != null && page.hasNext());
+
+            index = builder.build();
+            reindex(Set.copyOf(changedDuringRebuild));
+
+            logger.info("Índice de busca montado com {} produtos em {} ms", index.size(), System.currentTimeMillis() - start);
+            return index.size();
+        } finally {
+            changedDuringRebuild.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(event.productId());
+        }
+
+        try {
+            reindex(Set.of(event.productId()));
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao atualizar o produto {} no índice de busca: {}", event.productId(), e.getMessage());
+        }
+    }
+
+    private void reindex(Set<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        List<Product> products = transactionTemplate.execute(status -> productRepository.fetchSuppliers(
+                productRepository.findAllById(productIds)));
+        ProductSearchIndex current = index;
+
+        products.forEach(product -> current.index(ProductSearchDocument.of(product)));
+        productIds.stream()
+                .filter(id -> products.stream().noneMatch(product -> product.getId().equals(id)))
+                .forEach(current::remove);
+    }
+}
@@ -1,6 +1,13 @@
 package com.apiestoque.crud.services;
 
+import com.apiestoque.crud.infra.cache.ProductDetailsCache;
+import com.apiestoque.crud.infra.cache.ReferenceDataCache;
+import com.apiestoque.crud.infra.pagination.CursorPage;
+import com.apiestoque.crud.infra.pagination.KeysetCursor;
+import com.apiestoque.crud.infra.retry.RetryOnConflict;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -10,19 +17,23 @@ import com.apiestoque.crud.domain.inventory.Inventory;
 import com.apiestoque.crud.domain.inventory.dto.InventoryRequestDTO;
 import com.apiestoque.crud.domain.inventory.dto.InventoryResponseDTO;
 import com.apiestoque.crud.domain.product.Product;
-import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
+import com.apiestoque.crud.domain.product.category.dto.CategoryResponseDTO;
 import com.apiestoque.crud.domain.product.dto.ProductDetailedResponseDTO;
 import com.apiestoque.crud.domain.product.dto.ProductRequestDTO;
 import com.apiestoque.crud.domain.product.dto.ProductResponseDTO;
 import com.apiestoque.crud.domain.product.dto.ProductUpdateDTO;
 import com.apiestoque.crud.domain.supplier.Supplier;
+import com.apiestoque.crud.domain.supplier.dto.SupplierResponseDTO;
 import com.apiestoque.crud.repositories.CategoryRepository;
 import com.apiestoque.crud.repositories.ExitRepository;
 import com.apiestoque.crud.repositories.InventoryRepository;
 import com.apiestoque.crud.repositories.ProductRepository;
 import com.apiestoque.crud.repositories.ReceivementRepository;
 import com.apiestoque.crud.repositories.SupplierRepository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -46,15 +57,24 @@ public class ProductService {
     @Autowired
     private ExitRepository exitRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductDetailsCache productDetailsCache;
+
+    @Autowired
+    private ReferenceDataCache<CategoryResponseDTO> categoryCache;
+
+    @Autowired
+    private ReferenceDataCache<SupplierResponseDTO> supplierCache;
+
+    @Transactional
     public ProductResponseDTO create(ProductRequestDTO data) {
-        Category category = categoryRepository.findById(data.categoryId())
+        CategoryResponseDTO cachedCategory = categoryCache.get(data.categoryId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada."));
 
-        Set<Supplier> suppliers = data.suppliersId().stream()
-                .map(supplierId -> supplierRepository.findById(supplierId)
-                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                                "Fornecedor não encontrado com ID: " + supplierId)))
-                .collect(Collectors.toSet());
+        Map<String, SupplierResponseDTO> cachedSuppliers = resolveSuppliers(data.suppliersId());
 
         if (productRepository.existsByProductCode(data.productCode())) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
@@ -66,15 +86,40 @@ public class ProductService {
                 data.description(),
                 data.productCode(),
                 data.unitPrice(),
-                category,
-                suppliers,
+                categoryRepository.getReferenceById(cachedCategory.id()),
+                supplierReferences(cachedSuppliers.keySet()),
                 data.expirationDate());
+        newProduct.setMinimumStock(data.minimumStock());
 
         Product savedProduct = this.productRepository.save(newProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId()));
+
+        return new ProductResponseDTO(savedProduct, cachedCategory, cachedSuppliers.values());
+    }
+
+    // Categoria e fornecedores vêm do cache de referência; a associação usa apenas proxies por id,
+    // sem SELECT por fornecedor.
+    private Map<String, SupplierResponseDTO> resolveSuppliers(Collection<String> supplierIds) {
+        Map<String, SupplierResponseDTO> suppliers = supplierCache.getAll(supplierIds);
+
+        for (String supplierId : supplierIds) {
+            if (!suppliers.containsKey(supplierId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Fornecedor não encontrado com ID: " + supplierId);
+            }
+        }
+
+        return suppliers;
+    }
 
-        return new ProductResponseDTO(savedProduct);
+    private Set<Supplier> supplierReferences(Collection<String> supplierIds) {
+        return supplierIds.stream()
+                .map(supplierRepository::getReferenceById)
+                .collect(Collectors.toSet());
     }
 
+    @RetryOnConflict
+    @Transactional
     public ProductResponseDTO update(String id, ProductUpdateDTO data) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado."));
@@ -89,13 +134,7 @@ public class ProductService {
         }
 
         if (!data.supplierIds().isEmpty()) {
-            Set<Supplier> suppliers = data.supplierIds().stream()
-                    .map(supplierId -> supplierRepository.findById(supplierId)
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                                    "Fornecedor não encontrado com ID: " + supplierId)))
-                    .collect(Collectors.toSet());
-
-            product.setSuppliers(suppliers);
+            product.setSuppliers(supplierReferences(resolveSuppliers(data.supplierIds()).keySet()));
         }
 
         if (data.name() != null) {
@@ -114,25 +153,64 @@ public class ProductService {
             product.setExpirationDate(data.expirationDate());
         }
 
+        if (data.minimumStock() != null) {
+            if (data.minimumStock() < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O estoque mínimo não pode ser negativo.");
+            }
+
+            product.setMinimumStock(data.minimumStock());
+        }
+
         Product updatedProduct = productRepository.save(product);
-        return new ProductResponseDTO(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+
+        Set<String> supplierIds = updatedProduct.getSuppliers().stream()
+                .map(Supplier::getId)
+                .collect(Collectors.toSet());
+
+        return new ProductResponseDTO(updatedProduct,
+                categoryCache.get(updatedProduct.getCategory().getId()).orElse(null),
+                supplierCache.getAll(supplierIds).values());
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductResponseDTO> getAll(Pageable pageable) {
-        Page<ProductResponseDTO> productPage = productRepository.findAll(pageable)
-                .map(ProductResponseDTO::new);
-        return productPage;
+        Page<Product> page = productRepository.findAll(pageable);
+        productRepository.fetchCollections(page.getContent());
+
+        return page.map(ProductResponseDTO::new);
     }
 
+    // O detalhe vem do cache; o estoque do produto e dos inventários muda a cada movimentação e é
+    // lido do primário a cada consulta, numa única projeção.
+    @Transactional
     public ProductDetailedResponseDTO getById(String id) {
-        Product product = productRepository.findById(id)
+        ProductDetailedResponseDTO details = productDetailsCache.get(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado."));
 
-        return new ProductDetailedResponseDTO(product);
+        List<ProductRepository.StockLevel> levels = productRepository.findStockLevelsById(id);
+        if (levels.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado.");
+        }
+
+        Map<String, ProductRepository.StockLevel> byInventory = levels.stream()
+                .filter(level -> level.getInventoryId() != null)
+                .collect(Collectors.toMap(ProductRepository.StockLevel::getInventoryId, level -> level));
+        Set<InventoryResponseDTO> inventory = details.inventory().stream()
+                .map(cached -> {
+                    ProductRepository.StockLevel level = byInventory.get(cached.id());
+                    return level != null
+                            ? cached.withQuantities(level.getQuantity(), level.getReceivementQuantity(), level.getExitQuantity())
+                            : cached;
+                })
+                .collect(Collectors.toSet());
+
+        return details.withStock(levels.get(0).getStockQuantity(), inventory);
     }
 
+    @Transactional(readOnly = true)
     public List<ProductResponseDTO> getProductByName(String name) {
-        List<Product> products = productRepository.findByName(name);
+        List<Product> products = productRepository.fetchCollections(productRepository.findByName(name));
         List<ProductResponseDTO> productList = products.stream()
                 .map(ProductResponseDTO::new)
                 .collect(Collectors.toList());
@@ -150,6 +228,7 @@ public class ProductService {
         }
 
         this.productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
 
         return null;
     }
@@ -172,10 +251,12 @@ public class ProductService {
                 data.inventoryCode());
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
 
         return new InventoryResponseDTO(savedInventory);
     }
 
+    @Transactional(readOnly = true)
     public Page<InventoryResponseDTO> getAllInventories(Pageable pageable) {
         Page<InventoryResponseDTO> productPage = inventoryRepository.findAll(pageable)
                 .map(InventoryResponseDTO::new);
@@ -183,6 +264,14 @@ public class ProductService {
         return productPage;
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<InventoryResponseDTO> scrollInventories(String cursor, String direction, Integer size) {
+        KeysetCursor keyset = KeysetCursor.of(cursor, "createdAt", direction, size, Set.of("createdAt"));
+        return keyset.toPage(inventoryRepository.findBy(keyset.position(), keyset.sort(), keyset.limit()),
+                InventoryResponseDTO::new);
+    }
+
+    @Transactional(readOnly = true)
     public List<InventoryResponseDTO> getInventoryById(String id) {
         List<Inventory> inventories = inventoryRepository.findAllByProductId(id);
 
@@ -220,6 +309,7 @@ public class ProductService {
         }
 
         inventoryRepository.deleteById(inventoryId);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
 
         return null;
     }
@@ -0,0 +1,457 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.movement.StockMovement;
+import com.apiestoque.crud.domain.movement.dto.StockMovementType;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.receivement.Receivement;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementImportErrorDTO;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementImportProgressDTO;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementRequestDTO;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementStatus;
+import com.apiestoque.crud.domain.supplier.Supplier;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.repositories.ReceivementRepository;
+import com.apiestoque.crud.repositories.SupplierRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de recebimentos em lotes dentro de uma única transação. O progresso fica no Redis
+ * ({@code import:receivements:<id>}) para ser consultado de qualquer nó enquanto a importação
+ * roda e por uma hora depois dela.
+ */
+@Service
+public class ReceivementImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ReceivementImportService.class);
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String PROGRESS_KEY_PREFIX = "import:receivements:";
+    private static final Duration PROGRESS_TTL = Duration.ofHours(1);
+
+    @Autowired
+    private ReceivementRepository receivementRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private StockMetrics stockMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * O status final só é gravado depois que a transação da importação termina: COMPLETED
+     * significa que os recebimentos e os saldos já estão no banco.
+     */
+    public ReceivementImportProgressDTO importReceivements(InputStream input, ImportFormat format, String importId) {
+        String id = importId != null && !importId.isBlank() ? importId : UUID.randomUUID().toString();
+        ImportProgress progress = new ImportProgress(id);
+
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(PROGRESS_KEY_PREFIX + id, toJson(progress), PROGRESS_TTL))) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Já existe uma importação com esse identificador.");
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> importAll(input, format, progress));
+        } catch (RuntimeException e) {
+            progress.status = "FAILED";
+            saveProgress(progress);
+            throw e;
+        }
+
+        progress.status = "COMPLETED";
+        saveProgress(progress);
+        logger.info("Importação de recebimentos {} concluída: {} linhas, {} importadas, {} com erro",
+                id, progress.lines, progress.imported, progress.failed);
+
+        return progress.toDTO();
+    }
+
+    public ReceivementImportProgressDTO getProgress(String importId) {
+        String progress = redisTemplate.opsForValue().get(PROGRESS_KEY_PREFIX + importId);
+
+        if (progress == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada.");
+        }
+
+        try {
+            return objectMapper.readValue(progress, ReceivementImportProgressDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Progresso de importação ilegível: " + importId, e);
+        }
+    }
+
+    private void importAll(InputStream input, ImportFormat format, ImportProgress progress) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            ImportContext context = new ImportContext();
+            Function<String, ReceivementRequestDTO> parser = format == ImportFormat.CSV
+                    ? csvParser(reader.readLine(), progress)
+                    : line -> parseJson(line);
+
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long lineNumber = ++progress.lines;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    chunk.add(new ImportRow(lineNumber, parser.apply(line)));
+                } catch (IllegalArgumentException e) {
+                    progress.fail(lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    processChunk(chunk, context, progress);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, context, progress);
+            }
+
+            // Os saldos são atualizados uma única vez por inventário e por produto, em ordem de id,
+            // no fim da importação e dentro da mesma transação dos recebimentos. Cada inventário
+            // publica um único StockChangedEvent com o total importado nele.
+            context.quantityByInventory.forEach((inventoryId, quantity) -> {
+                inventoryRepository.incrementStock(inventoryId, quantity);
+                stockMovementService.publishChange(inventoryId,
+                        context.inventories.get(inventoryId).getProduct().getId(), quantity);
+            });
+            context.quantityByProduct.forEach(productRepository::incrementStock);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falha ao ler o arquivo de importação.", e);
+        }
+    }
+
+    private void processChunk(List<ImportRow> chunk, ImportContext context, ImportProgress progress) {
+        context.resolve(chunk);
+
+        List<Receivement> receivements = new ArrayList<>(chunk.size());
+        List<String> inventoryIds = new ArrayList<>(chunk.size());
+
+        for (ImportRow row : chunk) {
+            ReceivementRequestDTO data = row.data();
+            String error = validate(data, context);
+
+            if (error != null) {
+                progress.fail(row.line(), error);
+                continue;
+            }
+
+            Inventory inventory = context.inventories.get(data.inventoryId());
+            Product product = inventory.getProduct();
+            BigDecimal totalPrice = product.getUnitPrice().multiply(BigDecimal.valueOf(data.quantity()));
+
+            receivements.add(new Receivement(
+                    product,
+                    context.suppliers.get(data.supplierId()),
+                    inventory.getInventoryCode(),
+                    data.description(),
+                    data.quantity(),
+                    totalPrice,
+                    data.receivingDate() != null ? data.receivingDate() : LocalDate.now(),
+                    data.status()));
+            inventoryIds.add(inventory.getId());
+
+            context.quantityByInventory.merge(inventory.getId(), data.quantity(), Integer::sum);
+            context.quantityByProduct.merge(product.getId(), data.quantity(), Integer::sum);
+        }
+
+        receivementRepository.saveAll(receivements);
+        rollupService.markReceivements(receivements);
+        stockMetrics.receivementsCreated(receivements.size());
+        entityManager.flush();
+
+        List<StockMovement> movements = new ArrayList<>(receivements.size());
+        for (int i = 0; i < receivements.size(); i++) {
+            Receivement receivement = receivements.get(i);
+            movements.add(new StockMovement(inventoryIds.get(i), receivement.getProduct().getId(),
+                    StockMovementType.RECEIVEMENT, receivement.getQuantity(), receivement.getId()));
+        }
+        stockMovementService.saveAll(movements);
+        entityManager.flush();
+
+        // Mantém a memória constante: os recebimentos gravados saem do contexto de persistência,
+        // apenas o cache de produtos, inventários e fornecedores sobrevive entre os lotes.
+        entityManager.clear();
+
+        progress.imported += receivements.size();
+        saveProgress(progress);
+        logger.debug("Importação {}: {} linhas processadas", progress.importId, progress.lines);
+    }
+
+    private void saveProgress(ImportProgress progress) {
+        try {
+            redisTemplate.opsForValue().set(PROGRESS_KEY_PREFIX + progress.importId, toJson(progress), PROGRESS_TTL);
+        } catch (DataAccessException e) {
+            // O progresso é só informativo: a importação segue mesmo sem conseguir publicá-lo.
+            logger.warn("Não foi possível gravar o progresso da importação {}: {}", progress.importId, e.getMessage());
+        }
+    }
+
+    private String toJson(ImportProgress progress) {
+        try {
+            return objectMapper.writeValueAsString(progress.toDTO());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o progresso da importação.", e);
+        }
+    }
+
+    private String validate(ReceivementRequestDTO data, ImportContext context) {
+        if (data.productId() == null || data.inventoryId() == null || data.supplierId() == null) {
+            return "Produto, inventário e fornecedor são obrigatórios.";
+        }
+
+        if (data.quantity() == null || data.quantity() <= 0) {
+            return "Quantidade deve ser maior que zero.";
+        }
+
+        if (data.status() == null) {
+            return "Status do recebimento é obrigatório.";
+        }
+
+        Inventory inventory = context.inventories.get(data.inventoryId());
+        if (inventory == null) {
+            return "Inventário não encontrado.";
+        }
+
+        if (!context.products.contains(data.productId())) {
+            return "Produto não encontrado.";
+        }
+
+        if (!inventory.getProduct().getId().equals(data.productId())) {
+            return "O inventário informado não pertence ao produto.";
+        }
+
+        if (!context.suppliers.containsKey(data.supplierId())) {
+            return "Fornecedor não encontrado.";
+        }
+
+        return null;
+    }
+
+    private ReceivementRequestDTO parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ReceivementRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private Function<String, ReceivementRequestDTO> csvParser(String headerLine, ImportProgress progress) {
+        if (headerLine == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O arquivo CSV está vazio.");
+        }
+        progress.lines++;
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitCsvLine(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        for (String required : List.of("productid", "supplierid", "inventoryid", "quantity")) {
+            if (!columns.containsKey(required)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coluna obrigatória ausente no CSV: " + required);
+            }
+        }
+
+        return line -> {
+            List<String> values = splitCsvLine(line);
+            Function<String, String> column = name -> {
+                Integer index = columns.get(name);
+                if (index == null || index >= values.size()) {
+                    return null;
+                }
+                String value = values.get(index).trim();
+                return value.isEmpty() ? null : value;
+            };
+
+            try {
+                String quantity = column.apply("quantity");
+                String receivingDate = column.apply("receivingdate");
+                String status = column.apply("status");
+
+                return new ReceivementRequestDTO(
+                        column.apply("productid"),
+                        column.apply("supplierid"),
+                        column.apply("description"),
+                        column.apply("inventoryid"),
+                        quantity != null ? Integer.valueOf(quantity) : null,
+                        receivingDate != null ? LocalDate.parse(receivingDate) : null,
+                        status != null ? ReceivementStatus.valueOf(status.toUpperCase(Locale.ROOT)) : null);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Linha CSV inválida: " + e.getMessage());
+            }
+        };
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        values.add(current.toString());
+        return values;
+    }
+
+    private record ImportRow(long line, ReceivementRequestDTO data) { }
+
+    private class ImportContext {
+        private final Map<String, Inventory> inventories = new HashMap<>();
+        private final Set<String> products = new HashSet<>();
+        private final Map<String, Supplier> suppliers = new HashMap<>();
+        private final Set<String> resolvedIds = new HashSet<>();
+        private final Map<String, Integer> quantityByInventory = new TreeMap<>();
+        private final Map<String, Integer> quantityByProduct = new TreeMap<>();
+
+        private void resolve(List<ImportRow> chunk) {
+            Set<String> inventoryIds = missing(chunk, ReceivementRequestDTO::inventoryId, "inventory:");
+            if (!inventoryIds.isEmpty()) {
+                inventoryRepository.findAllWithProductByIdIn(inventoryIds).forEach(inventory -> {
+                    inventories.put(inventory.getId(), inventory);
+                    products.add(inventory.getProduct().getId());
+                });
+            }
+
+            Set<String> productIds = missing(chunk, ReceivementRequestDTO::productId, "product:");
+            productIds.removeAll(products);
+            if (!productIds.isEmpty()) {
+                productRepository.findAllById(productIds).forEach(product -> products.add(product.getId()));
+            }
+
+            Set<String> supplierIds = missing(chunk, ReceivementRequestDTO::supplierId, "supplier:");
+            if (!supplierIds.isEmpty()) {
+                suppliers.putAll(supplierRepository.findAllById(supplierIds).stream()
+                        .collect(Collectors.toMap(Supplier::getId, Function.identity())));
+            }
+        }
+
+        private Set<String> missing(Collection<ImportRow> chunk, Function<ReceivementRequestDTO, String> id, String prefix) {
+            return chunk.stream()
+                    .map(row -> id.apply(row.data()))
+                    .filter(Objects::nonNull)
+                    .filter(value -> resolvedIds.add(prefix + value))
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    private static class ImportProgress {
+        private final String importId;
+        private final List<ReceivementImportErrorDTO> errors = new ArrayList<>();
+        private volatile String status = "RUNNING";
+        private volatile long lines;
+        private volatile long imported;
+        private volatile long failed;
+
+        private ImportProgress(String importId) {
+            this.importId = importId;
+        }
+
+        private void fail(long line, String message) {
+            failed++;
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ReceivementImportErrorDTO(line, message));
+                }
+            }
+        }
+
+        private ReceivementImportProgressDTO toDTO() {
+            synchronized (errors) {
+                return new ReceivementImportProgressDTO(importId, status, lines, imported, failed, List.copyOf(errors));
+            }
+        }
+    }
+}
@@ -11,6 +11,10 @@ import com.apiestoque.crud.repositories.InventoryRepository;
 import com.apiestoque.crud.repositories.ProductRepository;
 import com.apiestoque.crud.repositories.ReceivementRepository;
 import com.apiestoque.crud.repositories.SupplierRepository;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.infra.pagination.CursorPage;
+import com.apiestoque.crud.infra.pagination.KeysetCursor;
+import com.apiestoque.crud.infra.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,10 +22,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import java.math.BigDecimal;
-import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.Set;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ReceivementService {
+    private static final Set<String> SCROLL_FIELDS = Set.of("createdAt", "receivingDate");
 
     @Autowired
     private ReceivementRepository receivementRepository;
@@ -35,6 +42,16 @@ public class ReceivementService {
     @Autowired
     private SupplierRepository supplierRepository;
 
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private StockMetrics stockMetrics;
+
+    @RetryOnConflict
     @Transactional
     public ReceivementResponseDTO create(ReceivementRequestDTO data) {
         Product product = productRepository.findById(data.productId())
@@ -64,25 +81,35 @@ public class ReceivementService {
         );
 
         receivementRepository.save(receivement);
-        inventory.addReceivement(receivement);
-        inventoryRepository.save(inventory);
-
-        product.setStockQuantity(product.getStockQuantity() + data.quantity());
-        productRepository.save(product);
+        inventoryRepository.incrementStock(inventory.getId(), data.quantity());
+        productRepository.incrementStock(product.getId(), data.quantity());
+        stockMovementService.recordReceivement(inventory.getId(), product.getId(), data.quantity(), receivement.getId());
+        stockMetrics.receivementsCreated(1);
+        rollupService.markDirty(product.getId(), receivement.getReceivingDate());
 
         return new ReceivementResponseDTO(receivement);
     }
 
+    @Transactional(readOnly = true)
     public ReceivementResponseDTO getById(String id) {
         Receivement receivement = receivementRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recebimento não encontrado."));
         return new ReceivementResponseDTO(receivement);
     }
 
+    @Transactional(readOnly = true)
     public Page<ReceivementResponseDTO> getAll(Pageable pageable) {
         return receivementRepository.findAll(pageable).map(ReceivementResponseDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ReceivementResponseDTO> scroll(String cursor, String sort, String direction, Integer size) {
+        KeysetCursor keyset = KeysetCursor.of(cursor, sort, direction, size, SCROLL_FIELDS);
+        return keyset.toPage(receivementRepository.findBy(keyset.position(), keyset.sort(), keyset.limit()),
+                ReceivementResponseDTO::new);
+    }
+
+    @RetryOnConflict
     @Transactional
     public ReceivementResponseDTO update(String id, ReceivementRequestDTO data) {
         Receivement receivement = receivementRepository.findById(id)
@@ -96,6 +123,7 @@ public class ReceivementService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantidade deve ser maior que zero.");
         }
 
+        LocalDate previousDate = receivement.getReceivingDate();
         receivement.setStatus(data.status());
         receivement.setReceivingDate(data.receivingDate());
         
@@ -105,17 +133,19 @@ public class ReceivementService {
             Inventory inventory = inventoryRepository.findByInventoryCode(receivement.getInventoryCode())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventário não encontrado."));
 
-            Product product = inventory.getProduct();
+            String productId = inventory.getProduct().getId();
 
-            inventory.setQuantity(inventory.getQuantity() + quantityDifference);
-            inventory.setReceivementQuantity(inventory.getReceivementQuantity() + quantityDifference);
-            inventoryRepository.save(inventory);
-
-            product.setStockQuantity(product.getStockQuantity() + quantityDifference);
-            productRepository.save(product);
+            if (quantityDifference > 0) {
+                inventoryRepository.incrementStock(inventory.getId(), quantityDifference);
+                productRepository.incrementStock(productId, quantityDifference);
+            } else {
+                reverseStock(inventory.getId(), productId, -quantityDifference);
+            }
+            stockMovementService.recordReceivement(inventory.getId(), productId, quantityDifference, receivement.getId());
         }
 
         receivementRepository.save(receivement);
+        rollupService.markDirty(receivement.getProduct().getId(), previousDate, receivement.getReceivingDate());
         return new ReceivementResponseDTO(receivement);
     }
     
@@ -129,10 +159,12 @@ public class ReceivementService {
         }
 
         receivementRepository.updateReceivementStatus(receivement.getId(), status.name());
+        rollupService.markDirty(receivement.getProduct().getId(), receivement.getReceivingDate());
 
         return new ReceivementResponseDTO(receivement);
     }
 
+    @RetryOnConflict
     @Transactional
     public void delete(String id) {
         Receivement receivement = receivementRepository.findById(id)
@@ -141,16 +173,22 @@ public class ReceivementService {
         Inventory inventory = inventoryRepository.findByInventoryCode(receivement.getInventoryCode())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventário não encontrado."));
 
-        Product product = productRepository.findById(receivement.getProduct().getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado."));
-
-        inventory.getReceivements().remove(receivement);
-        inventory.setQuantity(inventory.getQuantity() - receivement.getQuantity());
-        inventory.setReceivementQuantity(inventory.getReceivementQuantity() - receivement.getQuantity());
-        product.setStockQuantity(product.getStockQuantity() - receivement.getQuantity());
+        String productId = receivement.getProduct().getId();
 
-        inventoryRepository.save(inventory);
-        productRepository.save(product);
+        reverseStock(inventory.getId(), productId, receivement.getQuantity());
+        stockMovementService.recordReceivement(inventory.getId(), productId, -receivement.getQuantity(), receivement.getId());
+        rollupService.markDirty(productId, receivement.getReceivingDate());
         receivementRepository.deleteById(id);
     }
+
+    private void reverseStock(String inventoryId, String productId, int quantity) {
+        if (inventoryRepository.decrementReceivedStock(inventoryId, quantity) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "O estoque recebido já foi consumido por saídas e não pode ser estornado.");
+        }
+
+        if (productRepository.decrementStock(productId, quantity) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado.");
+        }
+    }
 }
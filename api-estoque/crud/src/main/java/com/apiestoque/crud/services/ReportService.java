@@ -0,0 +1,83 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.report.dto.CategoryRollupSummaryDTO;
+import com.apiestoque.crud.domain.report.dto.DailyRollupDTO;
+import com.apiestoque.crud.domain.report.dto.ProductRollupSummaryDTO;
+import com.apiestoque.crud.repositories.CategoryDailyRollupRepository;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ProductDailyRollupRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Consultas de relatório servidas apenas pelas tabelas de rollup; nenhuma delas toca em saídas
+ * ou recebimentos, então o tempo de resposta depende do intervalo pedido e não do histórico.
+ */
+@Service
+public class ReportService {
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    @Autowired
+    private ProductDailyRollupRepository productDailyRollupRepository;
+
+    @Autowired
+    private CategoryDailyRollupRepository categoryDailyRollupRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    public Page<ProductRollupSummaryDTO> getProductSummary(LocalDate from, LocalDate to, String categoryId, Pageable pageable) {
+        LocalDate[] range = range(from, to);
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return productDailyRollupRepository.summarize(range[0], range[1], categoryId, unsorted);
+    }
+
+    public List<DailyRollupDTO> getProductDaily(String productId, LocalDate from, LocalDate to) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Produto não encontrado.");
+        }
+
+        LocalDate[] range = range(from, to);
+        return productDailyRollupRepository.findByProductIdAndDayBetweenOrderByDay(productId, range[0], range[1])
+                .stream().map(DailyRollupDTO::new).toList();
+    }
+
+    public List<CategoryRollupSummaryDTO> getCategorySummary(LocalDate from, LocalDate to) {
+        LocalDate[] range = range(from, to);
+        return categoryDailyRollupRepository.summarize(range[0], range[1]);
+    }
+
+    public List<DailyRollupDTO> getCategoryDaily(String categoryId, LocalDate from, LocalDate to) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoria não encontrada.");
+        }
+
+        LocalDate[] range = range(from, to);
+        return categoryDailyRollupRepository.findByCategoryIdAndDayBetweenOrderByDay(categoryId, range[0], range[1])
+                .stream().map(DailyRollupDTO::new).toList();
+    }
+
+    private static LocalDate[] range(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A data inicial deve ser anterior à data final.");
+        }
+
+        return new LocalDate[] { start, end };
+    }
+}
@@ -0,0 +1,138 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.exit.Exit;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.movement.StockMovement;
+import com.apiestoque.crud.domain.movement.dto.StockMovementType;
+import com.apiestoque.crud.domain.reservation.ConfirmedReservation;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.ExitRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ReservationWriteBehindService {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationWriteBehindService.class);
+
+    @Autowired
+    private ExitRepository exitRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private StockMetrics stockMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Grava um lote de reservas confirmadas como saídas e devolve os ids das reservas que o banco
+     * recusou por falta de saldo. As baixas são agregadas por inventário e por produto, então um lote
+     * de N confirmações do mesmo SKU custa um único UPDATE em cada tabela; se o agregado não cabe no
+     * inventário, ele é baixado reserva a reserva, na ordem da fila, e só as que não cabem são recusadas.
+     * Reservas já gravadas (reentrega após falha entre o commit e a confirmação no Redis) são
+     * ignoradas pelo reservation_id.
+     */
+    @Transactional
+    public Set<String> persist(List<ConfirmedReservation> batch) {
+        Map<String, ConfirmedReservation> byReservation = new LinkedHashMap<>();
+        batch.forEach(reservation -> byReservation.putIfAbsent(reservation.reservationId(), reservation));
+
+        exitRepository.findReservationIdsIn(byReservation.keySet()).forEach(byReservation::remove);
+        List<ConfirmedReservation> pending = new ArrayList<>(byReservation.values());
+
+        if (pending.isEmpty()) {
+            return Set.of();
+        }
+
+        Map<String, Inventory> inventories = inventoryRepository.findAllWithProductByIdIn(
+                pending.stream().map(ConfirmedReservation::inventoryId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Inventory::getId, Function.identity()));
+
+        // Baixas em ordem de id de inventário, a mesma das saídas em lote, para não haver deadlock entre elas.
+        Map<String, List<ConfirmedReservation>> byInventory = new TreeMap<>();
+        pending.forEach(reservation -> byInventory.computeIfAbsent(reservation.inventoryId(), id -> new ArrayList<>())
+                .add(reservation));
+
+        Set<String> rejected = new HashSet<>();
+        for (Map.Entry<String, List<ConfirmedReservation>> group : byInventory.entrySet()) {
+            String inventoryId = group.getKey();
+            int quantity = group.getValue().stream().mapToInt(ConfirmedReservation::quantity).sum();
+
+            if (!inventories.containsKey(inventoryId)) {
+                group.getValue().forEach(reservation -> rejected.add(reservation.reservationId()));
+            } else if (inventoryRepository.decrementStock(inventoryId, quantity) == 0) {
+                for (ConfirmedReservation reservation : group.getValue()) {
+                    if (inventoryRepository.decrementStock(inventoryId, reservation.quantity()) == 0) {
+                        rejected.add(reservation.reservationId());
+                    }
+                }
+            }
+        }
+
+        Map<String, Integer> quantityByProduct = new TreeMap<>();
+        List<Exit> exits = new ArrayList<>();
+        List<ConfirmedReservation> accepted = new ArrayList<>();
+
+        for (ConfirmedReservation reservation : pending) {
+            if (rejected.contains(reservation.reservationId())) {
+                logger.error("Reserva {} recusada na gravação: inventário {} sem saldo no banco; movida para a fila de descarte",
+                        reservation.reservationId(), reservation.inventoryId());
+                meterRegistry.counter("stock.reservation.writebehind.rejected").increment();
+                continue;
+            }
+
+            Inventory inventory = inventories.get(reservation.inventoryId());
+            quantityByProduct.merge(inventory.getProduct().getId(), reservation.quantity(), Integer::sum);
+
+            Exit exit = new Exit(inventory.getProduct(), reservation.quantity(), inventory.getInventoryCode(), reservation.status());
+            exit.setReservationId(reservation.reservationId());
+            exits.add(exit);
+            accepted.add(reservation);
+        }
+
+        quantityByProduct.forEach(productRepository::decrementStock);
+        exitRepository.saveAll(exits);
+        rollupService.markExits(exits);
+        stockMetrics.exitsCreated(exits.size());
+
+        List<StockMovement> movements = new ArrayList<>(exits.size());
+        for (int i = 0; i < exits.size(); i++) {
+            ConfirmedReservation reservation = accepted.get(i);
+            movements.add(new StockMovement(reservation.inventoryId(), exits.get(i).getProduct().getId(),
+                    StockMovementType.EXIT, -reservation.quantity(), exits.get(i).getId()));
+        }
+        stockMovementService.recordReserved(movements);
+
+        meterRegistry.counter("stock.reservation.writebehind.flushed").increment(exits.size());
+        return rejected;
+    }
+}
@@ -0,0 +1,224 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.exit.Exit;
+import com.apiestoque.crud.domain.receivement.Receivement;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantém as tabelas de rollup diário por produto e por categoria. Cada escrita em saídas ou
+ * recebimentos marca o par produto/dia afetado na mesma transação; o job recalcula apenas esses
+ * pares a partir das tabelas de origem, agregando saídas e recebimentos separadamente para não
+ * multiplicar linhas no join. O recálculo é idempotente, então marcações repetidas não distorcem
+ * os totais.
+ */
+@Service
+public class RollupService {
+    private static final Logger logger = LoggerFactory.getLogger(RollupService.class);
+
+    private static final String MARK_SQL = "INSERT INTO rollup_dirty_days (product_id, rollup_date) VALUES (?, ?)";
+
+    // O lote de cada saída é datado pelo primeiro recebimento com o mesmo código de inventário.
+    private static final String EXITS_SQL = """
+            SELECT COALESCE(SUM(x.quantity), 0) AS quantity_out,
+                   COALESCE(SUM(x.revenue), 0) AS revenue,
+                   COALESCE(SUM(DATEDIFF(DAY, x.received_on, x.exit_date)), 0) AS days_to_exit_total,
+                   COUNT(x.received_on) AS exits_with_receipt
+            FROM (
+                SELECT e.quantity, e.exit_date,
+                       e.quantity * (p.unit_price - COALESCE(i.discount, 0)) AS revenue,
+                       (SELECT MIN(r.receiving_date) FROM receivings r WHERE r.inventory_code = e.inventory_code) AS received_on
+                FROM exits e
+                JOIN products p ON p.id = e.product_id
+                LEFT JOIN inventory i ON i.inventory_code = e.inventory_code
+                WHERE e.product_id = ? AND e.exit_date = ?
+                  AND (e.exit_status IS NULL OR e.exit_status NOT IN ('CANCELED', 'RETURNED'))
+            ) x
+            """;
+
+    private static final String RECEIVEMENTS_SQL = """
+            SELECT COALESCE(SUM(r.quantity), 0) FROM receivings r
+            WHERE r.product_id = ? AND r.receiving_date = ?
+              AND (r.receiving_status IS NULL OR r.receiving_status NOT IN ('CANCELED', 'RETURNED'))
+            """;
+
+    private static final String INSERT_PRODUCT_SQL = """
+            INSERT INTO product_daily_rollups (product_id, rollup_date, category_id, quantity_in, quantity_out,
+                revenue, days_to_exit_total, exits_with_receipt)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_CATEGORY_SQL = """
+            INSERT INTO category_daily_rollups (category_id, rollup_date, quantity_in, quantity_out, revenue,
+                days_to_exit_total, exits_with_receipt)
+            SELECT category_id, rollup_date, SUM(quantity_in), SUM(quantity_out), SUM(revenue),
+                SUM(days_to_exit_total), SUM(exits_with_receipt)
+            FROM product_daily_rollups
+            WHERE category_id = ? AND rollup_date = ?
+            GROUP BY category_id, rollup_date
+            """;
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO rollup_dirty_days (product_id, rollup_date)
+            SELECT product_id, exit_date FROM exits WHERE exit_date IS NOT NULL
+            UNION
+            SELECT product_id, receiving_date FROM receivings
+            UNION
+            SELECT product_id, rollup_date FROM product_daily_rollups
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${reports.rollup.batch-size:500}")
+    private int batchSize;
+
+    public void markDirty(String productId, LocalDate... days) {
+        Set<LocalDate> distinct = new LinkedHashSet<>();
+        for (LocalDate day : days) {
+            if (day != null) {
+                distinct.add(day);
+            }
+        }
+        distinct.forEach(day -> jdbcTemplate.update(MARK_SQL, productId, day));
+    }
+
+    public void markExits(Collection<Exit> exits) {
+        Set<ProductDay> keys = new LinkedHashSet<>();
+        exits.forEach(exit -> keys.add(new ProductDay(exit.getProduct().getId(), exit.getExitDate())));
+        mark(keys);
+    }
+
+    public void markReceivements(Collection<Receivement> receivements) {
+        Set<ProductDay> keys = new LinkedHashSet<>();
+        receivements.forEach(receivement ->
+                keys.add(new ProductDay(receivement.getProduct().getId(), receivement.getReceivingDate())));
+        mark(keys);
+    }
+
+    private void mark(Set<ProductDay> keys) {
+        List<ProductDay> pending = keys.stream().filter(key -> key.day() != null).toList();
+        jdbcTemplate.batchUpdate(MARK_SQL, pending, pending.size(), (statement, key) -> {
+            statement.setString(1, key.productId());
+            statement.setObject(2, key.day());
+        });
+    }
+
+    /**
+     * Marca todo o histórico para recálculo; o job processa a fila aos poucos.
+     */
+    public int rebuild() {
+        return transactionTemplate.execute(status -> jdbcTemplate.update(REBUILD_SQL));
+    }
+
+    @Scheduled(fixedDelayString = "${reports.rollup.interval-ms:5000}")
+    public void refresh() {
+        try {
+            Integer processed;
+            do {
+                processed = transactionTemplate.execute(status -> refreshBatch());
+            } while (processed != null && processed == batchSize);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao atualizar os rollups de relatório: {}", e.getMessage());
+        }
+    }
+
+    private int refreshBatch() {
+        List<Long> ids = new ArrayList<>();
+        Set<ProductDay> products = new LinkedHashSet<>();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, product_id, rollup_date FROM rollup_dirty_days ORDER BY id");
+            statement.setMaxRows(batchSize);
+            return statement;
+        }, resultSet -> {
+            ids.add(resultSet.getLong(1));
+            products.add(new ProductDay(resultSet.getString(2), resultSet.getObject(3, LocalDate.class)));
+        });
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Set<CategoryDay> categories = new LinkedHashSet<>();
+        products.forEach(key -> recomputeProduct(key, categories));
+        categories.forEach(this::recomputeCategory);
+
+        jdbcTemplate.batchUpdate("DELETE FROM rollup_dirty_days WHERE id = ?", ids, ids.size(),
+                (statement, id) -> statement.setLong(1, id));
+
+        meterRegistry.counter("reports.rollup.recomputed").increment(products.size());
+        return ids.size();
+    }
+
+    private void recomputeProduct(ProductDay key, Set<CategoryDay> categories) {
+        jdbcTemplate.queryForList("SELECT category_id FROM product_daily_rollups WHERE product_id = ? AND rollup_date = ?",
+                String.class, key.productId(), key.day())
+                .forEach(previous -> categories.add(new CategoryDay(previous, key.day())));
+        jdbcTemplate.update("DELETE FROM product_daily_rollups WHERE product_id = ? AND rollup_date = ?",
+                key.productId(), key.day());
+
+        List<String> category = jdbcTemplate.queryForList("SELECT category_id FROM products WHERE id = ?",
+                String.class, key.productId());
+        if (category.isEmpty()) {
+            return;
+        }
+
+        ExitTotals exits = jdbcTemplate.queryForObject(EXITS_SQL, (resultSet, row) -> new ExitTotals(
+                resultSet.getLong("quantity_out"),
+                resultSet.getBigDecimal("revenue").setScale(2, RoundingMode.HALF_UP),
+                resultSet.getLong("days_to_exit_total"),
+                resultSet.getLong("exits_with_receipt")), key.productId(), key.day());
+        long quantityIn = jdbcTemplate.queryForObject(RECEIVEMENTS_SQL, Long.class, key.productId(), key.day());
+
+        if (quantityIn == 0 && exits.quantity() == 0) {
+            return;
+        }
+
+        jdbcTemplate.update(INSERT_PRODUCT_SQL, key.productId(), key.day(), category.get(0), quantityIn,
+                exits.quantity(), exits.revenue(), exits.daysToExitTotal(), exits.withReceipt());
+        categories.add(new CategoryDay(category.get(0), key.day()));
+    }
+
+    private void recomputeCategory(CategoryDay key) {
+        jdbcTemplate.update("DELETE FROM category_daily_rollups WHERE category_id = ? AND rollup_date = ?",
+                key.categoryId(), key.day());
+        jdbcTemplate.update(INSERT_CATEGORY_SQL, key.categoryId(), key.day());
+    }
+
+    private record ProductDay(String productId, LocalDate day) {
+    }
+
+    private record CategoryDay(String categoryId, LocalDate day) {
+    }
+
+    private record ExitTotals(long quantity, BigDecimal revenue, long daysToExitTotal, long withReceipt) {
+    }
+}
@@ -0,0 +1,318 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.movement.StockChangedEvent;
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
+import com.apiestoque.crud.domain.user.dto.UserRole;
+import com.apiestoque.crud.domain.user.dto.UserStatus;
+import com.apiestoque.crud.infra.alert.ProductAlertSnapshot;
+import com.apiestoque.crud.infra.alert.StockAlert;
+import com.apiestoque.crud.infra.alert.StockAlertIndex;
+import com.apiestoque.crud.infra.alert.StockAlertType;
+import com.apiestoque.crud.repositories.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Motor de alertas de vencimento e estoque mínimo. O índice é montado uma vez na inicialização
+ * com uma única consulta em streaming e depois mantido pelos eventos de produto e de movimentação.
+ * Movimentações aplicam o delta em memória, sem ir ao banco; só a edição de um produto (mínimo,
+ * validade) relê o registro. Os dois são repassados pelo canal {@link #CHANGED_CHANNEL} às outras
+ * instâncias, que não recebem os eventos: {@code <nó>:<produto>:<delta>} para movimentações e
+ * {@code <nó>:<produto>} para edições. Os alertas são acumulados e enviados em um resumo por
+ * destinatário; o Redis guarda o que já foi enviado para que reinícios e outras instâncias não
+ * repitam o aviso.
+ */
+@Service
+public class StockAlertService {
+    private static final Logger logger = LoggerFactory.getLogger(StockAlertService.class);
+    public static final String CHANGED_CHANNEL = "alerts:changed";
+
+    private static final String SENT_KEY_PREFIX = "alerts:sent:";
+
+    private static final String SNAPSHOT_SQL =
+            "SELECT id, name, product_code, stock_quantity, minimum_stock, expiration_date FROM products";
+
+    private static final RowMapper<ProductAlertSnapshot> SNAPSHOT_MAPPER = (resultSet, row) -> new ProductAlertSnapshot(
+            resultSet.getString("id"),
+            resultSet.getString("name"),
+            resultSet.getString("product_code"),
+            resultSet.getInt("stock_quantity"),
+            resultSet.getObject("minimum_stock", Integer.class),
+            resultSet.getObject("expiration_date", LocalDate.class));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${alerts.expiration.lead-days:7}")
+    private int leadDays;
+
+    @Value("${alerts.recipients:}")
+    private List<String> configuredRecipients;
+
+    @Value("${alerts.dedup-ttl:24h}")
+    private Duration dedupTtl;
+
+    @Value("${alerts.rebuild-fetch-size:1000}")
+    private int fetchSize;
+
+    private volatile StockAlertIndex index;
+
+    // Identifica as mensagens publicadas por esta instância, que já aplicou a alteração no próprio evento.
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, StockAlert> pending = new LinkedHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void registerMetrics() {
+        index = new StockAlertIndex(leadDays);
+        Gauge.builder("alerts.index.size", () -> index.size()).register(meterRegistry);
+        Gauge.builder("alerts.expirations.pending", () -> index.pendingExpirations()).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (DataAccessException e) {
+                logger.warn("Não foi possível montar o índice de alertas na inicialização: {}", e.getMessage());
+            }
+        });
+    }
+
+    public int rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return index.size();
+        }
+
+        try {
+            changedDuringRebuild.clear();
+            StockAlertIndex rebuilt = new StockAlertIndex(leadDays);
+            List<StockAlert> alerts = new ArrayList<>();
+
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(SNAPSHOT_SQL);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, resultSet -> {
+                StockAlert alert = rebuilt.upsert(SNAPSHOT_MAPPER.mapRow(resultSet, 0));
+                if (alert != null) {
+                    alerts.add(alert);
+                }
+            });
+
+            index = rebuilt;
+            changedDuringRebuild.forEach(this::refreshProduct);
+            alerts.forEach(this::enqueue);
+
+            logger.info("Índice de alertas montado com {} produtos", rebuilt.size());
+            return rebuilt.size();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // Uma mensagem perdida no Pub/Sub deixaria o saldo de uma instância defasado até a próxima
+    // edição do produto; a remontagem periódica limita essa divergência.
+    @Scheduled(fixedDelayString = "${alerts.rebuild-interval-ms:21600000}",
+            initialDelayString = "${alerts.rebuild-interval-ms:21600000}")
+    public void rebuildPeriodically() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível remontar o índice de alertas: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(event.productId());
+        publish(event.productId(), event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        applyDelta(event.productId(), event.delta());
+        publish(event.productId(), event.productId() + ":" + event.delta());
+    }
+
+    /**
+     * Recebe do canal {@link #CHANGED_CHANNEL} uma movimentação ou edição de produto feita em
+     * qualquer instância.
+     */
+    public void onRemoteChange(String message) {
+        String[] parts = message.split(":");
+        if (parts.length < 2 || parts.length > 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+
+        String productId = parts[1];
+        try {
+            if (parts.length == 3) {
+                applyDelta(productId, Integer.parseInt(parts[2]));
+            } else {
+                refresh(productId);
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Mensagem de alerta inválida ignorada: {}", message);
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível atualizar o alerta do produto {}: {}", productId, e.getMessage());
+        }
+    }
+
+    private void publish(String productId, String change) {
+        try {
+            redisTemplate.convertAndSend(CHANGED_CHANNEL, nodeId + ":" + change);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao propagar alteração do produto {} aos outros nós: {}", productId, e.getMessage());
+        }
+    }
+
+    private void applyDelta(String productId, int delta) {
+        if (rebuilding.get()) {
+            // O índice em montagem pode ter lido o saldo antes ou depois deste delta: o produto é
+            // relido do banco depois da troca.
+            changedDuringRebuild.add(productId);
+        }
+        enqueue(index.applyDelta(productId, delta));
+    }
+
+    private void refresh(String productId) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(productId);
+        }
+        refreshProduct(productId);
+    }
+
+    private void refreshProduct(String productId) {
+        List<ProductAlertSnapshot> snapshot = jdbcTemplate.query(SNAPSHOT_SQL + " WHERE id = ?", SNAPSHOT_MAPPER, productId);
+
+        if (snapshot.isEmpty()) {
+            index.remove(productId);
+        } else {
+            enqueue(index.upsert(snapshot.get(0)));
+        }
+    }
+
+    private void enqueue(StockAlert alert) {
+        if (alert == null) {
+            return;
+        }
+
+        synchronized (pending) {
+            pending.put(alert.key(), alert);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.dispatch-interval-ms:60000}")
+    public void dispatch() {
+        index.pollDueExpirations(LocalDate.now()).forEach(this::enqueue);
+
+        List<StockAlert> alerts;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            alerts = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        Set<String> recipients = recipients();
+        if (recipients.isEmpty()) {
+            logger.warn("{} alertas de estoque descartados: nenhum destinatário configurado", alerts.size());
+            return;
+        }
+
+        List<StockAlert> fresh = alerts.stream().filter(this::markSent)
+                .sorted(Comparator.comparing(StockAlert::type).thenComparing(StockAlert::productName))
+                .toList();
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        String subject = "Alertas de estoque (" + fresh.size() + ")";
+        StringBuilder body = new StringBuilder("Os seguintes produtos precisam de atenção:\n\n");
+        fresh.forEach(alert -> body.append("- [").append(alert.type().getDescription()).append("] ")
+                .append(alert.describe()).append('\n'));
+
+        for (String recipient : recipients) {
+            emailService.sendEmail(recipient, subject, body.toString());
+        }
+
+        fresh.forEach(alert -> meterRegistry.counter("alerts.fired", "type", alert.type().name()).increment());
+    }
+
+    private boolean markSent(StockAlert alert) {
+        Duration ttl = dedupTtl;
+        if (alert.type() == StockAlertType.EXPIRATION) {
+            // O aviso de vencimento vale até a data de validade passar.
+            Duration untilExpiration = Duration.ofDays(ChronoUnit.DAYS.between(LocalDate.now(), alert.expirationDate()) + 1);
+            ttl = untilExpiration.compareTo(ttl) > 0 ? untilExpiration : ttl;
+        }
+
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(SENT_KEY_PREFIX + alert.key(), "1", ttl));
+        } catch (DataAccessException e) {
+            logger.warn("Redis indisponível para deduplicar alertas, enviando mesmo assim: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private Set<String> recipients() {
+        Set<String> recipients = new LinkedHashSet<>();
+        configuredRecipients.stream().map(String::trim).filter(email -> !email.isEmpty()).forEach(recipients::add);
+        recipients.addAll(userRepository.findEmailsByRoleAndStatus(UserRole.ADMIN, UserStatus.ACTIVE));
+        return recipients;
+    }
+}
@@ -0,0 +1,116 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.movement.StockChangedEvent;
+import com.apiestoque.crud.domain.movement.StockMovement;
+import com.apiestoque.crud.domain.movement.dto.StockMovementResponseDTO;
+import com.apiestoque.crud.domain.movement.dto.StockMovementType;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.StockMovementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class StockMovementService {
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public StockMovement recordReceivement(String inventoryId, String productId, int quantity, String receivementId) {
+        return record(new StockMovement(inventoryId, productId, StockMovementType.RECEIVEMENT, quantity, receivementId), false);
+    }
+
+    public StockMovement recordExit(String inventoryId, String productId, int quantity, String exitId) {
+        return recordExit(inventoryId, productId, quantity, exitId, false);
+    }
+
+    /**
+     * {@code reserved} indica que a baixa já foi descontada do saldo de reservas no Redis.
+     */
+    public StockMovement recordExit(String inventoryId, String productId, int quantity, String exitId, boolean reserved) {
+        return record(new StockMovement(inventoryId, productId, StockMovementType.EXIT, -quantity, exitId), reserved);
+    }
+
+    public void recordAll(Collection<StockMovement> movements) {
+        stockMovementRepository.saveAll(movements);
+        publishMerged(movements, false);
+    }
+
+    public void recordReserved(Collection<StockMovement> movements) {
+        stockMovementRepository.saveAll(movements);
+        publishMerged(movements, true);
+    }
+
+    /**
+     * Grava os movimentos sem publicar {@link StockChangedEvent}. Para gravações em vários lotes da
+     * mesma transação, como a importação, que publica o total de cada inventário uma única vez
+     * com {@link #publishChange}.
+     */
+    public void saveAll(Collection<StockMovement> movements) {
+        stockMovementRepository.saveAll(movements);
+    }
+
+    public void publishChange(String inventoryId, String productId, int delta) {
+        eventPublisher.publishEvent(new StockChangedEvent(inventoryId, productId, delta, false));
+    }
+
+    private void publishMerged(Collection<StockMovement> movements, boolean reserved) {
+        Map<String, StockChangedEvent> events = new LinkedHashMap<>();
+        for (StockMovement movement : movements) {
+            events.merge(movement.getInventoryId(), new StockChangedEvent(movement, reserved),
+                    (merged, next) -> new StockChangedEvent(merged.inventoryId(), merged.productId(),
+                            merged.delta() + next.delta(), reserved));
+        }
+        events.values().forEach(eventPublisher::publishEvent);
+    }
+
+    private StockMovement record(StockMovement movement, boolean reserved) {
+        stockMovementRepository.save(movement);
+        eventPublisher.publishEvent(new StockChangedEvent(movement, reserved));
+        return movement;
+    }
+
+    public Page<StockMovementResponseDTO> getByInventory(String inventoryId, StockMovementType type,
+                                                        LocalDate from, LocalDate to, Pageable pageable) {
+        if (!inventoryRepository.existsById(inventoryId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Inventário não encontrado.");
+        }
+
+        LocalDateTime start = from != null ? from.atStartOfDay() : MIN_DATE;
+        LocalDateTime end = to != null ? to.atTime(LocalTime.MAX) : MAX_DATE;
+
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A data inicial deve ser anterior à data final.");
+        }
+
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
+        }
+
+        Page<StockMovement> page = type == null
+                ? stockMovementRepository.findByInventoryIdAndCreatedAtBetween(inventoryId, start, end, pageable)
+                : stockMovementRepository.findByInventoryIdAndTypeAndCreatedAtBetween(inventoryId, type, start, end, pageable);
+
+        return page.map(StockMovementResponseDTO::new);
+    }
+}
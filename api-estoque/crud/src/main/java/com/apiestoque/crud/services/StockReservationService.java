@@ -0,0 +1,765 @@
+package com.apiestoque.crud.services;
+
+import com.apiestoque.crud.domain.exit.dto.ExitStatus;
+import com.apiestoque.crud.domain.movement.StockChangedEvent;
+import com.apiestoque.crud.domain.reservation.ConfirmedReservation;
+import com.apiestoque.crud.domain.reservation.dto.ReservationRequestDTO;
+import com.apiestoque.crud.domain.reservation.dto.ReservationResponseDTO;
+import com.apiestoque.crud.domain.reservation.dto.ReservationStatusDTO;
+import com.apiestoque.crud.domain.reservation.dto.StockAvailabilityDTO;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reservas de estoque em Redis para SKUs concorridos. O saldo de cada inventário fica em um
+ * hash {@code stock:inv:<id>} (available, held, pending) e toda operação é um script Lua,
+ * portanto atômica sem travar linhas no SQL Server. Confirmações entram na fila
+ * {@code stock:confirmed} e são gravadas como saídas em lotes pelo {@link ReservationWriteBehindService}.
+ * <p>
+ * Toda baixa no banco de um inventário com saldo no Redis (lote write-behind ou saída direta pela
+ * API) marca o hash {@code stock:sync:<id>} enquanto está em andamento: {@code writers} conta as
+ * escritas abertas e {@code epoch} avança no início e no fim de cada uma. Uma recarga do saldo a
+ * partir do banco só é aplicada se não havia escrita aberta e a época não mudou desde antes da
+ * leitura, em qualquer nó; caso contrário ela é repetida.
+ */
+@Service
+public class StockReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private static final String COUNTER_PREFIX = "stock:inv:";
+    private static final String HOLD_PREFIX = "stock:hold:";
+    private static final String SYNC_PREFIX = "stock:sync:";
+    private static final String EXPIRY_KEY = "stock:holds:expiry";
+    private static final String QUEUE_KEY = "stock:confirmed";
+    private static final String DEAD_LETTER_KEY = "stock:confirmed:dead";
+    private static final String FLUSH_LOCK_KEY = "stock:writebehind:lock";
+    private static final String RECONCILE_LOCK_KEY = "stock:reconcile:lock";
+
+    private static final long NEEDS_LOAD = -2;
+    private static final long WRONG_PRODUCT = -3;
+    private static final long INSUFFICIENT = -1;
+
+    private static final int LOAD_ATTEMPTS = 5;
+    private static final long LOAD_BACKOFF_MS = 20;
+
+    public enum DirectDebit {
+        /** Baixado também no Redis; o ajuste do saldo já foi feito e o movimento é gravado como reservado. */
+        COUNTED,
+        /** Redis indisponível ou saldo em recarga por outro nó: só o UPDATE condicional do banco protege o estoque. */
+        UNCOUNTED,
+        /** O saldo livre (fora reservas e confirmações pendentes) não cobre a saída. */
+        INSUFFICIENT
+    }
+
+    private static final String BEGIN_WRITE = """
+            local function beginWrite(sync, ttl)
+                redis.call('HINCRBY', sync, 'writers', 1)
+                redis.call('HINCRBY', sync, 'epoch', 1)
+                redis.call('PEXPIRE', sync, ttl)
+            end
+            """;
+
+    private static final String END_WRITE = """
+            local function endWrite(sync, ttl)
+                if redis.call('EXISTS', sync) == 0 then return end
+                if redis.call('HINCRBY', sync, 'writers', -1) < 0 then redis.call('HSET', sync, 'writers', 0) end
+                redis.call('HINCRBY', sync, 'epoch', 1)
+                redis.call('PEXPIRE', sync, ttl)
+            end
+            """;
+
+    private static final RedisScript<Long> HOLD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end
+            if redis.call('HGET', KEYS[1], 'productId') ~= ARGV[5] then return -3 end
+            local quantity = tonumber(ARGV[1])
+            local available = tonumber(redis.call('HGET', KEYS[1], 'available'))
+            if available < quantity then return -1 end
+            redis.call('HINCRBY', KEYS[1], 'available', -quantity)
+            redis.call('HINCRBY', KEYS[1], 'held', quantity)
+            redis.call('HSET', KEYS[2], 'inventoryId', ARGV[6], 'productId', ARGV[5], 'quantity', quantity)
+            redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            redis.call('ZADD', KEYS[3], ARGV[3], ARGV[4])
+            return available - quantity
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            local inventoryId = redis.call('HGET', KEYS[1], 'inventoryId')
+            local quantity = tonumber(redis.call('HGET', KEYS[1], 'quantity'))
+            local counter = ARGV[2] .. inventoryId
+            if redis.call('EXISTS', counter) == 1 then
+                redis.call('HINCRBY', counter, 'available', quantity)
+                redis.call('HINCRBY', counter, 'held', -quantity)
+            end
+            redis.call('DEL', KEYS[1])
+            return quantity
+            """, Long.class);
+
+    private static final RedisScript<Long> CONFIRM_SCRIPT = new DefaultRedisScript<>("""
+            local expiresAt = redis.call('ZSCORE', KEYS[2], ARGV[1])
+            if not expiresAt or redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            if tonumber(expiresAt) < tonumber(ARGV[2]) then return -2 end
+            local inventoryId = redis.call('HGET', KEYS[1], 'inventoryId')
+            local productId = redis.call('HGET', KEYS[1], 'productId')
+            local quantity = tonumber(redis.call('HGET', KEYS[1], 'quantity'))
+            local counter = ARGV[3] .. inventoryId
+            if redis.call('EXISTS', counter) == 1 then
+                redis.call('HINCRBY', counter, 'held', -quantity)
+                redis.call('HINCRBY', counter, 'pending', quantity)
+            end
+            local status = cjson.null
+            if ARGV[4] ~= '' then status = ARGV[4] end
+            redis.call('RPUSH', KEYS[3], cjson.encode({ reservationId = ARGV[1], inventoryId = inventoryId,
+                productId = productId, quantity = quantity, status = status }))
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            return quantity
+            """, Long.class);
+
+    // O saldo é recalculado a partir do banco descontando as reservas ativas e as confirmações
+    // ainda não gravadas, por isso a reconstrução é segura mesmo com reservas em andamento. A
+    // leitura do banco é descartada (retorno 0) se uma escrita estava aberta ou terminou depois
+    // da época lida em ARGV[7].
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if ARGV[5] == 'init' and redis.call('EXISTS', KEYS[1]) == 1 then return 1 end
+            local writers = tonumber(redis.call('HGET', KEYS[4], 'writers') or '0')
+            local epoch = redis.call('HGET', KEYS[4], 'epoch') or '0'
+            if writers > 0 or epoch ~= ARGV[7] then return 0 end
+            local held = 0
+            for _, id in ipairs(redis.call('ZRANGE', KEYS[2], 0, -1)) do
+                local hold = ARGV[4] .. id
+                if redis.call('HGET', hold, 'inventoryId') == ARGV[1] then
+                    held = held + tonumber(redis.call('HGET', hold, 'quantity'))
+                end
+            end
+            local pending = 0
+            for _, item in ipairs(redis.call('LRANGE', KEYS[3], 0, -1)) do
+                local ok, entry = pcall(cjson.decode, item)
+                if ok and type(entry) == 'table' and entry.inventoryId == ARGV[1] then
+                    pending = pending + (tonumber(entry.quantity) or 0)
+                end
+            end
+            local available = tonumber(ARGV[3]) - held - pending
+            redis.call('HSET', KEYS[1], 'productId', ARGV[2], 'available', available, 'held', held, 'pending', pending)
+            redis.call('PEXPIRE', KEYS[1], ARGV[6])
+            return 1
+            """, Long.class);
+
+    // Ajustes vindos de commits fora do Redis (recebimentos, estornos) avançam a época: uma recarga
+    // que leu o banco antes do commit é repetida em vez de gravar um saldo sem o ajuste. Ajustes e
+    // baixas renovam o TTL do contador (ARGV[3]), para que um SKU movimentado não seja recarregado
+    // do banco a cada reservation.counter-ttl.
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HINCRBY', KEYS[2], 'epoch', 1)
+            redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return redis.call('HINCRBY', KEYS[1], 'available', ARGV[1])
+            """, Long.class);
+
+    private static final RedisScript<Long> DEBIT_SCRIPT = new DefaultRedisScript<>(BEGIN_WRITE + """
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -2 end
+            local quantity = tonumber(ARGV[1])
+            local available = tonumber(redis.call('HGET', KEYS[1], 'available'))
+            if available < quantity then return -1 end
+            redis.call('HINCRBY', KEYS[1], 'available', -quantity)
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            beginWrite(KEYS[2], ARGV[2])
+            return available - quantity
+            """, Long.class);
+
+    private static final RedisScript<Long> SETTLE_SCRIPT = new DefaultRedisScript<>(END_WRITE + """
+            if tonumber(ARGV[1]) > 0 and redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('HINCRBY', KEYS[1], 'available', ARGV[1])
+            end
+            endWrite(KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> BEGIN_SCRIPT = new DefaultRedisScript<>(BEGIN_WRITE + """
+            for _, sync in ipairs(KEYS) do beginWrite(sync, ARGV[1]) end
+            return #KEYS
+            """, Long.class);
+
+    private static final RedisScript<Long> END_SCRIPT = new DefaultRedisScript<>(END_WRITE + """
+            for _, sync in ipairs(KEYS) do endWrite(sync, ARGV[1]) end
+            return #KEYS
+            """, Long.class);
+
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    // Só remove o lote da fila se este nó ainda detém a trava; itens nas posições de ARGV[5..]
+    // (ilegíveis ou recusados pelo banco) vão para a fila de descarte em vez de sumirem.
+    private static final RedisScript<Long> ACK_SCRIPT = new DefaultRedisScript<>(END_WRITE + """
+            if redis.call('GET', KEYS[2]) ~= ARGV[3] then return -1 end
+            local dead = {}
+            for i = 5, #ARGV do dead[tonumber(ARGV[i])] = true end
+            local items = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+            for position, item in ipairs(items) do
+                local ok, entry = pcall(cjson.decode, item)
+                if ok and type(entry) == 'table' and type(entry.inventoryId) == 'string' and tonumber(entry.quantity) then
+                    local counter = ARGV[2] .. entry.inventoryId
+                    if redis.call('EXISTS', counter) == 1 then
+                        if redis.call('HINCRBY', counter, 'pending', -tonumber(entry.quantity)) < 0 then
+                            redis.call('HSET', counter, 'pending', 0)
+                        end
+                    end
+                end
+                if dead[position] then redis.call('RPUSH', KEYS[3], item) end
+            end
+            redis.call('LTRIM', KEYS[1], #items, -1)
+            for i = 4, #KEYS do endWrite(KEYS[i], ARGV[4]) end
+            return #items
+            """, Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ReservationWriteBehindService writeBehindService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${reservation.hold-ttl:5m}")
+    private Duration holdTtl;
+
+    @Value("${reservation.max-hold-ttl:30m}")
+    private Duration maxHoldTtl;
+
+    @Value("${reservation.counter-ttl:10m}")
+    private Duration counterTtl;
+
+    @Value("${reservation.flush-batch-size:200}")
+    private int flushBatchSize;
+
+    // Validade da trava do write-behind e das marcas de escrita: se um nó cair no meio de um lote
+    // ou de uma saída, os outros voltam a gravar e a recarregar saldos depois desse prazo.
+    @Value("${reservation.write-timeout:30s}")
+    private Duration writeTimeout;
+
+    @Value("${reservation.reconcile-interval-ms:600000}")
+    private long reconcileIntervalMs;
+
+    public ReservationResponseDTO hold(ReservationRequestDTO data) {
+        String reservationId = UUID.randomUUID().toString();
+        Duration ttl = data.ttlSeconds() != null ? Duration.ofSeconds(data.ttlSeconds()) : holdTtl;
+        if (ttl.compareTo(maxHoldTtl) > 0) {
+            ttl = maxHoldTtl;
+        }
+        Instant expiresAt = Instant.now().plus(ttl);
+
+        List<String> keys = List.of(COUNTER_PREFIX + data.inventoryId(), HOLD_PREFIX + reservationId, EXPIRY_KEY);
+        Object[] args = {
+            String.valueOf(data.quantity()),
+            String.valueOf(ttl.plus(maxHoldTtl).toMillis()),
+            String.valueOf(expiresAt.toEpochMilli()),
+            reservationId,
+            data.productId(),
+            data.inventoryId()
+        };
+
+        Long result = redisTemplate.execute(HOLD_SCRIPT, keys, args);
+        if (result != null && result == NEEDS_LOAD && loadCounter(data.inventoryId(), "init")) {
+            result = redisTemplate.execute(HOLD_SCRIPT, keys, args);
+        }
+
+        if (result == null || result == NEEDS_LOAD) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Não foi possível reservar o estoque.");
+        }
+
+        if (result == WRONG_PRODUCT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O inventário informado não pertence ao produto!");
+        }
+
+        if (result == INSUFFICIENT) {
+            meterRegistry.counter("stock.reservation.holds", "outcome", "insufficient").increment();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Estoque insuficiente no inventário!");
+        }
+
+        meterRegistry.counter("stock.reservation.holds", "outcome", "accepted").increment();
+        return new ReservationResponseDTO(reservationId, data.inventoryId(), data.productId(), data.quantity(), expiresAt, result);
+    }
+
+    public ReservationStatusDTO confirm(String reservationId, ExitStatus status) {
+        Long result = redisTemplate.execute(CONFIRM_SCRIPT,
+                List.of(HOLD_PREFIX + reservationId, EXPIRY_KEY, QUEUE_KEY),
+                reservationId,
+                String.valueOf(System.currentTimeMillis()),
+                COUNTER_PREFIX,
+                status != null ? status.name() : "");
+
+        if (result == null || result == -1) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva não encontrada ou já finalizada.");
+        }
+
+        if (result == -2) {
+            release(reservationId);
+            meterRegistry.counter("stock.reservation.expired").increment();
+            throw new ResponseStatusException(HttpStatus.GONE, "Reserva expirada.");
+        }
+
+        meterRegistry.counter("stock.reservation.confirmed").increment();
+        return new ReservationStatusDTO(reservationId, "CONFIRMED", result.intValue());
+    }
+
+    public ReservationStatusDTO cancel(String reservationId) {
+        Long released = release(reservationId);
+
+        if (released == null || released == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva não encontrada ou já finalizada.");
+        }
+
+        return new ReservationStatusDTO(reservationId, "RELEASED", released.intValue());
+    }
+
+    public StockAvailabilityDTO getAvailability(String inventoryId) {
+        String key = COUNTER_PREFIX + inventoryId;
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key)) && !loadCounter(inventoryId, "init")) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Saldo do inventário indisponível no momento.");
+        }
+
+        List<Object> values = redisTemplate.opsForHash().multiGet(key, List.of("available", "held", "pending"));
+        return new StockAvailabilityDTO(inventoryId, toLong(values.get(0)), toLong(values.get(1)), toLong(values.get(2)));
+    }
+
+    /**
+     * Baixa do saldo no Redis uma saída feita fora das reservas (avulsa, em lote ou o aumento de uma
+     * saída), para que ela não consuma estoque já reservado ou confirmado e ainda não gravado. Deve
+     * ser chamada dentro da transação que faz o UPDATE no banco: até o fim dela o inventário fica
+     * marcado como em escrita e, num rollback, a quantidade volta ao saldo.
+     * <p>
+     * Se o contador não está no Redis e não pode ser carregado na hora (outro nó escrevendo), a
+     * saída não espera: segue como {@link DirectDebit#UNCOUNTED} e o UPDATE condicional decide.
+     */
+    public DirectDebit debitDirectExit(String inventoryId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A baixa no saldo reservado exige uma transação ativa.");
+        }
+
+        List<String> keys = List.of(COUNTER_PREFIX + inventoryId, SYNC_PREFIX + inventoryId);
+        Object[] args = {
+            String.valueOf(quantity),
+            String.valueOf(writeTimeout.toMillis()),
+            String.valueOf(counterTtl.toMillis())
+        };
+
+        Long result;
+        try {
+            result = redisTemplate.execute(DEBIT_SCRIPT, keys, args);
+            if (result != null && result == NEEDS_LOAD && loadCounter(inventoryId, "init", 1)) {
+                result = redisTemplate.execute(DEBIT_SCRIPT, keys, args);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Saldo reservado do inventário {} indisponível, saída baixada só no banco: {}",
+                    inventoryId, e.getMessage());
+            return DirectDebit.UNCOUNTED;
+        }
+
+        if (result == null || result == NEEDS_LOAD) {
+            meterRegistry.counter("stock.reservation.direct.uncounted").increment();
+            logger.debug("Saldo reservado do inventário {} em recarga, saída baixada só no banco", inventoryId);
+            return DirectDebit.UNCOUNTED;
+        }
+
+        if (result == INSUFFICIENT) {
+            return DirectDebit.INSUFFICIENT;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                settleDirectExit(inventoryId, status == STATUS_COMMITTED ? 0 : quantity);
+            }
+        });
+        return DirectDebit.COUNTED;
+    }
+
+    /**
+     * Devolve ao saldo uma baixa de {@link #debitDirectExit} que o banco recusou numa transação que
+     * mesmo assim será confirmada, como a linha recusada de um lote parcial.
+     */
+    public void refundDirectExit(String inventoryId, int quantity) {
+        try {
+            redisTemplate.execute(ADJUST_SCRIPT, List.of(COUNTER_PREFIX + inventoryId, SYNC_PREFIX + inventoryId),
+                    String.valueOf(quantity), String.valueOf(writeTimeout.toMillis()), String.valueOf(counterTtl.toMillis()));
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível devolver a baixa recusada ao saldo do inventário {}: {}", inventoryId, e.getMessage());
+        }
+    }
+
+    public void reconcile() {
+        Set<String> inventoryIds = new HashSet<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(COUNTER_PREFIX + "*").count(500).build())) {
+            cursor.forEachRemaining(key -> inventoryIds.add(key.substring(COUNTER_PREFIX.length())));
+        }
+
+        if (inventoryIds.isEmpty()) {
+            return;
+        }
+
+        // As épocas são lidas antes do banco; inventários com escrita no meio do caminho são
+        // recarregados um a um em seguida.
+        List<String> ids = new ArrayList<>(inventoryIds);
+        List<String> epochs = readEpochs(ids);
+        Map<String, InventoryRepository.StockLevel> levels = inventoryRepository.findStockLevelsByIdIn(ids).stream()
+                .collect(Collectors.toMap(InventoryRepository.StockLevel::getId, Function.identity()));
+
+        int deferred = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            InventoryRepository.StockLevel level = levels.get(ids.get(i));
+            if (level == null) {
+                redisTemplate.delete(COUNTER_PREFIX + ids.get(i));
+            } else if ((epochs.get(i) == null || !load(level, "reset", epochs.get(i)))
+                    && !loadCounter(level.getId(), "reset")) {
+                deferred++;
+            }
+        }
+
+        if (deferred > 0) {
+            logger.warn("{} saldos de reserva com gravação em andamento ficaram para a próxima reconciliação", deferred);
+        }
+        logger.info("Saldos de reserva reconciliados com o banco para {} inventários", inventoryIds.size() - deferred);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        try {
+            reconcile();
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível reconciliar as reservas na inicialização: {}", e.getMessage());
+        }
+    }
+
+    // Como baixas e ajustes renovam o TTL, o contador de um SKU movimentado não expira: esta passagem,
+    // feita por um nó de cada vez, é o que limita a divergência deixada por um ajuste perdido.
+    @Scheduled(fixedDelayString = "${reservation.reconcile-interval-ms:600000}",
+            initialDelayString = "${reservation.reconcile-interval-ms:600000}")
+    public void reconcilePeriodically() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY,
+                    UUID.randomUUID().toString(), Duration.ofMillis(reconcileIntervalMs / 2)))) {
+                reconcile();
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Não foi possível reconciliar as reservas: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.reserved()) {
+            return;
+        }
+
+        try {
+            redisTemplate.execute(ADJUST_SCRIPT,
+                    List.of(COUNTER_PREFIX + event.inventoryId(), SYNC_PREFIX + event.inventoryId()),
+                    String.valueOf(event.delta()), String.valueOf(writeTimeout.toMillis()), String.valueOf(counterTtl.toMillis()));
+        } catch (DataAccessException e) {
+            // A reconciliação periódica recarrega o contador do banco; a divergência é temporária.
+            logger.warn("Não foi possível ajustar o saldo reservado do inventário {}: {}", event.inventoryId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.sweep-interval-ms:1000}")
+    public void releaseExpiredHolds() {
+        try {
+            Set<String> expired = redisTemplate.opsForZSet()
+                    .rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis(), 0, 500);
+
+            if (expired == null) {
+                return;
+            }
+
+            for (String reservationId : expired) {
+                Long released = release(reservationId);
+                if (released != null && released > 0) {
+                    meterRegistry.counter("stock.reservation.expired").increment();
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.debug("Varredura de reservas expiradas ignorada: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.flush-interval-ms:500}")
+    public void flushConfirmed() {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, token, writeTimeout);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+
+            try {
+                while (flushBatch(token)) {
+                    // lotes seguidos até esvaziar a fila ou perder a trava
+                }
+            } finally {
+                redisTemplate.execute(UNLOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), token);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Gravação write-behind das reservas adiada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grava o próximo lote da fila. A trava é renovada antes de cada lote e conferida de novo, no
+     * mesmo script, quando o lote sai da fila; se ela expirou no meio, o lote fica na fila e o nó
+     * que assumiu a trava o regrava, com as reservas já persistidas descartadas pelo reservation_id.
+     */
+    private boolean flushBatch(String token) {
+        Long renewed = redisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), token,
+                String.valueOf(writeTimeout.toMillis()));
+        if (renewed == null || renewed == 0) {
+            logger.warn("Trava do write-behind perdida; o lote em andamento fica para o próximo nó");
+            return false;
+        }
+
+        List<String> items = redisTemplate.opsForList().range(QUEUE_KEY, 0, flushBatchSize - 1);
+        if (items == null || items.isEmpty()) {
+            return false;
+        }
+
+        List<ConfirmedReservation> batch = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        List<String> deadPositions = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ConfirmedReservation reservation = parse(items.get(i));
+            if (reservation != null) {
+                batch.add(reservation);
+                positions.add(i + 1);
+            } else {
+                deadPositions.add(String.valueOf(i + 1));
+            }
+        }
+
+        List<String> syncKeys = batch.stream()
+                .map(reservation -> SYNC_PREFIX + reservation.inventoryId())
+                .distinct()
+                .toList();
+        String syncTtl = String.valueOf(writeTimeout.toMillis());
+        if (!syncKeys.isEmpty()) {
+            redisTemplate.execute(BEGIN_SCRIPT, syncKeys, syncTtl);
+        }
+
+        boolean acknowledged = false;
+        Set<String> reload = new HashSet<>();
+        try {
+            Set<String> rejected = batch.isEmpty() ? Set.of() : persist(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                if (rejected.contains(batch.get(i).reservationId())) {
+                    deadPositions.add(String.valueOf(positions.get(i)));
+                    reload.add(batch.get(i).inventoryId());
+                }
+            }
+
+            List<String> keys = new ArrayList<>(List.of(QUEUE_KEY, FLUSH_LOCK_KEY, DEAD_LETTER_KEY));
+            keys.addAll(syncKeys);
+            List<String> args = new ArrayList<>(List.of(String.valueOf(items.size()), COUNTER_PREFIX, token, syncTtl));
+            args.addAll(deadPositions);
+
+            Long trimmed = redisTemplate.execute(ACK_SCRIPT, keys, args.toArray());
+            acknowledged = trimmed != null && trimmed >= 0;
+            if (!acknowledged) {
+                logger.warn("Trava do write-behind perdida antes de confirmar o lote; ele será regravado");
+                return false;
+            }
+        } finally {
+            if (!acknowledged && !syncKeys.isEmpty()) {
+                redisTemplate.execute(END_SCRIPT, syncKeys, syncTtl);
+            }
+        }
+
+        if (!deadPositions.isEmpty()) {
+            meterRegistry.counter("stock.reservation.writebehind.dead").increment(deadPositions.size());
+        }
+
+        // Reservas recusadas deixaram de ser pendentes sem baixar o banco: o saldo é refeito do zero.
+        reload.forEach(this::reloadCounter);
+        return true;
+    }
+
+    private Set<String> persist(List<ConfirmedReservation> batch) {
+        try {
+            return writeBehindService.persist(batch);
+        } catch (DataIntegrityViolationException e) {
+            // Outro nó gravou parte do lote depois de perdermos a trava; a nova tentativa
+            // descarta pelo reservation_id o que já está no banco.
+            logger.info("Reservas do lote já gravadas por outro nó, regravando o restante: {}", e.getMessage());
+            return writeBehindService.persist(batch);
+        }
+    }
+
+    private ConfirmedReservation parse(String item) {
+        try {
+            ConfirmedReservation reservation = objectMapper.readValue(item, ConfirmedReservation.class);
+            if (reservation.reservationId() != null && reservation.inventoryId() != null && reservation.quantity() > 0) {
+                return reservation;
+            }
+        } catch (JsonProcessingException e) {
+            logger.debug("Item ilegível na fila de reservas confirmadas: {}", e.getMessage());
+        }
+
+        logger.error("Item inválido na fila de reservas confirmadas movido para {}: {}", DEAD_LETTER_KEY, item);
+        return null;
+    }
+
+    private Long release(String reservationId) {
+        return redisTemplate.execute(RELEASE_SCRIPT, List.of(HOLD_PREFIX + reservationId, EXPIRY_KEY), reservationId, COUNTER_PREFIX);
+    }
+
+    private void settleDirectExit(String inventoryId, int restore) {
+        try {
+            redisTemplate.execute(SETTLE_SCRIPT, List.of(COUNTER_PREFIX + inventoryId, SYNC_PREFIX + inventoryId),
+                    String.valueOf(restore), String.valueOf(writeTimeout.toMillis()));
+        } catch (DataAccessException e) {
+            // A marca de escrita expira em reservation.write-timeout; até lá o saldo não é recarregado.
+            logger.warn("Não foi possível encerrar a baixa direta no inventário {}: {}", inventoryId, e.getMessage());
+        }
+    }
+
+    private void reloadCounter(String inventoryId) {
+        try {
+            if (!loadCounter(inventoryId, "reset")) {
+                redisTemplate.delete(COUNTER_PREFIX + inventoryId);
+            }
+        } catch (ResponseStatusException e) {
+            redisTemplate.delete(COUNTER_PREFIX + inventoryId);
+        }
+    }
+
+    /**
+     * Carrega o saldo do inventário a partir do banco. Se alguma escrita estava aberta ou terminou
+     * entre a leitura da época e a gravação no Redis, a leitura do banco pode estar desatualizada e
+     * a carga é repetida; depois de {@link #LOAD_ATTEMPTS} tentativas, desiste.
+     */
+    private boolean loadCounter(String inventoryId, String mode) {
+        return loadCounter(inventoryId, mode, LOAD_ATTEMPTS);
+    }
+
+    private boolean loadCounter(String inventoryId, String mode, int attempts) {
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            String epoch = readEpochs(List.of(inventoryId)).get(0);
+            if (epoch != null) {
+                InventoryRepository.StockLevel level = inventoryRepository.findStockLevelsByIdIn(List.of(inventoryId))
+                        .stream()
+                        .findFirst()
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                "Inventário não encontrado para o produto!"));
+
+                if (load(level, mode, epoch)) {
+                    return true;
+                }
+            }
+
+            if (attempt < attempts && !pause(LOAD_BACKOFF_MS * attempt)) {
+                break;
+            }
+        }
+
+        meterRegistry.counter("stock.reservation.load.deferred").increment();
+        return false;
+    }
+
+    private boolean load(InventoryRepository.StockLevel level, String mode, String epoch) {
+        Long loaded = redisTemplate.execute(LOAD_SCRIPT,
+                List.of(COUNTER_PREFIX + level.getId(), EXPIRY_KEY, QUEUE_KEY, SYNC_PREFIX + level.getId()),
+                level.getId(),
+                level.getProductId(),
+                String.valueOf(level.getQuantity()),
+                HOLD_PREFIX,
+                mode,
+                String.valueOf(counterTtl.toMillis()),
+                epoch);
+        return loaded != null && loaded == 1;
+    }
+
+    /**
+     * Época atual da marca de escrita de cada inventário, na mesma ordem, ou {@code null} onde há
+     * uma escrita aberta. Uma única ida ao Redis para todos.
+     */
+    private List<String> readEpochs(List<String> inventoryIds) {
+        byte[][] fields = { "writers".getBytes(StandardCharsets.UTF_8), "epoch".getBytes(StandardCharsets.UTF_8) };
+        List<Object> states = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String inventoryId : inventoryIds) {
+                connection.hashCommands().hMGet((SYNC_PREFIX + inventoryId).getBytes(StandardCharsets.UTF_8), fields);
+            }
+            return null;
+        });
+
+        List<String> epochs = new ArrayList<>(states.size());
+        for (Object state : states) {
+            List<?> values = (List<?>) state;
+            epochs.add(toLong(values.get(0)) > 0 ? null : values.get(1) != null ? values.get(1).toString() : "0");
+        }
+        return epochs;
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? Long.parseLong(value.toString()) : 0;
+    }
+}
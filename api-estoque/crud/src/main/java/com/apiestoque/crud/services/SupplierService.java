@@ -1,21 +1,24 @@
 package com.apiestoque.crud.services;
 
 import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
 import com.apiestoque.crud.domain.product.dto.ProductResponseDTO;
 import com.apiestoque.crud.domain.supplier.Supplier;
 import com.apiestoque.crud.domain.supplier.dto.SupplierRequestDTO;
 import com.apiestoque.crud.domain.supplier.dto.SupplierResponseDTO;
 import com.apiestoque.crud.domain.supplier.dto.SupplierUpdateRequestDTO;
+import com.apiestoque.crud.infra.cache.ReferenceDataCache;
 import com.apiestoque.crud.repositories.ProductRepository;
 import com.apiestoque.crud.repositories.SupplierRepository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +29,12 @@ public class SupplierService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReferenceDataCache<SupplierResponseDTO> supplierCache;
+
     public SupplierResponseDTO create(SupplierRequestDTO data) {
         if (supplierRepository.existsByEmail(data.email())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fornecedor com este e-mail já existe.");
@@ -76,30 +85,32 @@ public class SupplierService {
         if (data.cep() != null) supplier.setCep(data.cep());
 
         Supplier updatedSupplier = supplierRepository.save(supplier);
+        supplierCache.evict(id);
+        productRepository.findIdsBySupplierId(id)
+                .forEach(productId -> eventPublisher.publishEvent(new ProductChangedEvent(productId)));
 
         return new SupplierResponseDTO(updatedSupplier);
     }
 
+    @Transactional(readOnly = true)
     public Page<SupplierResponseDTO> getAll(Pageable pageable) {
         return supplierRepository.findAll(pageable)
                 .map(SupplierResponseDTO::new);
     }
 
     public SupplierResponseDTO getById(String id) {
-        Supplier supplier = supplierRepository.findById(id)
+        return supplierCache.get(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Fornecedor não encontrado."));
-
-        return new SupplierResponseDTO(supplier);
     }
 
+    @Transactional(readOnly = true)
     public List<ProductResponseDTO> getProductsBySupplierId(String supplierId) {
-        Optional<Supplier> supplier = supplierRepository.findById(supplierId);
-
-        if (supplier.isEmpty()) {
+        // consulta direta: o que vem da réplica não deve alimentar o cache de fornecedores
+        if (!supplierRepository.existsById(supplierId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Fornecedor não encontrado.");
         }
 
-        List<Product> products = productRepository.findBySuppliersId(supplierId);
+        List<Product> products = productRepository.fetchCollections(productRepository.findBySuppliersId(supplierId));
 
         return products.stream()
                 .map(ProductResponseDTO::new)
@@ -115,5 +126,6 @@ public class SupplierService {
         }
 
         supplierRepository.deleteById(id);
+        supplierCache.evict(id);
     }
 }
@@ -2,9 +2,12 @@ package com.apiestoque.crud.services;
 
 import com.apiestoque.crud.domain.user.User;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import jakarta.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
@@ -16,9 +19,20 @@ public class TokenService {
     @Value("${security.jwt.secret-key}")
     private String secret;
 
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: montados uma vez e reaproveitados.
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm)
+                .withIssuer("auth-api")
+                .build();
+    }
+
     public String generateToken(User user){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
                     .withIssuer("auth-api")
                     .withSubject(user.getEmail())  
@@ -31,11 +45,7 @@ public class TokenService {
 
     public String validateToken(String token){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("auth-api")
-                    .build()
-                    .verify(token)
+            return verifier.verify(token)
                     .getSubject();  
         } catch (JWTVerificationException exception) {
             return "";
@@ -44,11 +54,7 @@ public class TokenService {
 
     public String getUsernameFromToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("auth-api")
-                    .build()
-                    .verify(token)
+            return verifier.verify(token)
                     .getSubject();  
         } catch (JWTVerificationException exception) {
             return null; 
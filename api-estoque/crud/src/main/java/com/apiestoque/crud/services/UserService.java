@@ -1,14 +1,18 @@
 package com.apiestoque.crud.services;
 
 import com.apiestoque.crud.domain.user.User;
+import com.apiestoque.crud.domain.user.UserChangedEvent;
 import com.apiestoque.crud.domain.user.dto.AuthenticationDTO;
 import com.apiestoque.crud.domain.user.dto.LoginResponseDTO;
 import com.apiestoque.crud.domain.user.dto.RegisterUserDTO;
 import com.apiestoque.crud.domain.user.dto.UserResponseDTO;
 import com.apiestoque.crud.repositories.UserRepository;
+import com.apiestoque.crud.infra.face.FaceEmbedding;
+import com.apiestoque.crud.infra.face.FaceVerificationClient;
 import com.apiestoque.crud.infra.response.ApiResponse;
+import com.apiestoque.crud.infra.security.LoginRateLimiter;
+import com.apiestoque.crud.infra.security.PasswordHashingExecutor;
 import com.apiestoque.crud.infra.response.ApiResult;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.transaction.Transactional;
 
@@ -16,29 +20,24 @@ import com.apiestoque.crud.domain.user.dto.UserRole;
 import com.apiestoque.crud.domain.user.dto.UserStatus;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 @Service
 public class UserService {
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -51,30 +50,58 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public LoginResponseDTO authenticateUser(AuthenticationDTO data) {
-        var usernamePassword = new UsernamePasswordAuthenticationToken(data.email(), data.password());
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FaceImageService faceImageService;
 
-        var auth = this.authenticationManager.authenticate(usernamePassword);
+    @Autowired
+    private FaceVerificationClient faceVerificationClient;
 
-        User user = (User) auth.getPrincipal();
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
 
-        if (user.getStatus() == UserStatus.INACTIVE) {
-            throw new RuntimeException("Esta conta de usuário foi desativada.");
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    /**
+     * Login em uma única consulta ao usuário; o BCrypt roda no {@link PasswordHashingExecutor} e
+     * tentativas acima do limite por IP ou por conta são recusadas antes de qualquer hash.
+     */
+    public CompletableFuture<LoginResponseDTO> authenticateUser(AuthenticationDTO data, String clientIp) {
+        if (data == null || data.email() == null || data.password() == null) {
+            throw new BadCredentialsException("Email e senha são obrigatórios.");
         }
 
-        if (user.getFaceImage() != null && user.getRole() == UserRole.USER) {
-            String key = "face_validation:" + user.getEmail();
-            String validation = redisTemplate.opsForValue().get(key);
+        loginRateLimiter.check(clientIp, data.email());
 
-            if (validation == null || !validation.equals("valid")) {
-                throw new RuntimeException("Verificação facial necessária.");
-            }
+        User user = userRepository.findUserByEmail(data.email());
 
-            redisTemplate.delete(key);
-        }
+        return passwordHashingExecutor.matches(data.password(), user != null ? user.getPassword() : null)
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new BadCredentialsException("Usuário ou senha inválidos.");
+                    }
+
+                    if (user.getStatus() == UserStatus.INACTIVE) {
+                        throw new RuntimeException("Esta conta de usuário foi desativada.");
+                    }
+
+                    if (user.hasFaceImage() && user.getRole() == UserRole.USER) {
+                        String key = "face_validation:" + user.getEmail();
+                        String validation = redisTemplate.opsForValue().get(key);
 
-        var token = tokenService.generateToken(user);
-        return new LoginResponseDTO(token);
+                        if (validation == null || !validation.equals("valid")) {
+                            throw new RuntimeException("Verificação facial necessária.");
+                        }
+
+                        redisTemplate.delete(key);
+                    }
+
+                    var token = tokenService.generateToken(user);
+                    return new LoginResponseDTO(token);
+                });
     }
 
     @Transactional
@@ -87,6 +114,7 @@ public class UserService {
         }
 
         userRepository.updateUserStatus(user.getId(), status.name());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
 
         return new UserResponseDTO(user);
     }
@@ -104,14 +132,16 @@ public class UserService {
         user.setPassword(encryptedPassword);
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
 
         return new UserResponseDTO(user);
     }
 
-    public Map<String, Object> verifyFace(String capturedImage, String email) throws Exception {
-        var httpClient = HttpClient.newHttpClient();
-        ObjectMapper objectMapper = new ObjectMapper();
-
+    /**
+     * Compara a imagem capturada com o embedding de referência do usuário sem bloquear a thread da
+     * requisição. O embedding é extraído uma única vez por imagem salva e reaproveitado depois.
+     */
+    public CompletableFuture<Map<String, Object>> verifyFace(String capturedImage, String email) {
         if (capturedImage == null || capturedImage.isBlank()) {
             throw new IllegalArgumentException("A imagem capturada não pode ser nula ou vazia");
         }
@@ -126,68 +156,63 @@ public class UserService {
             throw new RuntimeException("Usuário não cadastrado");
         }
 
-        if (user.getFaceImage() == null || user.getFaceImage().length == 0) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("verified", true);
-            response.put("distance", 1);
-            return response;
-        }
-
-        String base64SavedImage;
-        try {
-            base64SavedImage = Base64.getEncoder().encodeToString(user.getFaceImage());
-        } catch (Exception e) {
-            throw new RuntimeException("Falha ao codificar imagem do usuário", e);
-        }
-
-        String jsonBody;
-        try {
-            jsonBody = objectMapper.writeValueAsString(Map.of(
-                    "image", capturedImage,
-                    "saved_image", base64SavedImage));
-        } catch (Exception e) {
-            throw new RuntimeException("Falha ao criar JSON para requisição", e);
-        }
-
-        HttpRequest request;
-        HttpResponse<String> response;
-        try {
-            request = HttpRequest.newBuilder()
-                    .uri(URI.create("http://deepface-api:5000/compare-faces"))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                    .build();
-
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (Exception e) {
-            throw new RuntimeException("Falha na comunicação com o serviço de reconhecimento facial", e);
-        }
-
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Serviço de reconhecimento retornou status: " + response.statusCode());
-        }
+        String checksum = user.getFaceImageChecksum();
+        // Embedding sem modelo gravado é anterior ao controle de modelo e não dá para confiar nele.
+        CompletableFuture<FaceEmbedding> reference = faceImageService.embedding(checksum)
+                .filter(embedding -> embedding.model() != null)
+                .map(CompletableFuture::completedFuture)
+                .orElse(null);
+
+        if (reference == null) {
+            byte[] savedImage = faceImageService.load(checksum).orElse(null);
+
+            if (savedImage == null || savedImage.length == 0) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("verified", true);
+                response.put("distance", 1);
+                return CompletableFuture.completedFuture(response);
+            }
 
-        Map<String, Object> result;
-        try {
-            result = objectMapper.readValue(response.body(), Map.class);
-        } catch (Exception e) {
-            throw new RuntimeException("Resposta inválida do serviço de reconhecimento", e);
+            reference = representAndSave(checksum, savedImage);
         }
 
-        if (!result.containsKey("verified")) {
-            throw new RuntimeException("Resposta do serviço não contém campo 'verified'");
-        }
+        return reference
+                .thenCompose(embedding -> faceVerificationClient.compare(capturedImage, embedding))
+                // 409: o embedding gravado é de outro modelo. Extrai de novo da imagem salva e compara uma vez mais.
+                .exceptionallyCompose(error -> staleEmbedding(error)
+                        ? faceImageService.load(checksum)
+                                .map(savedImage -> representAndSave(checksum, savedImage)
+                                        .thenCompose(embedding -> faceVerificationClient.compare(capturedImage, embedding)))
+                                .orElseGet(() -> CompletableFuture.failedFuture(error))
+                        : CompletableFuture.failedFuture(error))
+                .thenApply(comparison -> {
+                    if (comparison.verified()) {
+                        try {
+                            String key = "face_validation:" + email;
+                            redisTemplate.opsForValue().set(key, "valid", 5, TimeUnit.MINUTES);
+                        } catch (Exception e) {
+                            System.err.println("Erro ao acessar Redis: " + e.getMessage());
+                        }
+                    }
+
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("verified", comparison.verified());
+                    result.put("distance", comparison.distance());
+                    return result;
+                });
+    }
 
-        if (Boolean.TRUE.equals(result.get("verified"))) {
-            try {
-                String key = "face_validation:" + email;
-                redisTemplate.opsForValue().set(key, "valid", 5, TimeUnit.MINUTES);
-            } catch (Exception e) {
-                System.err.println("Erro ao acessar Redis: " + e.getMessage());
-            }
-        }
+    private CompletableFuture<FaceEmbedding> representAndSave(String checksum, byte[] savedImage) {
+        return faceVerificationClient.represent(savedImage)
+                .thenApply(embedding -> {
+                    faceImageService.saveEmbedding(checksum, embedding);
+                    return embedding;
+                });
+    }
 
-        return result;
+    private static boolean staleEmbedding(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof ResponseStatusException statusException && statusException.getStatusCode() == HttpStatus.CONFLICT;
     }
 
     public ApiResult registerAdmin(RegisterUserDTO data) {
@@ -217,6 +242,7 @@ public class UserService {
         return new ApiResult(new ApiResponse("message", "Usuário admin registrado com sucesso."), HttpStatus.CREATED);
     }
 
+    @Transactional
     public ApiResult registerUser(RegisterUserDTO data) {
         if (userRepository.findByUsername("admin") == null) {
             return new ApiResult(new ApiResponse("message", "O Usuário master não existe."), HttpStatus.BAD_REQUEST);
@@ -245,7 +271,7 @@ public class UserService {
                 base64Data = base64Data.split(",")[1];
             }
             byte[] imageBytes = Base64.getDecoder().decode(base64Data);
-            newUser.setFaceImage(imageBytes);
+            newUser.setFaceImageChecksum(faceImageService.store(imageBytes));
         }
 
         this.userRepository.save(newUser);
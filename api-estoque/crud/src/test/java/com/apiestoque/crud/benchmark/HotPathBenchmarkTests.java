@@ -0,0 +1,186 @@
+package com.apiestoque.crud.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.exit.Exit;
+import com.apiestoque.crud.domain.exit.dto.ExitResponseDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitStatus;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.product.category.dto.CategoryResponseDTO;
+import com.apiestoque.crud.domain.product.dto.ProductDetailedResponseDTO;
+import com.apiestoque.crud.domain.product.dto.ProductResponseDTO;
+import com.apiestoque.crud.domain.supplier.Supplier;
+import com.apiestoque.crud.domain.supplier.dto.SupplierCommunicationPreference;
+import com.apiestoque.crud.domain.supplier.dto.SupplierResponseDTO;
+import com.apiestoque.crud.domain.user.User;
+import com.apiestoque.crud.domain.user.dto.UserRole;
+import com.apiestoque.crud.domain.user.dto.UserStatus;
+import com.apiestoque.crud.services.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Custo de CPU por requisição que não passa pelo banco: montagem dos DTOs de produto, emissão e
+ * validação do JWT, serialização de uma página do catálogo e o cálculo do total da saída. Executar
+ * com {@code mvn test -Pbenchmark -Dtest=HotPathBenchmarkTests}; o resultado fica em
+ * {@code target/benchmark-results/HotPathBenchmarkTests.json}. Para comparar com uma execução anterior,
+ * passar {@code -Dbenchmark.micro.baseline=<json anterior>}.
+ */
+@Tag("benchmark")
+class HotPathBenchmarkTests {
+    private static final int INVENTORIES_PER_PRODUCT = 8;
+    private static final int SUPPLIERS_PER_PRODUCT = 3;
+    private static final int PAGE_SIZE = 20;
+
+    private static MicroBenchmark benchmark;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @BeforeAll
+    static void start() throws Exception {
+        benchmark = new MicroBenchmark(HotPathBenchmarkTests.class.getSimpleName());
+    }
+
+    @AfterAll
+    static void finish() throws Exception {
+        System.out.println("resultados em " + benchmark.write().toAbsolutePath());
+        assertTrue(benchmark.regressions().isEmpty(), "regressões: " + benchmark.regressions());
+    }
+
+    @Test
+    void productDtoMapping() throws Exception {
+        Product product = product(0);
+        CategoryResponseDTO category = new CategoryResponseDTO(product.getCategory());
+        List<SupplierResponseDTO> suppliers = product.getSuppliers().stream().map(SupplierResponseDTO::new).toList();
+
+        assertEquals(INVENTORIES_PER_PRODUCT, new ProductResponseDTO(product).inventoryIds().size());
+        assertEquals(INVENTORIES_PER_PRODUCT, new ProductDetailedResponseDTO(product).inventory().size());
+
+        benchmark.measure("productResponse", () -> new ProductResponseDTO(product));
+        benchmark.measure("productResponseFromCachedReferences",
+                () -> new ProductResponseDTO(product, category, suppliers));
+        benchmark.measure("productDetailedResponse", () -> new ProductDetailedResponseDTO(product));
+    }
+
+    @Test
+    void tokenGenerationAndValidation() throws Exception {
+        TokenService tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "benchmark-secret-with-realistic-length-0123456789");
+        ReflectionTestUtils.invokeMethod(tokenService, "init");
+
+        User user = new User("bench", "bench@estoque.com", "-", UserStatus.ACTIVE, UserRole.ADMIN, null);
+        String token = tokenService.generateToken(user);
+        assertEquals(user.getEmail(), tokenService.validateToken(token));
+
+        benchmark.measure("generateToken", () -> tokenService.generateToken(user));
+        benchmark.measure("validateToken", () -> tokenService.validateToken(token));
+        benchmark.measure("validateInvalidToken", () -> tokenService.validateToken(token + "x"));
+    }
+
+    @Test
+    void catalogPageSerialization() throws Exception {
+        // mesmas opções de data que o ObjectMapper do Spring Boot
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<ProductResponseDTO> content = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(new ProductResponseDTO(product(i)));
+        }
+        Page<ProductResponseDTO> page = new PageImpl<>(content, PageRequest.of(3, PAGE_SIZE), 500_000);
+
+        System.out.println("página serializada: " + objectMapper.writeValueAsBytes(page).length + " bytes");
+        benchmark.measure("serializeProductPage", () -> objectMapper.writeValueAsBytes(page));
+    }
+
+    @Test
+    void exitTotalPrice() throws Exception {
+        List<Exit> exits = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Exit exit = new Exit();
+            exit.setId(id("exit", i));
+            exit.setProduct(product(i));
+            exit.setQuantity(1 + random.nextInt(500));
+            exit.setInventoryCode("INV-" + i);
+            exit.setStatus(ExitStatus.values()[i % ExitStatus.values().length]);
+            exit.setExitDate(LocalDate.of(2024, 1, 1).plusDays(i));
+            exits.add(exit);
+        }
+        assertEquals(0, exits.get(0).getProduct().getUnitPrice()
+                .multiply(BigDecimal.valueOf(exits.get(0).getQuantity()))
+                .compareTo(new ExitResponseDTO(exits.get(0)).totalPrice()));
+
+        int[] next = { 0 };
+        benchmark.measure("exitResponse", () -> new ExitResponseDTO(exits.get(next[0]++ & 63)));
+    }
+
+    // produto como sai do banco: categoria, lotes de estoque e fornecedores carregados
+    private Product product(int index) {
+        Category category = new Category();
+        category.setId(id("category", index % 12));
+        category.setName("Categoria " + index % 12);
+        category.setCreatedAt(new Date());
+
+        Set<Supplier> suppliers = new HashSet<>();
+        for (int s = 0; s < SUPPLIERS_PER_PRODUCT; s++) {
+            Supplier supplier = new Supplier();
+            supplier.setId(id("supplier", index * SUPPLIERS_PER_PRODUCT + s));
+            supplier.setSocialReason("Distribuidora de Materiais " + index + "-" + s + " Ltda");
+            supplier.setEmail("contato" + index + s + "@fornecedor.com.br");
+            supplier.setPhone("(11) 9" + (10_000_000 + random.nextInt(89_999_999)));
+            supplier.setCnpj(String.format("%014d", random.nextLong(100_000_000_000_000L)));
+            supplier.setCep("01310-100");
+            supplier.setContactPerson("Responsável " + s);
+            supplier.setWebsite("https://fornecedor" + s + ".com.br");
+            supplier.setCommunicationPreference(SupplierCommunicationPreference.EMAIL);
+            supplier.setCreatedAt(new Date());
+            suppliers.add(supplier);
+        }
+
+        Product product = new Product("Parafuso sextavado M" + (6 + index % 10) + " zincado",
+                "Parafuso de aço carbono com acabamento zincado, caixa com 100 unidades", "SKU-" + (100_000 + index),
+                new BigDecimal("1234.56").add(BigDecimal.valueOf(index, 2)), category, suppliers,
+                LocalDate.of(2027, 1, 1));
+        product.setId(id("product", index));
+        product.setStockQuantity(random.nextInt(10_000));
+        product.setMinimumStock(50);
+        product.setCreatedAt(new Date());
+
+        Set<Inventory> inventories = new HashSet<>();
+        for (int i = 0; i < INVENTORIES_PER_PRODUCT; i++) {
+            Inventory inventory = new Inventory(product, new BigDecimal("0.05"), "INV-" + index + "-" + i);
+            inventory.setId(id("inventory", index * INVENTORIES_PER_PRODUCT + i));
+            inventory.setQuantity(random.nextInt(1_000));
+            inventories.add(inventory);
+        }
+        product.setInventories(inventories);
+        return product;
+    }
+
+    private static String id(String kind, int index) {
+        return String.format("%08x-0000-4000-8000-%012x", kind.hashCode(), index);
+    }
+}
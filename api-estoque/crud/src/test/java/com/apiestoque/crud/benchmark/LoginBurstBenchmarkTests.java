@@ -0,0 +1,198 @@
+package com.apiestoque.crud.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.user.User;
+import com.apiestoque.crud.domain.user.dto.UserRole;
+import com.apiestoque.crud.domain.user.dto.UserStatus;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * p99 do catálogo com e sem uma rajada de 1.000 logins por minuto. Executar com
+ * {@code mvn test -Pbenchmark -Dtest=LoginBurstBenchmarkTests} (requer Redis em {@code redis:6379});
+ * {@code -Dbenchmark.catalog-rate} ajusta a carga do catálogo ao tamanho da máquina.
+ *
+ * <p>Roda com os limites de login padrão. A rajada simula clientes atrás do proxy: cada login chega
+ * com um X-Forwarded-For de {@link #CLIENTS} endereços e usa uma de {@link #ACCOUNTS} contas, abaixo
+ * dos limites por IP e por conta. Um 429 aqui indica que o IP do cliente não foi resolvido.
+ */
+@Tag("benchmark")
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoginBurstBenchmarkTests {
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 30);
+    private static final int LOGINS_PER_MINUTE = 1_000;
+    private static final int CATALOG_PER_SECOND = Integer.getInteger("benchmark.catalog-rate", 50);
+    // 1.000 logins/min em 250 contas e 200 IPs: 4/min por conta (limite 5) e 5/min por IP (limite 60).
+    private static final int ACCOUNTS = 250;
+    private static final int CLIENTS = 200;
+    private static final String PASSWORD = "senha-benchmark";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void catalogP99HoldsDuringLoginBurst() throws Exception {
+        String run = Long.toString(System.nanoTime(), 36);
+        List<String> emails = seed(run);
+        String token = objectMapper.readTree(login(emails.get(0), 0).body()).get("token").asText();
+
+        // aquecimento: JIT, pool de conexões e caches antes de medir
+        measureCatalog(token, SECONDS, null);
+        double[] baseline = measureCatalog(token, SECONDS, null);
+
+        AtomicInteger logins = new AtomicInteger();
+        AtomicInteger loginFailures = new AtomicInteger();
+        double[] duringBurst = measureCatalog(token, SECONDS, () -> {
+            int attempt = logins.getAndIncrement();
+            String email = emails.get(attempt % emails.size());
+            try {
+                if (login(email, attempt % CLIENTS).statusCode() != 200) {
+                    loginFailures.incrementAndGet();
+                }
+            } catch (Exception e) {
+                loginFailures.incrementAndGet();
+            }
+        });
+
+        double baselineP99 = percentile(baseline, 0.99);
+        double burstP99 = percentile(duringBurst, 0.99);
+
+        System.out.printf("%nCatálogo a %d req/s por %d s:%n", CATALOG_PER_SECOND, SECONDS);
+        System.out.printf("  sem logins        p50 %.2f ms  p99 %.2f ms%n", percentile(baseline, 0.5), baselineP99);
+        System.out.printf("  %d logins/min     p50 %.2f ms  p99 %.2f ms  (%d logins, %d falhas)%n%n",
+                LOGINS_PER_MINUTE, percentile(duringBurst, 0.5), burstP99, logins.get(), loginFailures.get());
+
+        assertEquals(0, loginFailures.get());
+        assertTrue(burstP99 <= baselineP99 * 1.5 + 10,
+                "p99 do catálogo subiu de " + baselineP99 + " ms para " + burstP99 + " ms durante a rajada de logins");
+    }
+
+    private List<String> seed(String run) {
+        List<String> emails = new ArrayList<>();
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String email = "bench-" + run + "-" + i + "@estoque.com";
+            userRepository.save(new User("bench-" + run + "-" + i, email, hash, UserStatus.ACTIVE, UserRole.USER, null));
+            emails.add(email);
+        }
+
+        Category category = new Category();
+        category.setName("Benchmark " + run);
+        category = categoryRepository.save(category);
+
+        for (int i = 0; i < 200; i++) {
+            productRepository.save(new Product("Produto " + i, "Produto de benchmark", "BENCH-" + run + "-" + i,
+                    new BigDecimal("10.00"), category, new HashSet<>(), null));
+        }
+
+        return emails;
+    }
+
+    /**
+     * Dispara o catálogo em taxa fixa (carga aberta) e, se houver, os logins na taxa da rajada.
+     * Devolve a latência de cada requisição do catálogo em milissegundos.
+     */
+    private double[] measureCatalog(String token, int seconds, Runnable login) throws Exception {
+        ConcurrentLinkedQueue<Double> samples = new ConcurrentLinkedQueue<>();
+        AtomicInteger catalogErrors = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(64);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+        HttpRequest catalog = HttpRequest.newBuilder(uri("/api/products?page=0&size=20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        scheduler.scheduleAtFixedRate(() -> workers.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(catalog, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    catalogErrors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                catalogErrors.incrementAndGet();
+            }
+            samples.add((System.nanoTime() - start) / 1_000_000.0);
+        }), 0, 1_000_000 / CATALOG_PER_SECOND, TimeUnit.MICROSECONDS);
+
+        if (login != null) {
+            scheduler.scheduleAtFixedRate(() -> workers.execute(login), 0, 60_000_000 / LOGINS_PER_MINUTE,
+                    TimeUnit.MICROSECONDS);
+        }
+
+        Thread.sleep(seconds * 1000L);
+        scheduler.shutdownNow();
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertEquals(0, catalogErrors.get());
+        return samples.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+    }
+
+    private HttpResponse<String> login(String email, int client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", "203.0.113." + (client + 1) + ", 10.0.0.1")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("email", email, "password", PASSWORD))))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
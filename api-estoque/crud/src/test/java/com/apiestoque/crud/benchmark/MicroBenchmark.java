@@ -0,0 +1,167 @@
+package com.apiestoque.crud.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medidor de microbenchmarks para os testes {@code @Tag("benchmark")}: aquecimento, iterações de
+ * tempo fixo e tempo médio por operação, no mesmo modelo do modo {@code avgt} do JMH. Os resultados
+ * são gravados em {@code target/benchmark-results/<nome>.json} no formato JSON do JMH (o mesmo que
+ * {@code -rf json} produz), então dá para comparar execuções com as ferramentas do JMH.
+ * <p>
+ * Com {@code -Dbenchmark.micro.baseline=<arquivo.json>} cada resultado é comparado com a execução
+ * gravada; pioras acima de {@code benchmark.micro.max-regression} (padrão 0.25) que não se explicam
+ * pelo erro da medida são devolvidas por {@link #regressions()}.
+ */
+final class MicroBenchmark {
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.micro.warmup", 5);
+    private static final int MEASUREMENT_ITERATIONS = Integer.getInteger("benchmark.micro.iterations", 10);
+    private static final long ITERATION_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("benchmark.micro.iteration-ms", 1_000));
+    private static final double MAX_REGRESSION = Double.parseDouble(
+            System.getProperty("benchmark.micro.max-regression", "0.25"));
+    // quantil da t de Student para 99,9% (bicaudal), como o scoreError do JMH; acima de 30 amostras vale a normal
+    private static final double[] T_999 = { 636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781,
+            4.587, 4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850, 3.819, 3.792, 3.768,
+            3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646 };
+
+    // destino volátil dos resultados: impede o JIT de descartar o trabalho medido
+    private static volatile Object sink;
+
+    private final String suite;
+    private final List<Map<String, Object>> results = new ArrayList<>();
+    private final List<String> regressions = new ArrayList<>();
+    private final Map<String, Double> baseline;
+
+    MicroBenchmark(String suite) throws IOException {
+        this.suite = suite;
+        this.baseline = readBaseline(System.getProperty("benchmark.micro.baseline"));
+    }
+
+    /**
+     * Mede {@code operation} e devolve o tempo médio em nanossegundos por chamada.
+     */
+    double measure(String benchmark, Callable<?> operation) throws Exception {
+        int batch = calibrate(operation);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(operation, batch);
+        }
+
+        double[] samples = new double[MEASUREMENT_ITERATIONS];
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            samples[i] = iteration(operation, batch);
+        }
+
+        double mean = Arrays.stream(samples).average().orElse(Double.NaN);
+        double error = error(samples, mean);
+        String name = suite + "." + benchmark;
+
+        Map<String, Object> primaryMetric = new LinkedHashMap<>();
+        primaryMetric.put("score", mean);
+        primaryMetric.put("scoreError", error);
+        primaryMetric.put("scoreConfidence", List.of(mean - error, mean + error));
+        primaryMetric.put("scoreUnit", "ns/op");
+        primaryMetric.put("rawData", List.of(samples));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", name);
+        result.put("mode", "avgt");
+        result.put("threads", 1);
+        result.put("forks", 1);
+        result.put("jvm", System.getProperty("java.home"));
+        result.put("jdkVersion", System.getProperty("java.version"));
+        result.put("warmupIterations", WARMUP_ITERATIONS);
+        result.put("warmupTime", TimeUnit.NANOSECONDS.toMillis(ITERATION_NANOS) + " ms");
+        result.put("measurementIterations", MEASUREMENT_ITERATIONS);
+        result.put("measurementTime", TimeUnit.NANOSECONDS.toMillis(ITERATION_NANOS) + " ms");
+        result.put("primaryMetric", primaryMetric);
+        results.add(result);
+
+        Double previous = baseline.get(name);
+        String comparison = "";
+        if (previous != null) {
+            double change = mean / previous - 1;
+            comparison = String.format("  (%+.1f%% contra a base)", change * 100);
+            // ruído não conta: o intervalo de confiança inteiro precisa ficar acima da base
+            if (change > MAX_REGRESSION && mean - error > previous) {
+                regressions.add(String.format("%s: %.1f ns/op contra %.1f ns/op na base", name, mean, previous));
+            }
+        }
+        System.out.printf("%-60s %12.1f ± %8.1f ns/op%s%n", name, mean, error, comparison);
+        return mean;
+    }
+
+    List<String> regressions() {
+        return regressions;
+    }
+
+    Path write() throws IOException {
+        Path output = Path.of("target", "benchmark-results", suite + ".json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        return output;
+    }
+
+    // lote grande o bastante para o custo do System.nanoTime() sumir na medida (~10 µs por lote)
+    private static int calibrate(Callable<?> operation) throws Exception {
+        int batch = 1;
+        while (true) {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                sink = operation.call();
+            }
+            if (System.nanoTime() - start >= 10_000 || batch >= 1 << 20) {
+                return batch;
+            }
+            batch *= 2;
+        }
+    }
+
+    private static double iteration(Callable<?> operation, int batch) throws Exception {
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < batch; i++) {
+                sink = operation.call();
+            }
+            operations += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        return (double) elapsed / operations;
+    }
+
+    private static double error(double[] samples, double mean) {
+        if (samples.length < 2) {
+            return Double.NaN;
+        }
+        double variance = Arrays.stream(samples).map(sample -> (sample - mean) * (sample - mean)).sum()
+                / (samples.length - 1);
+        double t = samples.length - 1 <= T_999.length ? T_999[samples.length - 2] : 3.291;
+        return t * Math.sqrt(variance / samples.length);
+    }
+
+    private static Map<String, Double> readBaseline(String file) throws IOException {
+        Map<String, Double> scores = new HashMap<>();
+        if (file == null || file.isBlank()) {
+            return scores;
+        }
+        for (JsonNode result : new ObjectMapper().readTree(Path.of(file).toFile())) {
+            scores.put(result.path("benchmark").asText(), result.path("primaryMetric").path("score").asDouble());
+        }
+        return scores;
+    }
+}
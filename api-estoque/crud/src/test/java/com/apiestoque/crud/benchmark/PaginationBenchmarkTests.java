@@ -0,0 +1,141 @@
+package com.apiestoque.crud.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.apiestoque.crud.domain.exit.dto.ExitResponseDTO;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.infra.pagination.CursorPage;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.services.ExitService;
+import com.apiestoque.crud.services.RollupService;
+import com.apiestoque.crud.services.StockMovementService;
+import com.apiestoque.crud.services.StockReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compara a latência da página 1000 de /api/exits no modo OFFSET + COUNT com o modo por cursor.
+ * Executar com {@code mvn test -Pbenchmark -Dtest=PaginationBenchmarkTests}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExitService.class, StockMovementService.class, RollupService.class, StockMetrics.class, SimpleMeterRegistry.class })
+@MockBean(StockReservationService.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaginationBenchmarkTests {
+    private static final int PAGE_SIZE = 50;
+    private static final int TARGET_PAGE = 1000;
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String targetCursor;
+
+    @BeforeAll
+    void seed() {
+        Category category = new Category();
+        category.setName("Benchmark");
+        category = categoryRepository.save(category);
+
+        Product product = productRepository.save(new Product("Produto", "Benchmark", "BENCH-" + System.nanoTime(),
+                BigDecimal.TEN, category, new HashSet<>(), null));
+
+        long start = System.currentTimeMillis() - ROWS * 1000L;
+        List<Object[]> batch = new ArrayList<>();
+
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[] { UUID.randomUUID().toString(), product.getId(), 1, "INV-BENCH", 0L,
+                    new Timestamp(start + i * 1000L), LocalDate.now().minusDays(i % 365) });
+
+            if (batch.size() == 5_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO exits (id, product_id, quantity, inventory_code, version, " +
+                        "created_at, exit_date) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        String cursor = null;
+        for (int page = 0; page < TARGET_PAGE; page++) {
+            cursor = exitService.scroll(cursor, "createdAt", "DESC", PAGE_SIZE).nextCursor();
+        }
+        targetCursor = cursor;
+    }
+
+    @Test
+    void offsetVersusKeysetAtPage1000() {
+        Page<ExitResponseDTO> offsetPage = exitService.getAll(
+                PageRequest.of(TARGET_PAGE, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+        CursorPage<ExitResponseDTO> keysetPage = exitService.scroll(targetCursor, null, null, PAGE_SIZE);
+
+        assertEquals(offsetPage.getContent(), keysetPage.content());
+
+        double[] offset = measure(() -> exitService.getAll(
+                PageRequest.of(TARGET_PAGE, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt", "id"))));
+        double[] keyset = measure(() -> exitService.scroll(targetCursor, null, null, PAGE_SIZE));
+
+        System.out.printf("%nPaginação de exits (%d linhas, página %d de %d):%n", ROWS, TARGET_PAGE, PAGE_SIZE);
+        System.out.printf("  OFFSET + COUNT  p50 %.2f ms  p95 %.2f ms%n", offset[0], offset[1]);
+        System.out.printf("  Cursor (keyset) p50 %.2f ms  p95 %.2f ms%n%n", keyset[0], keyset[1]);
+    }
+
+    private double[] measure(Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+
+        double[] samples = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            call.get();
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+
+        Arrays.sort(samples);
+        return new double[] { samples[ITERATIONS / 2], samples[(int) (ITERATIONS * 0.95)] };
+    }
+}
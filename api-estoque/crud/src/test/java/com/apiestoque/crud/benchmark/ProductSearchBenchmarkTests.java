@@ -0,0 +1,79 @@
+package com.apiestoque.crud.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.infra.search.ProductSearchDocument;
+import com.apiestoque.crud.infra.search.ProductSearchIndex;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latência do typeahead sobre um catálogo sintético de 500 mil produtos.
+ * Executar com {@code mvn test -Pbenchmark -Dtest=ProductSearchBenchmarkTests}.
+ */
+@Tag("benchmark")
+class ProductSearchBenchmarkTests {
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 500_000);
+    private static final int QUERIES = 20_000;
+    private static final double P99_BUDGET_MS = 5.0;
+
+    private static final String[] BRANDS = { "Samsung", "Lógitech", "Intelbras", "Multilaser", "Positivo", "Dell",
+            "Lenovo", "Philips", "Elgin", "Xiaomi", "Motorola", "Acer", "Asus", "Epson", "Canon", "Sony" };
+    private static final String[] NOUNS = { "Câmera", "Teclado", "Mouse", "Monitor", "Notebook", "Fone", "Cabo",
+            "Carregador", "Roteador", "Impressora", "Caixa de Som", "Webcam", "Headset", "Tablet", "Smartphone",
+            "Adaptador", "Bateria", "Controle", "Projetor", "Estabilizador" };
+    private static final String[] ADJECTIVES = { "sem fio", "gamer", "portátil", "profissional", "compacto", "USB-C",
+            "bluetooth", "4K", "ergonômico", "recarregável", "óptico", "mecânico", "inteligente", "de mesa" };
+    private static final String[] CATEGORIES = { "Informática", "Periféricos", "Áudio", "Vídeo", "Telefonia",
+            "Redes", "Energia", "Escritório" };
+
+    @Test
+    void typeaheadStaysUnderBudgetAt500kProducts() {
+        Random random = new Random(42);
+        ProductSearchIndex.Builder builder = new ProductSearchIndex.Builder();
+
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < PRODUCTS; i++) {
+            String noun = pick(random, NOUNS);
+            String brand = pick(random, BRANDS);
+            builder.add(new ProductSearchDocument("p" + i, noun + " " + brand + " " + pick(random, ADJECTIVES) + " " + i,
+                    brand.substring(0, 3).toUpperCase() + "-" + i, noun + " " + pick(random, ADJECTIVES) + " com garantia",
+                    pick(random, CATEGORIES), List.of(brand + " do Brasil Ltda")));
+        }
+        ProductSearchIndex index = builder.build();
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        List<String> queries = List.of("c", "ca", "cam", "câme", "noteb", "mouse sem", "teclado mec", "sams",
+                "fone blue", "informat", "SAM-12", "monitor dell 4k", "carreg port", "audio", "xiaomi smart");
+
+        for (int i = 0; i < 2_000; i++) {
+            index.search(queries.get(i % queries.size()), 10);
+        }
+
+        double[] samples = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = queries.get(random.nextInt(queries.size()));
+            long start = System.nanoTime();
+            index.search(query, 10);
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+
+        double p50 = samples[QUERIES / 2];
+        double p99 = samples[(int) (QUERIES * 0.99)];
+
+        System.out.printf("%nBusca de produtos (%d produtos, índice montado em %d ms):%n", PRODUCTS, buildMs);
+        System.out.printf("  typeahead p50 %.3f ms  p99 %.3f ms  máx %.3f ms%n%n", p50, p99, samples[QUERIES - 1]);
+
+        assertTrue(p99 < P99_BUDGET_MS, "p99 do typeahead acima de " + P99_BUDGET_MS + " ms: " + p99);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,169 @@
+package com.apiestoque.crud.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.CrudApplication;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.user.User;
+import com.apiestoque.crud.domain.user.dto.UserRole;
+import com.apiestoque.crud.domain.user.dto.UserStatus;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.repositories.UserRepository;
+import com.apiestoque.crud.services.TokenService;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compara a aplicação com {@code spring.threads.virtual.enabled} ligado e desligado sob
+ * {@code benchmark.connections} conexões simultâneas. Cada conexão repete detalhes de produto (Redis)
+ * e, a cada quatro requisições, uma página do catálogo (JDBC). Executar com
+ * {@code mvn test -Pbenchmark -Dtest=VirtualThreadBenchmarkTests -Djdk.tracePinnedThreads=short}
+ * (requer Redis em {@code redis:6379}); o rastreio mostra no console qualquer carrier preso.
+ *
+ * <p>Com o perfil padrão {@code h2} o JDBC é o H2 e o rastreio não diz nada sobre o driver do SQL
+ * Server. Para checar o mssql-jdbc, rode com {@code -Dbenchmark.profiles=default} e
+ * {@code SPRING_DATASOURCE_URL} apontando para um SQL Server. Se o p99 das threads de plataforma
+ * passar de {@code benchmark.max-p99-ms}, a máquina saturou e a comparação não vale: o teste falha
+ * em vez de reportar números de fila. Nesse caso, reduza {@code benchmark.connections}.
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmarkTests {
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 200);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final String PROFILES = System.getProperty("benchmark.profiles", "h2");
+    private static final int MAX_P99_MS = Integer.getInteger("benchmark.max-p99-ms", 1_000);
+    private static final int WARMUP_SECONDS = 10;
+    private static final int PRODUCTS = 200;
+
+    @Test
+    void virtualThreadsKeepUpWithPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%d conexões simultâneas por %d s:%n", CONNECTIONS, SECONDS);
+        System.out.println("  platform " + platform);
+        System.out.println("  virtual  " + virtual);
+        System.out.println();
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertTrue(platform.p99() <= MAX_P99_MS,
+                "p99 de " + platform.p99() + " ms com threads de plataforma: a carga saturou a máquina");
+        assertTrue(virtual.throughput() >= platform.throughput() * 0.9,
+                "virtual threads atenderam " + virtual.throughput() + " req/s contra " + platform.throughput()
+                        + " req/s das threads de plataforma");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CrudApplication.class)
+                .profiles(PROFILES.split(","))
+                .run("--server.port=0", "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            String run = Long.toString(System.nanoTime(), 36);
+            String token = context.getBean(TokenService.class).generateToken(seedUser(context, run));
+            List<String> productIds = seedProducts(context, run);
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            // aquecimento: JIT, pools e cache de detalhes no Redis antes de medir
+            load(httpClient, port, token, productIds, WARMUP_SECONDS);
+            return load(httpClient, port, token, productIds, SECONDS);
+        }
+    }
+
+    private User seedUser(ConfigurableApplicationContext context, String run) {
+        return context.getBean(UserRepository.class).save(new User("bench-" + run, "bench-" + run + "@estoque.com",
+                "-", UserStatus.ACTIVE, UserRole.ADMIN, null));
+    }
+
+    private List<String> seedProducts(ConfigurableApplicationContext context, String run) {
+        Category category = new Category();
+        category.setName("Benchmark " + run);
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ids.add(productRepository.save(new Product("Produto " + i, "Produto de benchmark", "BENCH-" + run + "-" + i,
+                    new BigDecimal("10.00"), category, new HashSet<>(), null)).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Carga fechada: cada conexão só manda a próxima requisição depois da resposta anterior.
+     */
+    private Result load(HttpClient httpClient, int port, String token, List<String> productIds, int seconds)
+            throws Exception {
+        ConcurrentLinkedQueue<Double> samples = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONNECTIONS; c++) {
+                int connection = c;
+                clients.execute(() -> {
+                    for (int i = 0; System.nanoTime() < deadline; i++) {
+                        String path = i % 4 == 3
+                                ? "/api/products?page=" + (connection % 10) + "&size=20"
+                                : "/api/products/" + productIds.get((connection + i) % productIds.size());
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(60))
+                                .GET()
+                                .build();
+
+                        long start = System.nanoTime();
+                        try {
+                            if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        samples.add((System.nanoTime() - start) / 1_000_000.0);
+                    }
+                });
+            }
+        }
+
+        double[] sorted = samples.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        return new Result((double) sorted.length / seconds, percentile(sorted, 0.5), percentile(sorted, 0.99),
+                errors.get());
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+
+    private record Result(double throughput, double p50, double p99, int errors) {
+        @Override
+        public String toString() {
+            return String.format("%8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  (%d erros)", throughput, p50, p99, errors);
+        }
+    }
+}
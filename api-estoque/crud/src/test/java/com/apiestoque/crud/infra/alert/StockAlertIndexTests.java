@@ -0,0 +1,54 @@
+package com.apiestoque.crud.infra.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class StockAlertIndexTests {
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Test
+    void lowStockFiresOnceWhenCrossingTheMinimumAndRearmsAfterRecovery() {
+        StockAlertIndex index = new StockAlertIndex(7);
+
+        assertNull(index.upsert(new ProductAlertSnapshot("1", "Leite", "LT-1", 12, 5, null)));
+        assertNull(index.applyDelta("1", -6));
+
+        StockAlert alert = index.applyDelta("1", -1);
+        assertNotNull(alert);
+        assertEquals(StockAlertType.LOW_STOCK, alert.type());
+        assertEquals(5, alert.stockQuantity());
+
+        assertNull(index.applyDelta("1", -2));
+        assertNull(index.applyDelta("1", 10));
+        assertNotNull(index.applyDelta("1", -10));
+    }
+
+    @Test
+    void expirationsFireInDateOrderOnlyOnceAndFollowDateChanges() {
+        StockAlertIndex index = new StockAlertIndex(7);
+        index.upsert(new ProductAlertSnapshot("1", "Iogurte", "IO-1", 10, null, TODAY.plusDays(3)));
+        index.upsert(new ProductAlertSnapshot("2", "Queijo", "QJ-1", 10, null, TODAY.plusDays(30)));
+        index.upsert(new ProductAlertSnapshot("3", "Manteiga", "MT-1", 0, null, TODAY.plusDays(1)));
+
+        List<StockAlert> due = index.pollDueExpirations(TODAY);
+        assertEquals(List.of("1"), due.stream().map(StockAlert::productId).toList());
+        assertTrue(index.pollDueExpirations(TODAY).isEmpty());
+
+        index.upsert(new ProductAlertSnapshot("1", "Iogurte", "IO-1", 8, null, TODAY.plusDays(3)));
+        assertTrue(index.pollDueExpirations(TODAY).isEmpty());
+
+        index.upsert(new ProductAlertSnapshot("2", "Queijo", "QJ-1", 10, null, TODAY.plusDays(5)));
+        assertEquals(List.of("2"), index.pollDueExpirations(TODAY).stream().map(StockAlert::productId).toList());
+
+        index.remove("1");
+        assertEquals(2, index.size());
+        assertEquals(0, index.pendingExpirations());
+    }
+}
@@ -0,0 +1,125 @@
+package com.apiestoque.crud.infra.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.inventory.dto.InventoryResponseDTO;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.product.category.dto.CategoryResponseDTO;
+import com.apiestoque.crud.domain.product.dto.ProductDetailedResponseDTO;
+import com.apiestoque.crud.domain.supplier.dto.SupplierResponseDTO;
+import com.apiestoque.crud.infra.RedisConfig;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.services.ProductService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+
+/**
+ * Detalhe do produto no cache do Redis de verdade (requer {@code redis:6379}): o estoque é lido do
+ * banco a cada consulta e só a edição do produto remove a entrada.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({ RedisAutoConfiguration.class, JacksonAutoConfiguration.class })
+@Import({ RedisConfig.class, ProductService.class, ProductDetailsCache.class, ProductCacheInvalidator.class,
+        SimpleMeterRegistry.class })
+class ProductDetailsCacheTests {
+    @MockBean
+    private ReferenceDataCache<CategoryResponseDTO> categoryCache;
+
+    @MockBean
+    private ReferenceDataCache<SupplierResponseDTO> supplierCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCacheInvalidator invalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void stockIsReadLiveWithoutEvictingTheCachedDetails() {
+        Inventory inventory = stockedInventory("Cache estoque", 10);
+        String productId = inventory.getProduct().getId();
+        assertEquals(10, productService.getById(productId).stockQuantity());
+
+        // Saída gravada direto no banco: nenhum evento, nenhuma remoção do cache.
+        jdbcTemplate.update("UPDATE inventory SET quantity = 4, exit_quantity = 6 WHERE id = ?", inventory.getId());
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 4 WHERE id = ?", productId);
+
+        ProductDetailedResponseDTO details = productService.getById(productId);
+        InventoryResponseDTO inventoryDetails = details.inventory().iterator().next();
+
+        assertEquals(4, details.stockQuantity());
+        assertEquals(4, inventoryDetails.quantity());
+        assertEquals(6, inventoryDetails.exitQuantity());
+        assertNotNull(cacheManager.getCache(RedisConfig.PRODUCT_DETAILS_CACHE).get(productId));
+    }
+
+    @Test
+    void productEditEvictsTheCachedDetails() {
+        Inventory inventory = stockedInventory("Cache antigo", 10);
+        String productId = inventory.getProduct().getId();
+        productService.getById(productId);
+
+        jdbcTemplate.update("UPDATE products SET name = 'Cache novo' WHERE id = ?", productId);
+        assertEquals("Cache antigo", productService.getById(productId).name());
+
+        invalidator.onProductChanged(new ProductChangedEvent(productId));
+        assertEquals("Cache novo", productService.getById(productId).name());
+    }
+
+    private Inventory stockedInventory(String name, int quantity) {
+        Category category = new Category();
+        category.setName(name);
+        category = categoryRepository.save(category);
+
+        Product product = new Product(name, "Cache", "CCH-" + System.nanoTime(), BigDecimal.TEN, category,
+                new HashSet<>(), null);
+        product.setStockQuantity(quantity);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(quantity);
+        return inventoryRepository.save(inventory);
+    }
+}
@@ -0,0 +1,154 @@
+package com.apiestoque.crud.infra.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.infra.RedisConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dois "nós" do cache de referência contra o Redis de verdade (requer {@code redis:6379}): cada um
+ * com seu L1 e o mesmo L2, ligados pelo canal de invalidação como em produção.
+ */
+@SpringBootTest(classes = ReferenceDataCacheTests.Config.class)
+class ReferenceDataCacheTests {
+    private static final Duration REMOTE_TTL = Duration.ofMinutes(5);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    private final Map<String, Label> database = new ConcurrentHashMap<>();
+    private final List<Collection<String>> loads = new ArrayList<>();
+
+    private String name;
+    private ReferenceDataCache<Label> nodeA;
+    private ReferenceDataCache<Label> nodeB;
+    private RedisMessageListenerContainer listenerB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        name = "labels-" + System.nanoTime();
+        database.put("1", new Label("1", "um"));
+        database.put("2", new Label("2", "dois"));
+
+        nodeA = cache();
+        nodeB = cache();
+
+        listenerB = new ReferenceDataCacheConfig().referenceCacheListenerContainer(connectionFactory, List.of(nodeB));
+        listenerB.afterPropertiesSet();
+        listenerB.start();
+        // A assinatura é assíncrona: espera o canal ter o ouvinte antes de publicar.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!listenerB.isListening() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listenerB.destroy();
+        redisTemplate.delete(List.of(key("1"), key("2"), key("3")));
+    }
+
+    @Test
+    void missesFillBothLevelsAndOtherNodesReadTheSharedLevel() {
+        Map<String, Label> first = nodeA.getAll(List.of("1", "2", "3"));
+
+        assertEquals(Map.of("1", database.get("1"), "2", database.get("2")), first);
+        assertEquals(1, loads.size());
+        assertTrue(redisTemplate.getExpire(key("1"), TimeUnit.SECONDS) > 0);
+        assertTrue(redisTemplate.getExpire(key("2"), TimeUnit.SECONDS) <= REMOTE_TTL.toSeconds());
+        assertNull(redisTemplate.opsForValue().get(key("3")));
+
+        // O outro nó encontra os dois no L2; só o id inexistente volta ao banco.
+        assertEquals(first, nodeB.getAll(List.of("1", "2", "3")));
+        assertEquals(List.of("3"), List.copyOf(loads.get(1)));
+
+        // Já no L1: nem o Redis é consultado.
+        redisTemplate.delete(List.of(key("1"), key("2")));
+        assertEquals(database.get("1"), nodeB.get("1").orElseThrow());
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void evictOnOneNodeDropsTheOtherNodesLocalCopy() throws Exception {
+        nodeA.get("1");
+        nodeB.get("1");
+        int loadsBefore = loads.size();
+
+        database.put("1", new Label("1", "um atualizado"));
+        nodeA.evict("1");
+        assertNull(redisTemplate.opsForValue().get(key("1")));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Label seen = nodeB.get("1").orElseThrow();
+        while (!"um atualizado".equals(seen.text()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            seen = nodeB.get("1").orElseThrow();
+        }
+
+        assertEquals("um atualizado", seen.text());
+        assertEquals(loadsBefore + 1, loads.size());
+    }
+
+    private ReferenceDataCache<Label> cache() {
+        return new ReferenceDataCache<>(name, Label.class, ids -> {
+            synchronized (loads) {
+                loads.add(ids);
+            }
+            Map<String, Label> found = new HashMap<>();
+            ids.forEach(id -> {
+                if (database.containsKey(id)) {
+                    found.put(id, database.get(id));
+                }
+            });
+            return found;
+        }, new ReferenceDataCacheProperties(100, Duration.ofMinutes(1), REMOTE_TTL), redisTemplate, objectMapper,
+                new SimpleMeterRegistry());
+    }
+
+    private String key(String id) {
+        return "refcache:" + name + ":" + id;
+    }
+
+    record Label(String id, String text) {
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ RedisAutoConfiguration.class, JacksonAutoConfiguration.class })
+    @Import(RedisConfig.class)
+    static class Config {
+    }
+}
@@ -0,0 +1,120 @@
+package com.apiestoque.crud.infra.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.apiestoque.crud.infra.RedisConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Um banco, dois pools: cada pool marca as suas conexões numa variável de sessão do H2, então a
+ * consulta revela qual pool atendeu. A marca de escrita recente usa o Redis de verdade
+ * (requer {@code redis:6379}).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.hikari.connection-init-sql=SET @POOL = 'primary'",
+        "datasource.replica.hikari.connection-init-sql=SET @POOL = 'replica'",
+        "datasource.replica.max-lag=500ms" })
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({ RedisAutoConfiguration.class, JacksonAutoConfiguration.class })
+@Import({ RedisConfig.class, DataSourceRoutingConfig.class, ReplicationLagGuard.class, ReadReplicaAspect.class,
+        ReadWriteRoutingDataSourceTests.PoolProbe.class, SimpleMeterRegistry.class, AopAutoConfiguration.class })
+class ReadWriteRoutingDataSourceTests {
+
+    @Autowired
+    private PoolProbe poolProbe;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceMethodsUseTheReplicaAndEverythingElseThePrimary() {
+        assertEquals("replica", poolProbe.readOnly());
+        assertEquals("primary", poolProbe.readWrite());
+        assertEquals("primary", poolProbe.notTransactional());
+    }
+
+    @Test
+    void writerReadsFromPrimaryUntilTheLagWindowPasses() throws InterruptedException {
+        String ana = "ana-" + System.nanoTime() + "@estoque.com";
+        authenticate(ana);
+        poolProbe.readWrite();
+        assertEquals("primary", poolProbe.readOnly());
+
+        authenticate("bruno@estoque.com");
+        assertEquals("replica", poolProbe.readOnly());
+
+        Thread.sleep(700);
+        authenticate(ana);
+        assertEquals("replica", poolProbe.readOnly());
+    }
+
+    @Test
+    void writeOnAnotherNodeAlsoSendsTheUserToThePrimary() {
+        String carla = "carla-" + System.nanoTime() + "@estoque.com";
+
+        // A outra instância só deixa a marca no Redis; esta nunca viu a escrita.
+        redisTemplate.opsForValue().set("replica:recent-writer:" + carla, "1", Duration.ofMillis(500));
+
+        authenticate(carla);
+        assertEquals("primary", poolProbe.readOnly());
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    static class PoolProbe {
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Transactional(readOnly = true)
+        public String readOnly() {
+            return pool();
+        }
+
+        @Transactional
+        public String readWrite() {
+            return pool();
+        }
+
+        public String notTransactional() {
+            return pool();
+        }
+
+        private String pool() {
+            return (String) entityManager.createNativeQuery("SELECT @POOL").getSingleResult();
+        }
+    }
+}
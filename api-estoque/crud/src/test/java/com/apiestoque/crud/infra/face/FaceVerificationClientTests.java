@@ -0,0 +1,120 @@
+package com.apiestoque.crud.infra.face;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.infra.resilience.CircuitBreaker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class FaceVerificationClientTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<JsonNode> lastCompareBody = new AtomicReference<>();
+    private volatile int compareStatus = 200;
+    private volatile String compareBody = "{\"verified\":true,\"distance\":0.21}";
+
+    private HttpServer server;
+    private FaceVerificationClient client;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/represent", exchange ->
+                respond(exchange, 200, "{\"model\":\"ArcFace\",\"embedding\":[0.5,-0.25,1.0]}"));
+        server.createContext("/compare-embedding", exchange -> {
+            lastCompareBody.set(objectMapper.readTree(exchange.getRequestBody()));
+            respond(exchange, compareStatus, compareBody);
+        });
+        server.start();
+
+        client = new FaceVerificationClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                Duration.ofSeconds(1), Duration.ofSeconds(2), 4, 3, Duration.ofMinutes(1),
+                objectMapper, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendsOnlyTheCapturedImageAndTheCachedEmbedding() {
+        FaceEmbedding embedding = client.represent(new byte[] { 1, 2, 3 }).join();
+        assertEquals("ArcFace", embedding.model());
+        assertArrayEquals(new float[] { 0.5f, -0.25f, 1.0f }, embedding.vector());
+
+        FaceEmbedding stored = new FaceEmbedding(embedding.model(), embedding.toBytes());
+        FaceComparison comparison = client.compare("Y2FwdHVyZWQ=", stored).join();
+
+        assertTrue(comparison.verified());
+        assertEquals(0.21, comparison.distance());
+        assertEquals("Y2FwdHVyZWQ=", lastCompareBody.get().get("image").asText());
+        assertEquals(3, lastCompareBody.get().get("embedding").size());
+        assertEquals("ArcFace", lastCompareBody.get().get("model").asText());
+        assertTrue(lastCompareBody.get().path("saved_image").isMissingNode());
+    }
+
+    @Test
+    void opensTheCircuitAfterRepeatedServerErrors() {
+        compareStatus = 500;
+        FaceEmbedding embedding = new FaceEmbedding("ArcFace", new float[] { 1f });
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(CompletionException.class, () -> client.compare("img", embedding).join());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+
+        int callsBefore = calls.get();
+        CompletionException rejected = assertThrows(CompletionException.class, () -> client.compare("img", embedding).join());
+        ResponseStatusException cause = assertInstanceOf(ResponseStatusException.class, rejected.getCause());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, cause.getStatusCode());
+        assertEquals(callsBefore, calls.get());
+    }
+
+    @Test
+    void imageWithoutAFaceIsAClientErrorAndKeepsTheCircuitClosed() {
+        compareStatus = 422;
+        compareBody = "{\"error\":\"Nenhum rosto detectado na imagem.\"}";
+        FaceEmbedding embedding = new FaceEmbedding("ArcFace", new float[] { 1f });
+
+        for (int i = 0; i < 5; i++) {
+            CompletionException failed = assertThrows(CompletionException.class, () -> client.compare("img", embedding).join());
+            ResponseStatusException cause = assertInstanceOf(ResponseStatusException.class, failed.getCause());
+            assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, cause.getStatusCode());
+            assertEquals("Nenhum rosto detectado na imagem.", cause.getReason());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        calls.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,245 @@
+package com.apiestoque.crud.infra.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.infra.RedisConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key contra o Redis de verdade (requer {@code redis:6379}). A marca de processamento
+ * dura só 300 ms para que o teste da renovação não precise esperar os 30 s de produção.
+ */
+@SpringBootTest(classes = IdempotencyAspectTests.Config.class, properties = {
+        "idempotency.in-flight-ttl=300ms",
+        "idempotency.wait-timeout=5s" })
+class IdempotencyAspectTests {
+    private static final String URI = "/idempotency-test";
+
+    @Autowired
+    private Endpoint endpoint;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        key = UUID.randomUUID().toString();
+        endpoint.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(redisKey());
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void repeatedRequestReplaysTheFirstResponse() {
+        ResponseEntity<Object> first = call(() -> endpoint.create("A"));
+        ResponseEntity<Object> second = call(() -> endpoint.create("A"));
+
+        assertEquals(1, endpoint.invocations());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER));
+        assertEquals(objectMapper.valueToTree(first.getBody()), second.getBody());
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() {
+        call(() -> endpoint.create("A"));
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () -> call(() -> endpoint.create("B")));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, rejected.getStatusCode());
+        assertEquals(1, endpoint.invocations());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheOriginalAndReplaysIt() throws Exception {
+        CountDownLatch gate = endpoint.hold();
+
+        CompletableFuture<ResponseEntity<Object>> original = CompletableFuture.supplyAsync(() -> call(() -> endpoint.create("A")));
+        waitForMarker();
+        CompletableFuture<ResponseEntity<Object>> duplicate = CompletableFuture.supplyAsync(() -> call(() -> endpoint.create("A")));
+
+        Thread.sleep(100);
+        gate.countDown();
+
+        assertEquals(HttpStatus.CREATED, original.get(5, TimeUnit.SECONDS).getStatusCode());
+        ResponseEntity<Object> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER));
+        assertEquals(1, endpoint.invocations());
+    }
+
+    @Test
+    void failedRequestReleasesTheKeyForRetry() {
+        endpoint.failNext();
+        assertThrows(IllegalStateException.class, () -> call(() -> endpoint.create("A")));
+        assertNull(redisTemplate.opsForValue().get(redisKey()));
+
+        ResponseEntity<Object> retried = call(() -> endpoint.create("A"));
+
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertNull(retried.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER));
+        assertEquals(2, endpoint.invocations());
+    }
+
+    @Test
+    void responseThatCannotBeStoredIsStillRecordedAsCompleted() {
+        ResponseEntity<Object> first = call(() -> endpoint.createUnreadable("A"));
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+
+        ResponseEntity<Object> replayed = call(() -> endpoint.createUnreadable("A"));
+
+        assertEquals(1, endpoint.invocations());
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER));
+        assertNull(replayed.getBody());
+    }
+
+    @Test
+    void markerOutlivesItsTtlWhileTheOriginalIsRunning() throws Exception {
+        CountDownLatch gate = endpoint.hold();
+
+        CompletableFuture<ResponseEntity<Object>> original = CompletableFuture.supplyAsync(() -> call(() -> endpoint.create("A")));
+        waitForMarker();
+
+        // Três vezes o in-flight-ttl: sem a renovação a marca já teria expirado.
+        Thread.sleep(900);
+        IdempotencyRecord marker = objectMapper.readValue(redisTemplate.opsForValue().get(redisKey()), IdempotencyRecord.class);
+        assertFalse(marker.completed());
+
+        gate.countDown();
+        original.get(5, TimeUnit.SECONDS);
+
+        IdempotencyRecord completed = objectMapper.readValue(redisTemplate.opsForValue().get(redisKey()), IdempotencyRecord.class);
+        assertTrue(completed.completed());
+        assertTrue(redisTemplate.getExpire(redisKey(), TimeUnit.SECONDS) > 60);
+        assertEquals(1, endpoint.invocations());
+    }
+
+    private ResponseEntity<Object> call(Supplier<ResponseEntity<Object>> request) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("POST", URI);
+        servletRequest.addHeader(IdempotencyAspect.HEADER, key);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        try {
+            return request.get();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void waitForMarker() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Boolean.TRUE.equals(redisTemplate.hasKey(redisKey())) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private String redisKey() {
+        return "idempotency:anonymous:POST:" + URI + ":" + key;
+    }
+
+    // O aspecto envolve o bean num proxy: o estado é lido e alterado por métodos, nunca pelos campos.
+    static class Endpoint {
+        private final AtomicInteger invocations = new AtomicInteger();
+        private volatile CountDownLatch gate;
+        private volatile boolean failNext;
+
+        public void reset() {
+            invocations.set(0);
+            gate = null;
+            failNext = false;
+        }
+
+        public int invocations() {
+            return invocations.get();
+        }
+
+        public CountDownLatch hold() {
+            gate = new CountDownLatch(1);
+            return gate;
+        }
+
+        public void failNext() {
+            failNext = true;
+        }
+
+        @Idempotent
+        public ResponseEntity<Object> create(String name) {
+            int invocation = invocations.incrementAndGet();
+            await();
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("falha simulada");
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("name", name, "invocation", invocation));
+        }
+
+        @Idempotent
+        public ResponseEntity<Object> createUnreadable(String name) {
+            invocations.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(new Unreadable());
+        }
+
+        private void await() {
+            CountDownLatch current = gate;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class Unreadable {
+        public String getValue() {
+            throw new IllegalStateException("não serializável");
+        }
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ AopAutoConfiguration.class, RedisAutoConfiguration.class, JacksonAutoConfiguration.class })
+    @Import({ RedisConfig.class, IdempotencyAspect.class, Endpoint.class })
+    static class Config {
+    }
+}
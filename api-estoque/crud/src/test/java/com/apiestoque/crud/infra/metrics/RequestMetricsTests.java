@@ -0,0 +1,93 @@
+package com.apiestoque.crud.infra.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.repositories.CategoryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ HibernateMetricsConfig.class, HibernateRequestMetricsFilter.class, PrometheusScrapeEndpoint.class,
+        SimpleMeterRegistry.class })
+class RequestMetricsTests {
+    @Autowired
+    private HibernateRequestMetricsFilter filter;
+
+    @Autowired
+    private PrometheusScrapeEndpoint endpoint;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void countsStatementsLoadsAndFetchesOfTheRequestOnly() throws Exception {
+        Category category = new Category();
+        category.setName("Metricas " + System.nanoTime());
+        String id = categoryRepository.save(category).getId();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/category/" + id);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/category/{id}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                        categoryRepository.findById(id).orElseThrow().getProducts().size()));
+
+        assertEquals(2.0, summary("hibernate.request.statements"));
+        assertEquals(1.0, summary("hibernate.request.entity.loads"));
+        assertEquals(1.0, summary("hibernate.request.collection.fetches"));
+    }
+
+    @Test
+    void rendersTimersAsSummariesWithQuantiles() {
+        Timer timer = Timer.builder("scrape.test.latency")
+                .tag("uri", "/api/products/{id}")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        timer.record(Duration.ofMillis(40));
+        meterRegistry.counter("scrape.test.exits", "reason", "a\"b").increment(3);
+
+        String output = endpoint.scrape();
+
+        assertTrue(output.contains("# TYPE scrape_test_latency_seconds summary\n"), output);
+        assertTrue(output.contains("scrape_test_latency_seconds{uri=\"/api/products/{id}\",quantile=\"0.99\"} "), output);
+        assertTrue(output.contains("scrape_test_latency_seconds_count{uri=\"/api/products/{id}\"} 1.0\n"), output);
+        assertTrue(output.contains("scrape_test_latency_seconds_sum{uri=\"/api/products/{id}\"} 0.04\n"), output);
+        assertTrue(output.contains("# TYPE scrape_test_exits_total counter\n"), output);
+        assertTrue(output.contains("scrape_test_exits_total{reason=\"a\\\"b\"} 3.0\n"), output);
+        assertFalse(output.contains("scrape_test_latency_percentile"), output);
+    }
+
+    private double summary(String name) {
+        return meterRegistry.get(name).tag("uri", "/api/category/{id}").summary().totalAmount();
+    }
+}
@@ -0,0 +1,72 @@
+package com.apiestoque.crud.infra.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.product.dto.ProductSearchResultDTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ProductSearchIndexTests {
+
+    private ProductSearchIndex catalog() {
+        return new ProductSearchIndex.Builder()
+                .add(new ProductSearchDocument("1", "Câmera de Segurança Wi-Fi", "CAM-100", "Visão noturna",
+                        "Eletrônicos", List.of("Intelbras Ltda")))
+                .add(new ProductSearchDocument("2", "Camiseta Algodão", "CAMI-200", "Tamanho M",
+                        "Vestuário", List.of("Malharia São João")))
+                .add(new ProductSearchDocument("3", "Cabo HDMI", "HDMI-2M", "Cabo para câmera e TV",
+                        "Eletrônicos", List.of("Intelbras Ltda")))
+                .build();
+    }
+
+    @Test
+    void matchesPrefixesIgnoringAccentsAndRanksNameAboveDescription() {
+        List<ProductSearchResultDTO> results = catalog().search("camera", 10);
+
+        assertEquals(List.of("1", "3"), results.stream().map(ProductSearchResultDTO::id).toList());
+        assertEquals("1", catalog().search("CÂM", 10).get(0).id());
+        assertEquals(List.of("2"), catalog().search("algod", 10).stream().map(ProductSearchResultDTO::id).toList());
+    }
+
+    @Test
+    void requiresEveryTermAndSearchesCodeCategoryAndSupplier() {
+        ProductSearchIndex index = catalog();
+
+        assertEquals("3", index.search("hdmi-2", 10).get(0).id());
+        assertEquals(List.of("1", "3"), index.search("intelbras", 10).stream().map(ProductSearchResultDTO::id).sorted().toList());
+        assertEquals(List.of("2"), index.search("vestuario sao", 10).stream().map(ProductSearchResultDTO::id).toList());
+        assertTrue(index.search("camera vestuario", 10).isEmpty());
+    }
+
+    @Test
+    void incrementalUpdatesReplaceAndRemoveTerms() {
+        ProductSearchIndex index = catalog();
+
+        index.index(new ProductSearchDocument("2", "Moletom", "CAMI-200", null, "Vestuário", List.of()));
+        index.index(new ProductSearchDocument("4", "Câmbio Automático", "CB-1", null, "Automotivo", List.of()));
+        index.remove("3");
+
+        assertTrue(index.search("camiseta", 10).isEmpty());
+        assertEquals("2", index.search("moletom", 10).get(0).id());
+        assertEquals(List.of("1", "2", "4"), index.search("cam", 10).stream().map(ProductSearchResultDTO::id).sorted().toList());
+        assertTrue(index.search("hdmi", 10).isEmpty());
+    }
+
+    @Test
+    void selectiveTermIsFoundBehindABroadOne() {
+        ProductSearchIndex.Builder builder = new ProductSearchIndex.Builder();
+        for (int i = 0; i < 2_500; i++) {
+            builder.add(new ProductSearchDocument("p" + i, "Parafuso Sextavado " + i, "PAR-" + i, null,
+                    "Ferragens", List.of()));
+        }
+        builder.add(new ProductSearchDocument("fenda", "Parafuso Fenda", "PAR-F", null, "Ferragens", List.of()));
+        ProductSearchIndex index = builder.build();
+
+        // "parafuso" é o termo mais longo, mas casa com 2.501 produtos; "fend" só com um.
+        assertEquals(List.of("fenda"), index.search("parafuso fend", 10).stream().map(ProductSearchResultDTO::id).toList());
+        assertEquals(10, index.search("parafuso sext", 10).size());
+    }
+}
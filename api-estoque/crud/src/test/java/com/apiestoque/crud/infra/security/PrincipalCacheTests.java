@@ -0,0 +1,66 @@
+package com.apiestoque.crud.infra.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import com.apiestoque.crud.domain.user.User;
+import com.apiestoque.crud.domain.user.UserChangedEvent;
+import com.apiestoque.crud.domain.user.dto.UserRole;
+import com.apiestoque.crud.domain.user.dto.UserStatus;
+import com.apiestoque.crud.repositories.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ PrincipalCache.class, SimpleMeterRegistry.class })
+class PrincipalCacheTests {
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void servesRepeatedLookupsFromMemoryUntilTheUserChanges() {
+        String email = "cache-" + System.nanoTime() + "@estoque.com";
+        User saved = userRepository.save(new User("user-" + System.nanoTime(), email, "hash",
+                UserStatus.ACTIVE, UserRole.USER, null));
+
+        User principal = principalCache.get(email).orElseThrow();
+        assertEquals(saved.getId(), principal.getId());
+        assertEquals(UserStatus.ACTIVE, principal.getStatus());
+        assertNull(principal.getPassword());
+
+        jdbcTemplate.update("UPDATE users SET status = 'INACTIVE' WHERE id = ?", saved.getId());
+        assertEquals(UserStatus.ACTIVE, principalCache.get(email).orElseThrow().getStatus());
+
+        principalCache.onUserChanged(new UserChangedEvent(email));
+        assertEquals(UserStatus.INACTIVE, principalCache.get(email).orElseThrow().getStatus());
+        verify(redisTemplate).convertAndSend(PrincipalCache.INVALIDATION_CHANNEL, email);
+
+        assertTrue(principalCache.get("ninguem@estoque.com").isEmpty());
+    }
+}
@@ -0,0 +1,277 @@
+package com.apiestoque.crud.loadtest;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carrega a massa do {@link LoadDataset} direto por JDBC, em lotes paralelos com commit por bloco,
+ * sem passar pelos serviços (que gravariam ledger, rollups e eventos linha a linha). Funciona no H2 e
+ * no SQL Server; no SQL Server, {@code useBulkCopyForBatchInsert=true} na URL transforma cada lote
+ * em bulk copy e é o que torna viáveis as dezenas de milhões de saídas e recebimentos.
+ * <p>
+ * O histórico cobre os últimos dois anos e segue a mesma popularidade dos SKUs que o driver usa. O
+ * estoque de cada lote é dimensionado pela popularidade do produto, para que os SKUs quentes
+ * aguentem a carga de saídas e os frios fiquem perto do mínimo.
+ */
+final class LoadDataGenerator {
+    private static final int CHUNK = 10_000;
+    private static final int BATCH = 1_000;
+    private static final int HISTORY_DAYS = 730;
+    private static final int AVERAGE_EXIT_QUANTITY = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadDataset dataset;
+    private final LoadVolumes volumes;
+    private final int threads;
+    private final LocalDate today = LocalDate.now();
+
+    LoadDataGenerator(JdbcTemplate jdbcTemplate, LoadDataset dataset, int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataset = dataset;
+        this.volumes = dataset.volumes();
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Os usuários são gravados por último: se o último deles existe, a carga anterior terminou.
+     */
+    boolean alreadyLoaded() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class,
+                dataset.userEmail(volumes.users() - 1));
+        return count != null && count > 0;
+    }
+
+    void generate() throws Exception {
+        long start = System.nanoTime();
+        int perProduct = volumes.inventoriesPerProduct();
+
+        insert("categories", volumes.categories(),
+                "INSERT INTO categories (id, name, created_by, created_at) VALUES (?, ?, ?, ?)",
+                (statement, row, random) -> {
+                    statement.setString(1, dataset.categoryId((int) row));
+                    statement.setString(2, "Categoria " + dataset.prefix() + " " + row);
+                    statement.setString(3, "load");
+                    statement.setTimestamp(4, daysAgo(HISTORY_DAYS));
+                });
+
+        insert("suppliers", volumes.suppliers(),
+                "INSERT INTO suppliers (id, social_reason, email, phone, cnpj, website, contact_person, cep, status,"
+                        + " communication_preference, created_at, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                (statement, row, random) -> {
+                    statement.setString(1, dataset.supplierId((int) row));
+                    statement.setString(2, "Distribuidora " + dataset.prefix() + " " + row + " Ltda");
+                    statement.setString(3, "fornecedor-" + row + "@" + dataset.prefix().toLowerCase() + ".com.br");
+                    statement.setString(4, "(11) 9" + (10_000_000 + random.nextInt(89_999_999)));
+                    statement.setString(5, String.format("%014d", row));
+                    statement.setString(6, null);
+                    statement.setString(7, "Contato " + row);
+                    statement.setString(8, String.format("%05d-%03d", random.nextInt(100_000), random.nextInt(1_000)));
+                    statement.setString(9, "ACTIVE");
+                    statement.setString(10, "EMAIL");
+                    statement.setTimestamp(11, daysAgo(HISTORY_DAYS));
+                    statement.setString(12, "load");
+                });
+
+        insert("products", volumes.products(),
+                "INSERT INTO products (id, name, product_code, description, stock_quantity, minimum_stock, version,"
+                        + " unit_price, category_id, expiration_date, created_by, created_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?)",
+                (statement, row, random) -> {
+                    int product = (int) row;
+                    int stock = inventoryQuantity(product) * perProduct;
+                    statement.setString(1, dataset.productId(product));
+                    statement.setString(2, "Produto " + dataset.prefix() + " " + product);
+                    statement.setString(3, dataset.productCode(product));
+                    statement.setString(4, "Produto sintético para teste de carga");
+                    statement.setInt(5, stock);
+                    statement.setInt(6, 10 + random.nextInt(90));
+                    statement.setBigDecimal(7, dataset.unitPrice(product));
+                    statement.setString(8, dataset.categoryId(dataset.categoryOf(product)));
+                    // 10% perecíveis, vencendo nos próximos seis meses
+                    statement.setDate(9, random.nextInt(10) == 0 ? Date.valueOf(today.plusDays(random.nextInt(180))) : null);
+                    statement.setString(10, "load");
+                    statement.setTimestamp(11, daysAgo(HISTORY_DAYS - (int) (row * HISTORY_DAYS / volumes.products())));
+                });
+
+        insert("product_supplier", volumes.products(),
+                "INSERT INTO product_supplier (product_id, supplier_id) VALUES (?, ?)",
+                (statement, row, random) -> {
+                    int[] suppliers = dataset.suppliersOf((int) row);
+                    for (int i = 0; i < suppliers.length; i++) {
+                        if (i > 0) {
+                            statement.addBatch();
+                        }
+                        statement.setString(1, dataset.productId((int) row));
+                        statement.setString(2, dataset.supplierId(suppliers[i]));
+                    }
+                });
+
+        insert("inventory", (long) volumes.products() * perProduct,
+                "INSERT INTO inventory (id, product_id, quantity, discount, receivement_quantity, exit_quantity,"
+                        + " inventory_code, version, created_by, created_at) VALUES (?, ?, ?, ?, 0, 0, ?, 0, ?, ?)",
+                (statement, row, random) -> {
+                    int product = (int) (row / perProduct);
+                    int slot = (int) (row % perProduct);
+                    statement.setString(1, dataset.inventoryId(product, slot));
+                    statement.setString(2, dataset.productId(product));
+                    statement.setInt(3, inventoryQuantity(product));
+                    statement.setBigDecimal(4, random.nextInt(5) == 0 ? new BigDecimal("0.05") : BigDecimal.ZERO);
+                    statement.setString(5, dataset.inventoryCode(product, slot));
+                    statement.setString(6, "load");
+                    statement.setTimestamp(7, daysAgo(random.nextInt(HISTORY_DAYS)));
+                });
+
+        insert("exits", volumes.exits(),
+                "INSERT INTO exits (id, product_id, quantity, inventory_code, exit_status, version, created_by,"
+                        + " created_at, exit_date) VALUES (?, ?, ?, ?, ?, 0, ?, ?, ?)",
+                (statement, row, random) -> {
+                    int product = dataset.popularProduct(random);
+                    int day = random.nextInt(HISTORY_DAYS);
+                    statement.setString(1, dataset.id("exit", row));
+                    statement.setString(2, dataset.productId(product));
+                    statement.setInt(3, 1 + random.nextInt(1 + random.nextInt(20)));
+                    statement.setString(4, dataset.inventoryCode(product, random.nextInt(perProduct)));
+                    statement.setString(5, status(random));
+                    statement.setString(6, "load");
+                    statement.setTimestamp(7, daysAgo(day));
+                    statement.setDate(8, Date.valueOf(today.minusDays(day)));
+                });
+
+        insert("receivings", volumes.receivements(),
+                "INSERT INTO receivings (id, product_id, supplier_id, inventory_code, description, quantity, total_price,"
+                        + " receiving_date, receiving_status, version, created_by, created_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)",
+                (statement, row, random) -> {
+                    int product = dataset.popularProduct(random);
+                    int[] suppliers = dataset.suppliersOf(product);
+                    int quantity = 10 * (5 + random.nextInt(46));
+                    int day = random.nextInt(HISTORY_DAYS);
+                    statement.setString(1, dataset.id("receivement", row));
+                    statement.setString(2, dataset.productId(product));
+                    statement.setString(3, dataset.supplierId(suppliers[random.nextInt(suppliers.length)]));
+                    statement.setString(4, dataset.inventoryCode(product, random.nextInt(perProduct)));
+                    statement.setString(5, "Reposição");
+                    statement.setInt(6, quantity);
+                    statement.setBigDecimal(7, dataset.unitPrice(product).multiply(BigDecimal.valueOf(quantity)));
+                    statement.setDate(8, Date.valueOf(today.minusDays(day)));
+                    statement.setString(9, status(random));
+                    statement.setString(10, "load");
+                    statement.setTimestamp(11, daysAgo(day));
+                });
+
+        String passwordHash = new BCryptPasswordEncoder().encode(LoadDataset.PASSWORD);
+        insert("users", volumes.users(),
+                "INSERT INTO users (id, username, email, password, role, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                (statement, row, random) -> {
+                    statement.setString(1, dataset.id("user", row));
+                    statement.setString(2, dataset.prefix().toLowerCase() + "-user-" + row);
+                    statement.setString(3, dataset.userEmail((int) row));
+                    statement.setString(4, passwordHash);
+                    statement.setString(5, "USER");
+                    statement.setString(6, "ACTIVE");
+                    statement.setTimestamp(7, daysAgo(HISTORY_DAYS));
+                });
+
+        System.out.printf("massa %s carregada em %d s%n", dataset.prefix(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    // cobre duas vezes a saída histórica esperada do SKU, com um piso para os frios
+    private int inventoryQuantity(int product) {
+        double expected = dataset.popularity(product) * volumes.exits() * AVERAGE_EXIT_QUANTITY * 2
+                / volumes.inventoriesPerProduct();
+        return (int) Math.min(Integer.MAX_VALUE / 4 / volumes.inventoriesPerProduct(), 50 + Math.round(expected));
+    }
+
+    // 95% concluídas; o resto se divide entre pendentes, canceladas e devolvidas
+    private static String status(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        return roll < 95 ? "COMPLETED" : roll < 97 ? "PENDING" : roll < 99 ? "CANCELED" : "RETURNED";
+    }
+
+    private Timestamp daysAgo(int days) {
+        return Timestamp.valueOf(today.minusDays(days).atTime(8, 0));
+    }
+
+    private void insert(String table, long rows, String sql, RowWriter writer) throws Exception {
+        long start = System.nanoTime();
+        long chunks = (rows + CHUNK - 1) / CHUNK;
+        AtomicLong done = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long first = chunk * CHUNK;
+                long last = Math.min(rows, first + CHUNK);
+                SplittableRandom random = dataset.random(table, chunk);
+                futures.add(executor.submit(() -> {
+                    jdbcTemplate.execute((ConnectionCallback<Void>) connection ->
+                            writeChunk(connection, sql, first, last, random, writer));
+                    long total = done.addAndGet(last - first);
+                    if (total % (CHUNK * 100L) == 0) {
+                        System.out.printf("  %s: %,d de %,d%n", table, total, rows);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-16s %,14d linhas em %7.1f s (%,.0f linhas/s)%n", table, rows, seconds, rows / seconds);
+    }
+
+    private Void writeChunk(Connection connection, String sql, long first, long last, SplittableRandom random,
+            RowWriter writer) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (long row = first; row < last; row++) {
+                writer.write(statement, row, random);
+                statement.addBatch();
+                if (++pending == BATCH) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement statement, long row, SplittableRandom random) throws SQLException;
+    }
+}
@@ -0,0 +1,122 @@
+package com.apiestoque.crud.loadtest;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Identidade da massa sintética. Ids, códigos e relacionamentos saem de funções determinísticas do
+ * prefixo, da semente e do índice: o gerador grava e o driver de carga recalcula os mesmos valores
+ * sem consultar o banco, inclusive quando roda em outro processo contra uma base já carregada.
+ */
+final class LoadDataset {
+    static final String PASSWORD = "load123";
+
+    private final LoadVolumes volumes;
+    private final String prefix;
+    private final long seed;
+    private final ZipfDistribution productPopularity;
+    private final ZipfDistribution supplierPopularity;
+
+    LoadDataset(LoadVolumes volumes, String prefix, long seed) {
+        this.volumes = volumes;
+        this.prefix = prefix;
+        this.seed = seed;
+        this.productPopularity = new ZipfDistribution(volumes.products(), volumes.skew());
+        this.supplierPopularity = new ZipfDistribution(volumes.suppliers(), volumes.skew());
+    }
+
+    LoadVolumes volumes() {
+        return volumes;
+    }
+
+    String prefix() {
+        return prefix;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    String id(String kind, long index) {
+        return UUID.nameUUIDFromBytes((prefix + ":" + kind + ":" + index).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    String categoryId(int category) {
+        return id("category", category);
+    }
+
+    String supplierId(int supplier) {
+        return id("supplier", supplier);
+    }
+
+    String productId(int product) {
+        return id("product", product);
+    }
+
+    String productCode(int product) {
+        return prefix + "-" + product;
+    }
+
+    String inventoryId(int product, int slot) {
+        return id("inventory", (long) product * volumes.inventoriesPerProduct() + slot);
+    }
+
+    String inventoryCode(int product, int slot) {
+        return prefix + "-" + product + "-" + slot;
+    }
+
+    String userEmail(int user) {
+        return prefix.toLowerCase() + "-user-" + user + "@estoque.com";
+    }
+
+    int categoryOf(int product) {
+        return (int) Math.floorMod(mix(product, 1), (long) volumes.categories());
+    }
+
+    BigDecimal unitPrice(int product) {
+        return BigDecimal.valueOf(100 + Math.floorMod(mix(product, 2), 99_900L), 2);
+    }
+
+    /**
+     * De um a três fornecedores por produto, com os grandes distribuidores aparecendo em mais produtos.
+     */
+    int[] suppliersOf(int product) {
+        SplittableRandom random = new SplittableRandom(mix(product, 3));
+        int wanted = Math.min(1 + random.nextInt(3), volumes.suppliers());
+        Set<Integer> suppliers = new LinkedHashSet<>();
+        while (suppliers.size() < wanted) {
+            suppliers.add(supplierPopularity.sample(random));
+        }
+        return suppliers.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Produto sorteado pela popularidade: poucos SKUs quentes concentram a movimentação.
+     */
+    int popularProduct(RandomGenerator random) {
+        return productPopularity.sample(random);
+    }
+
+    double popularity(int product) {
+        return productPopularity.probability(product);
+    }
+
+    /**
+     * Gerador próprio de um lote de linhas, para que a massa não dependa da ordem das threads.
+     */
+    SplittableRandom random(String table, long chunk) {
+        return new SplittableRandom(seed ^ table.hashCode() * 0x9E3779B97F4A7C15L ^ chunk * 0xBF58476D1CE4E5B9L);
+    }
+
+    private long mix(long index, long salt) {
+        long z = seed + index * 0x9E3779B97F4A7C15L + salt * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,107 @@
+package com.apiestoque.crud.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.CrudApplication;
+import com.apiestoque.crud.services.ProductSearchService;
+import com.apiestoque.crud.services.StockAlertService;
+import com.apiestoque.crud.services.StockReservationService;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Teste de carga reproduzível: gera a massa sintética e reproduz tráfego misto nos endpoints REST,
+ * com vazão e percentis de latência por operação no console e em {@code target/load-results/}.
+ * Executar com {@code mvn test -Pbenchmark -Dtest=LoadHarnessTests}.
+ * <p>
+ * Sem {@code load.base-url}, sobe a aplicação neste processo com o perfil {@code load.profile}
+ * (padrão {@code h2}, banco em memória; requer Redis em {@code redis:6379}), carrega a massa pelo
+ * mesmo pool da aplicação e reconstrói os índices em memória como numa inicialização.
+ * <p>
+ * Com {@code -Dload.base-url=http://localhost:8080}, dirige uma aplicação já no ar (por exemplo a do
+ * docker compose). A massa é carregada só se {@code load.jdbc-url} for informado, como
+ * {@code jdbc:sqlserver://localhost:1433;databaseName=estoque;encrypt=false;useBulkCopyForBatchInsert=true}
+ * (com {@code load.jdbc-username}/{@code load.jdbc-password}); reinicie a aplicação depois da carga
+ * para os índices em memória e as reservas enxergarem a massa. O limite de login por IP precisa
+ * comportar os clientes: {@code LOGIN_RATE_LIMIT_IP_CAPACITY} e
+ * {@code LOGIN_RATE_LIMIT_IP_REFILL_PER_MINUTE} no {@code .env}.
+ * <p>
+ * Mesmos {@code load.prefix}, {@code load.seed} e volumes geram exatamente a mesma massa; uma massa
+ * já carregada com esse prefixo é reaproveitada.
+ */
+@Tag("benchmark")
+class LoadHarnessTests {
+    private static final String PREFIX = System.getProperty("load.prefix", "LOAD");
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final int GENERATOR_THREADS = Integer.getInteger("load.generator.threads",
+            Runtime.getRuntime().availableProcessors());
+
+    @Test
+    void replaysMixedTraffic() throws Exception {
+        LoadDataset dataset = new LoadDataset(LoadVolumes.fromSystemProperties(), PREFIX, SEED);
+        String baseUrl = System.getProperty("load.base-url", "");
+
+        LoadWorkloadDriver.Report report;
+        if (baseUrl.isBlank()) {
+            report = runEmbedded(dataset);
+        } else {
+            String jdbcUrl = System.getProperty("load.jdbc-url", "");
+            if (!jdbcUrl.isBlank()) {
+                DriverManagerDataSource dataSource = new DriverManagerDataSource(jdbcUrl,
+                        System.getProperty("load.jdbc-username", "sa"), System.getProperty("load.jdbc-password", ""));
+                load(new JdbcTemplate(dataSource), dataset);
+            }
+            report = drive(dataset, baseUrl);
+        }
+
+        assertEquals(0, report.errors(), "requisições com erro de servidor ou conexão");
+        assertTrue(report.operations().containsKey(LoadWorkloadDriver.Operation.BROWSE_PRODUCT));
+    }
+
+    private LoadWorkloadDriver.Report runEmbedded(LoadDataset dataset) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CrudApplication.class)
+                .profiles(System.getProperty("load.profile", "h2"))
+                .run("--server.port=0",
+                        "--management.server.port=0",
+                        // todos os clientes saem do mesmo IP e cada usuário loga várias vezes
+                        "--login.rate-limit.ip.capacity=1000000",
+                        "--login.rate-limit.ip.refill-per-minute=1000000",
+                        "--login.rate-limit.account.capacity=1000",
+                        "--login.rate-limit.account.refill-per-minute=1000")) {
+            if (load(context.getBean(JdbcTemplate.class), dataset)) {
+                context.getBean(ProductSearchService.class).rebuild();
+                context.getBean(StockAlertService.class).rebuild();
+                context.getBean(StockReservationService.class).reconcile();
+            }
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            return drive(dataset, "http://127.0.0.1:" + port);
+        }
+    }
+
+    private boolean load(JdbcTemplate jdbcTemplate, LoadDataset dataset) throws Exception {
+        LoadDataGenerator generator = new LoadDataGenerator(jdbcTemplate, dataset, GENERATOR_THREADS);
+        if (generator.alreadyLoaded()) {
+            System.out.println("massa " + dataset.prefix() + " já carregada, reaproveitando");
+            return false;
+        }
+        System.out.println("carregando massa " + dataset.prefix() + ": " + dataset.volumes());
+        generator.generate();
+        return true;
+    }
+
+    private LoadWorkloadDriver.Report drive(LoadDataset dataset, String baseUrl) throws Exception {
+        LoadWorkloadDriver driver = new LoadWorkloadDriver(dataset,
+                LoadWorkloadDriver.Settings.fromSystemProperties(baseUrl));
+        LoadWorkloadDriver.Report report = driver.run();
+        LoadWorkloadDriver.print(report);
+        System.out.println("resultado em " + driver.write(report).toAbsolutePath());
+        return report;
+    }
+}
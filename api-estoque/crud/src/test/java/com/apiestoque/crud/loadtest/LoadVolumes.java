@@ -0,0 +1,33 @@
+package com.apiestoque.crud.loadtest;
+
+/**
+ * Volumes da massa sintética. Os padrões cabem no H2 em memória; para volumes de produção, por
+ * exemplo {@code -Dload.products=500000 -Dload.suppliers=5000 -Dload.inventories=2000000
+ * -Dload.exits=50000000 -Dload.receivements=50000000}.
+ */
+record LoadVolumes(
+        int categories,
+        int suppliers,
+        int products,
+        int inventories,
+        int users,
+        long exits,
+        long receivements,
+        double skew) {
+
+    static LoadVolumes fromSystemProperties() {
+        return new LoadVolumes(
+                Integer.getInteger("load.categories", 40),
+                Integer.getInteger("load.suppliers", 100),
+                Integer.getInteger("load.products", 5_000),
+                Integer.getInteger("load.inventories", 20_000),
+                Integer.getInteger("load.users", 200),
+                Long.getLong("load.exits", 100_000),
+                Long.getLong("load.receivements", 100_000),
+                Double.parseDouble(System.getProperty("load.skew", "1.1")));
+    }
+
+    int inventoriesPerProduct() {
+        return Math.max(1, inventories / products);
+    }
+}
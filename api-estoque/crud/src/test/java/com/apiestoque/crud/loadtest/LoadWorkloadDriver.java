@@ -0,0 +1,324 @@
+package com.apiestoque.crud.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reproduz tráfego misto contra os endpoints REST reais: login, listagem do catálogo, detalhe de
+ * produto, saída (pick) e recebimento, escolhendo os SKUs pela mesma popularidade da massa.
+ * <p>
+ * Sem {@code load.rate}, cada cliente só manda a próxima requisição depois da resposta (carga
+ * fechada, mede a capacidade). Com {@code load.rate} em requisições por segundo, as requisições têm
+ * horário marcado e a latência conta a partir desse horário, então uma fila no servidor aparece nos
+ * percentis em vez de só reduzir a vazão (sem omissão coordenada).
+ */
+final class LoadWorkloadDriver {
+    enum Operation { LOGIN, BROWSE_PAGE, BROWSE_PRODUCT, PICK, RECEIVE }
+
+    record Settings(URI baseUrl, int clients, Duration warmup, Duration duration, double rate,
+            Map<Operation, Integer> mix, long seed) {
+
+        static Settings fromSystemProperties(String baseUrl) {
+            return new Settings(
+                    URI.create(baseUrl),
+                    Integer.getInteger("load.clients", 64),
+                    Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10)),
+                    Duration.ofSeconds(Long.getLong("load.seconds", 30)),
+                    Double.parseDouble(System.getProperty("load.rate", "0")),
+                    mix(System.getProperty("load.mix", "login:2,page:25,product:45,pick:18,receive:10")),
+                    Long.getLong("load.seed", 42));
+        }
+
+        private static Map<Operation, Integer> mix(String spec) {
+            Map<String, Operation> names = Map.of("login", Operation.LOGIN, "page", Operation.BROWSE_PAGE,
+                    "product", Operation.BROWSE_PRODUCT, "pick", Operation.PICK, "receive", Operation.RECEIVE);
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split(":");
+                Operation operation = names.get(parts[0].trim());
+                if (operation == null || parts.length != 2) {
+                    throw new IllegalArgumentException("load.mix inválido: " + entry);
+                }
+                mix.put(operation, Integer.parseInt(parts[1].trim()));
+            }
+            return mix;
+        }
+    }
+
+    record OperationReport(long requests, double throughput, double p50, double p95, double p99, double max,
+            Map<String, Long> statuses) {
+    }
+
+    record Report(String baseUrl, int clients, double rate, long seconds, double throughput, long errors,
+            Map<Operation, OperationReport> operations) {
+    }
+
+    private static final int PAGE_SIZE = 20;
+
+    private final LoadDataset dataset;
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Operation[] weighted;
+
+    LoadWorkloadDriver(LoadDataset dataset, Settings settings) {
+        this.dataset = dataset;
+        this.settings = settings;
+
+        List<Operation> operations = new ArrayList<>();
+        settings.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        this.weighted = operations.toArray(Operation[]::new);
+    }
+
+    Report run() throws Exception {
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        // intervalo entre requisições de um mesmo cliente na carga aberta
+        long interval = settings.rate() > 0 ? (long) (settings.clients() * 1e9 / settings.rate()) : 0;
+
+        List<Future<Client>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < settings.clients(); c++) {
+                Client client = new Client(c);
+                futures.add(executor.submit(() -> {
+                    client.run(warmupEnd, end, interval);
+                    return client;
+                }));
+            }
+        }
+
+        List<Client> clients = new ArrayList<>();
+        for (Future<Client> future : futures) {
+            clients.add(future.get());
+        }
+        return report(clients);
+    }
+
+    Path write(Report report) throws IOException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path output = Path.of("target", "load-results", "load-" + timestamp + ".json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+        return output;
+    }
+
+    static void print(Report report) {
+        System.out.printf("%n%d clientes, %d s%s contra %s%n", report.clients(), report.seconds(),
+                report.rate() > 0 ? String.format(", %.0f req/s agendadas", report.rate()) : "", report.baseUrl());
+        System.out.printf("  %-15s %9s %9s %9s %9s %9s %9s  %s%n", "operação", "req", "req/s", "p50 ms", "p95 ms",
+                "p99 ms", "max ms", "status");
+        report.operations().forEach((operation, r) -> System.out.printf(
+                "  %-15s %9d %9.1f %9.2f %9.2f %9.2f %9.2f  %s%n", operation, r.requests(), r.throughput(), r.p50(),
+                r.p95(), r.p99(), r.max(), r.statuses()));
+        System.out.printf("  total %.1f req/s, %d erros (5xx ou falha de conexão)%n%n", report.throughput(),
+                report.errors());
+    }
+
+    private Report report(List<Client> clients) {
+        double seconds = settings.duration().toNanos() / 1e9;
+        Map<Operation, OperationReport> operations = new EnumMap<>(Operation.class);
+        long requests = 0;
+        long errors = 0;
+
+        for (Operation operation : Operation.values()) {
+            int total = clients.stream().mapToInt(client -> client.samples.get(operation).size).sum();
+            if (total == 0) {
+                continue;
+            }
+            long[] latencies = new long[total];
+            Map<String, Long> statuses = new TreeMap<>();
+            int offset = 0;
+            for (Client client : clients) {
+                Samples samples = client.samples.get(operation);
+                System.arraycopy(samples.latencies, 0, latencies, offset, samples.size);
+                offset += samples.size;
+                client.statuses.get(operation).forEach((status, count) -> statuses.merge(status, count, Long::sum));
+            }
+            Arrays.sort(latencies);
+
+            operations.put(operation, new OperationReport(total, total / seconds, millis(latencies, 0.50),
+                    millis(latencies, 0.95), millis(latencies, 0.99), latencies[total - 1] / 1e6, statuses));
+            requests += total;
+            errors += statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith("5") || entry.getKey().equals("io"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+        return new Report(settings.baseUrl().toString(), settings.clients(), settings.rate(),
+                settings.duration().toSeconds(), requests / seconds, errors, operations);
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * quantile) - 1)] / 1e6;
+    }
+
+    private final class Client {
+        private final int index;
+        private final SplittableRandom random;
+        private final Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+        private final Map<Operation, Map<String, Long>> statuses = new EnumMap<>(Operation.class);
+        private String token;
+
+        private Client(int index) {
+            this.index = index;
+            this.random = new SplittableRandom(settings.seed() * 31 + index);
+            for (Operation operation : Operation.values()) {
+                samples.put(operation, new Samples());
+                statuses.put(operation, new LinkedHashMap<>());
+            }
+        }
+
+        private void run(long warmupEnd, long end, long interval) {
+            // espalha o início dos clientes para a carga aberta não chegar em rajadas
+            long next = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+            while (System.nanoTime() < end) {
+                long scheduled;
+                if (interval > 0) {
+                    scheduled = next;
+                    next += interval;
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    scheduled = System.nanoTime();
+                }
+
+                Operation operation = token == null ? Operation.LOGIN : weighted[random.nextInt(weighted.length)];
+                String status = execute(operation);
+                long finished = System.nanoTime();
+
+                if (scheduled >= warmupEnd && finished < end) {
+                    samples.get(operation).add(finished - scheduled);
+                    statuses.get(operation).merge(status, 1L, Long::sum);
+                }
+                if (status.equals("401") || status.equals("403")) {
+                    token = null;
+                }
+            }
+        }
+
+        private String execute(Operation operation) {
+            try {
+                HttpResponse<String> response = httpClient.send(request(operation), HttpResponse.BodyHandlers.ofString());
+                if (operation == Operation.LOGIN && response.statusCode() == 200) {
+                    token = objectMapper.readTree(response.body()).path("token").asText(null);
+                }
+                return Integer.toString(response.statusCode());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "io";
+            } catch (IOException e) {
+                return "io";
+            }
+        }
+
+        private HttpRequest request(Operation operation) throws IOException {
+            return switch (operation) {
+                case LOGIN -> post("/api/auth/login", Map.of(
+                        "email", dataset.userEmail(index % dataset.volumes().users()),
+                        "password", LoadDataset.PASSWORD));
+                case BROWSE_PAGE -> get("/api/products?page=" + page() + "&size=" + PAGE_SIZE);
+                case BROWSE_PRODUCT -> get("/api/products/" + dataset.productId(dataset.popularProduct(random)));
+                case PICK -> {
+                    int product = dataset.popularProduct(random);
+                    yield post("/api/exits", Map.of(
+                            "productId", dataset.productId(product),
+                            "inventoryId", dataset.inventoryId(product, slot()),
+                            "quantity", 1 + random.nextInt(5),
+                            "exitStatus", "COMPLETED"));
+                }
+                case RECEIVE -> {
+                    int product = dataset.popularProduct(random);
+                    int[] suppliers = dataset.suppliersOf(product);
+                    yield post("/api/receivements", Map.of(
+                            "productId", dataset.productId(product),
+                            "supplierId", dataset.supplierId(suppliers[random.nextInt(suppliers.length)]),
+                            "inventoryId", dataset.inventoryId(product, slot()),
+                            "quantity", 10 * (5 + random.nextInt(46)),
+                            "receivingDate", LocalDate.now().toString(),
+                            "status", "COMPLETED",
+                            "description", "Reposição"));
+                }
+            };
+        }
+
+        // quase todo mundo fica nas primeiras páginas; poucos descem fundo no catálogo
+        private int page() {
+            int pages = Math.max(1, dataset.volumes().products() / PAGE_SIZE);
+            return (int) Math.min(pages - 1, -Math.log(1 - random.nextDouble()) * 3);
+        }
+
+        private int slot() {
+            return random.nextInt(dataset.volumes().inventoriesPerProduct());
+        }
+
+        private HttpRequest get(String path) {
+            return builder(path).GET().build();
+        }
+
+        private HttpRequest post(String path, Map<String, Object> body) throws IOException {
+            HttpRequest.Builder builder = builder(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (!path.startsWith("/api/auth/")) {
+                builder.header("Idempotency-Key", UUID.randomUUID().toString());
+            }
+            return builder.build();
+        }
+
+        private HttpRequest.Builder builder(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(settings.baseUrl().resolve(path))
+                    .timeout(Duration.ofSeconds(30));
+            if (token != null && !path.startsWith("/api/auth/")) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder;
+        }
+    }
+
+    // latências de um cliente, sem sincronização: cada cliente grava só nas próprias amostras
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+
+        private void add(long latency) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.apiestoque.crud.loadtest;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf sobre {@code n} itens: o item de posição {@code k} sai com peso {@code 1 / k^s}. Com
+ * {@code s ≈ 1.1} e 500 mil produtos, o 1% mais vendido fica com cerca de 80% das saídas. As posições
+ * são espalhadas pelos índices com uma permutação fixa, para que os itens quentes não sejam os
+ * primeiros cadastrados (e, portanto, a primeira página da listagem).
+ */
+final class ZipfDistribution {
+    private final double[] cumulative;
+    private final long multiplier;
+    private final long inverse;
+
+    ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+
+        long m = 2_654_435_761L % n;
+        while (m == 0 || gcd(m, n) != 1) {
+            m++;
+        }
+        multiplier = m;
+        // o multiplicador é primo com n, então a permutação tem inverso modular
+        inverse = BigInteger.valueOf(m).modInverse(BigInteger.valueOf(n)).longValue();
+    }
+
+    int sample(RandomGenerator random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index(rank < 0 ? Math.min(-rank - 1, cumulative.length - 1) : rank);
+    }
+
+    /**
+     * Probabilidade do item no índice {@code index} (não na posição).
+     */
+    double probability(int index) {
+        int rank = rank(index);
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+
+    private int index(int rank) {
+        return (int) (rank * multiplier % cumulative.length);
+    }
+
+    private int rank(int index) {
+        return (int) (index * inverse % cumulative.length);
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,128 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.exit.dto.ExitRequestDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitResponseDTO;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.infra.retry.ConflictRetryAspect;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ExitRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExitService.class, StockMovementService.class, RollupService.class, StockMetrics.class, ConflictRetryAspect.class, SimpleMeterRegistry.class,
+        AopAutoConfiguration.class })
+@MockBean(StockReservationService.class)
+class ConflictRetryTests {
+    private static final int INITIAL_STOCK = 1000;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ExitRepository exitRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentExitUpdatesAreRetriedOrRejectedWithoutLosingStock() throws Exception {
+        Category category = new Category();
+        category.setName("Notebooks");
+        category = categoryRepository.save(category);
+
+        Product product = new Product("XPS 15", "Notebook", "NB-XPS15-" + System.nanoTime(),
+                new BigDecimal("12999.00"), category, new HashSet<>(), null);
+        product.setStockQuantity(INITIAL_STOCK);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(INITIAL_STOCK);
+        inventory = inventoryRepository.save(inventory);
+
+        ExitResponseDTO exit = exitService.create(new ExitRequestDTO(product.getId(), inventory.getId(), 1, null, null));
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            int quantity = i + 2;
+            String productId = product.getId();
+            String inventoryId = inventory.getId();
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    exitService.update(exit.id(), new ExitRequestDTO(productId, inventoryId, quantity, LocalDate.now(), null));
+                    accepted.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        int finalQuantity = exitRepository.findById(exit.id()).orElseThrow().getQuantity();
+        Inventory updatedInventory = inventoryRepository.findById(inventory.getId()).orElseThrow();
+        Product updatedProduct = productRepository.findById(product.getId()).orElseThrow();
+
+        assertTrue(accepted.get() > 1);
+        assertEquals(INITIAL_STOCK - finalQuantity, updatedInventory.getQuantity());
+        assertEquals(finalQuantity, updatedInventory.getExitQuantity());
+        assertEquals(INITIAL_STOCK - finalQuantity, updatedProduct.getStockQuantity());
+        assertTrue(meterRegistry.find("stock.write.retries").counter().count() > 0);
+    }
+}
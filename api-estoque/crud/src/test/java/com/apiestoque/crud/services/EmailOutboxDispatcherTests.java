@@ -0,0 +1,109 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.email.OutboxEmail;
+import com.apiestoque.crud.domain.email.dto.OutboxEmailResponseDTO;
+import com.apiestoque.crud.domain.email.dto.OutboxEmailStatus;
+import com.apiestoque.crud.repositories.OutboxEmailRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ EmailService.class, EmailOutboxDispatcher.class, SimpleMeterRegistry.class })
+class EmailOutboxDispatcherTests {
+    private static final FakeSmtpServer smtp = start();
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void smtpProperties(DynamicPropertyRegistry registry) {
+        registry.add("email.smtp.host", () -> "127.0.0.1");
+        registry.add("email.smtp.port", smtp::port);
+        registry.add("email.smtp.username", () -> "");
+        registry.add("email.smtp.starttls", () -> "false");
+        registry.add("email.from", () -> "estoque@localhost");
+        registry.add("email.outbox.max-attempts", () -> "2");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void sendsQueuedEmailsOverASingleConnectionAndRetriesBounces() {
+        List<OutboxEmailResponseDTO> queued = IntStream.range(0, 3)
+                .mapToObj(i -> emailService.sendEmail("cliente" + i + "@localhost", "Pedido " + i, "Corpo " + i))
+                .toList();
+        OutboxEmailResponseDTO bounce = emailService.sendEmail("bounce@localhost", "Falha", "Corpo");
+        queued.forEach(email -> assertEquals(OutboxEmailStatus.PENDING, email.status()));
+
+        int connectionsBefore = smtp.connections();
+        dispatcher.dispatch();
+
+        assertEquals(connectionsBefore + 1, smtp.connections());
+        assertEquals(3, smtp.messages());
+        for (OutboxEmailResponseDTO email : queued) {
+            OutboxEmail sent = outboxEmailRepository.findById(email.id()).orElseThrow();
+            assertEquals(OutboxEmailStatus.SENT, sent.getStatus());
+            assertEquals(1, sent.getAttempts());
+        }
+
+        OutboxEmail retried = outboxEmailRepository.findById(bounce.id()).orElseThrow();
+        assertEquals(OutboxEmailStatus.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertTrue(retried.getNextAttemptAt().isAfter(retried.getCreatedAt()));
+
+        retried.setNextAttemptAt(retried.getCreatedAt());
+        outboxEmailRepository.save(retried);
+        dispatcher.dispatch();
+
+        OutboxEmail dead = outboxEmailRepository.findById(bounce.id()).orElseThrow();
+        assertEquals(OutboxEmailStatus.DEAD, dead.getStatus());
+        assertEquals(2, dead.getAttempts());
+        assertEquals(3.0, meterRegistry.counter("email.outbox.sent").count());
+        assertEquals(1.0, meterRegistry.counter("email.outbox.dead").count());
+        assertEquals(0.0, meterRegistry.get("email.outbox.pending").gauge().value());
+    }
+
+    private static FakeSmtpServer start() {
+        try {
+            return new FakeSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
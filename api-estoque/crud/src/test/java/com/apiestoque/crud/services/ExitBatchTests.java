@@ -0,0 +1,166 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.apiestoque.crud.domain.exit.dto.ExitBatchLineResultDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitBatchRequestDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitBatchResponseDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitRequestDTO;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExitService.class, StockMovementService.class, RollupService.class, StockMetrics.class, SimpleMeterRegistry.class })
+class ExitBatchTests {
+    @MockBean
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void atomicBatchRejectsEveryLineWhenOneFails() {
+        Inventory first = stockedInventory("Atomico A", 10);
+        Inventory second = stockedInventory("Atomico B", 3);
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> exitService.createBatch(new ExitBatchRequestDTO(List.of(line(first, 4), line(second, 5)), false)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertTrue(rejected.getReason().contains("Linha 2: Estoque insuficiente no inventário!"), rejected.getReason());
+        assertStock(first, 10);
+        assertStock(second, 3);
+        assertEquals(0, exitCount(first));
+    }
+
+    @Test
+    void partialBatchKeepsValidLinesAndReportsTheRest() {
+        Inventory first = stockedInventory("Parcial A", 10);
+        Inventory second = stockedInventory("Parcial B", 3);
+
+        // A terceira linha cabe sozinha no inventário, mas não depois da primeira.
+        ExitBatchResponseDTO response = exitService.createBatch(new ExitBatchRequestDTO(
+                List.of(line(first, 4), line(second, 5), line(first, 7)), true));
+
+        assertEquals(1, response.accepted());
+        assertEquals(2, response.rejected());
+        List<ExitBatchLineResultDTO> lines = response.lines();
+        assertTrue(lines.get(0).accepted());
+        assertNotNull(lines.get(0).exitId());
+        assertEquals("Estoque insuficiente no inventário!", lines.get(1).message());
+        assertEquals("Estoque insuficiente no inventário!", lines.get(2).message());
+
+        assertStock(first, 6);
+        assertStock(second, 3);
+        assertEquals(1, exitCount(first));
+        assertEquals(0, exitCount(second));
+    }
+
+    @Test
+    void inventoryOfAnotherProductIsRejected() {
+        Inventory first = stockedInventory("Troca A", 10);
+        Inventory second = stockedInventory("Troca B", 10);
+        ExitRequestDTO mismatched = new ExitRequestDTO(second.getProduct().getId(), first.getId(), 2, null, null);
+
+        ResponseStatusException atomic = assertThrows(ResponseStatusException.class,
+                () -> exitService.createBatch(new ExitBatchRequestDTO(List.of(line(second, 1), mismatched), null)));
+        assertTrue(atomic.getReason().contains("Linha 2: O inventário informado não pertence ao produto!"), atomic.getReason());
+
+        ExitBatchResponseDTO partial = exitService.createBatch(new ExitBatchRequestDTO(List.of(line(second, 1), mismatched), true));
+        assertEquals(1, partial.accepted());
+        assertEquals("O inventário informado não pertence ao produto!", partial.lines().get(1).message());
+
+        assertStock(first, 10);
+        assertStock(second, 9);
+    }
+
+    @Test
+    void partialBatchRejectsLinesWhoseStockIsReserved() {
+        Inventory first = stockedInventory("Reservado A", 10);
+        Inventory second = stockedInventory("Reservado B", 10);
+        when(stockReservationService.debitDirectExit(eq(second.getId()), anyInt()))
+                .thenReturn(StockReservationService.DirectDebit.INSUFFICIENT);
+
+        ExitBatchResponseDTO response = exitService.createBatch(new ExitBatchRequestDTO(
+                List.of(line(first, 2), line(second, 2)), true));
+
+        assertEquals(1, response.accepted());
+        assertEquals("Estoque insuficiente no inventário!", response.lines().get(1).message());
+        assertStock(first, 8);
+        assertStock(second, 10);
+    }
+
+    private Inventory stockedInventory(String name, int quantity) {
+        Category category = new Category();
+        category.setName(name);
+        category = categoryRepository.save(category);
+
+        Product product = new Product(name, "Lote", "BATCH-" + System.nanoTime(), BigDecimal.TEN, category,
+                new HashSet<>(), null);
+        product.setStockQuantity(quantity);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(quantity);
+        return inventoryRepository.save(inventory);
+    }
+
+    private void assertStock(Inventory inventory, int quantity) {
+        assertEquals(quantity, inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantity());
+        assertEquals(quantity, productRepository.findById(inventory.getProduct().getId()).orElseThrow().getStockQuantity());
+    }
+
+    private int exitCount(Inventory inventory) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exits WHERE product_id = ?", Integer.class,
+                inventory.getProduct().getId());
+    }
+
+    private static ExitRequestDTO line(Inventory inventory, int quantity) {
+        return new ExitRequestDTO(inventory.getProduct().getId(), inventory.getId(), quantity, null, null);
+    }
+}
@@ -0,0 +1,148 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.apiestoque.crud.domain.exit.dto.ExitRequestDTO;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ExitRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExitService.class, StockMovementService.class, RollupService.class, StockMetrics.class, SimpleMeterRegistry.class })
+@MockBean(StockReservationService.class)
+class ExitServiceConcurrencyTests {
+    private static final int INITIAL_STOCK = 100;
+    private static final int ATTEMPTS = 250;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ExitRepository exitRepository;
+
+    @Test
+    void concurrentExitsNeverOversellTheInventory() throws Exception {
+        Category category = new Category();
+        category.setName("Smartphones");
+        category = categoryRepository.save(category);
+
+        Product product = new Product("Galaxy S23", "Smartphone", "SM-GS23-" + System.nanoTime(),
+                new BigDecimal("4999.00"), category, new HashSet<>(), null);
+        product.setStockQuantity(INITIAL_STOCK);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(INITIAL_STOCK);
+        inventory = inventoryRepository.save(inventory);
+
+        ExitRequestDTO request = new ExitRequestDTO(product.getId(), inventory.getId(), 1, null, null);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    exitService.create(request);
+                    accepted.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Inventory updatedInventory = inventoryRepository.findById(inventory.getId()).orElseThrow();
+        Product updatedProduct = productRepository.findById(product.getId()).orElseThrow();
+
+        assertEquals(INITIAL_STOCK, accepted.get());
+        assertEquals(ATTEMPTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, updatedInventory.getQuantity());
+        assertEquals(INITIAL_STOCK, updatedInventory.getExitQuantity());
+        assertEquals(0, updatedProduct.getStockQuantity());
+        assertEquals(INITIAL_STOCK, exitRepository.findAllByProductId(product.getId()).size());
+    }
+
+    @Test
+    void exitWithAnotherProductsInventoryIsRejectedWithoutMovingStock() {
+        Category category = new Category();
+        category.setName("Notebooks");
+        category = categoryRepository.save(category);
+
+        Product owner = new Product("ThinkPad T14", "Notebook", "LN-T14-" + System.nanoTime(),
+                new BigDecimal("7999.00"), category, new HashSet<>(), null);
+        owner.setStockQuantity(INITIAL_STOCK);
+        owner = productRepository.save(owner);
+
+        Product other = new Product("ThinkPad X1", "Notebook", "LN-X1-" + System.nanoTime(),
+                new BigDecimal("9999.00"), category, new HashSet<>(), null);
+        other.setStockQuantity(INITIAL_STOCK);
+        other = productRepository.save(other);
+
+        Inventory inventory = new Inventory(owner, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(INITIAL_STOCK);
+        inventory = inventoryRepository.save(inventory);
+
+        ExitRequestDTO request = new ExitRequestDTO(other.getId(), inventory.getId(), 5, null, null);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> exitService.create(request));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(INITIAL_STOCK, inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantity());
+        assertEquals(INITIAL_STOCK, productRepository.findById(owner.getId()).orElseThrow().getStockQuantity());
+        assertEquals(INITIAL_STOCK, productRepository.findById(other.getId()).orElseThrow().getStockQuantity());
+    }
+}
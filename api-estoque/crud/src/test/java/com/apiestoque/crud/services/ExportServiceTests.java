@@ -0,0 +1,130 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.infra.export.ExportFilter;
+import com.apiestoque.crud.infra.export.ExportFormat;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExportService.class, SimpleMeterRegistry.class })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportServiceTests {
+    private static final int ROWS = 5_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2001, 1, 1);
+    private static final ExportFilter ALL = new ExportFilter(FIRST_DAY, FIRST_DAY.plusDays(9), null);
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        Category category = new Category();
+        category.setName("Exportação");
+        category = categoryRepository.save(category);
+
+        Product product = productRepository.save(new Product("Cabo, USB \"tipo C\"", "Cabo", "EXP-" + System.nanoTime(),
+                new BigDecimal("12.50"), category, new HashSet<>(), null));
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] { UUID.randomUUID().toString(), product.getId(), 2, "INV-EXP", 0L,
+                    i % 2 == 0 ? "COMPLETED" : "PENDING", new Timestamp(System.currentTimeMillis()),
+                    FIRST_DAY.plusDays(i % 10) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO exits (id, product_id, quantity, inventory_code, version, " +
+                "exit_status, created_at, exit_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void csvExportAppliesFiltersAndEscapesFields() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportFilter filter = new ExportFilter(FIRST_DAY, FIRST_DAY.plusDays(3), "COMPLETED");
+
+        long exported = exportService.exportExits(filter, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS / 10 * 2, exported);
+        assertEquals(exported + 1, lines.length);
+        assertTrue(lines[0].startsWith("id,product_id,product_code,product_name,inventory_code,quantity"));
+        assertTrue(lines[1].contains(",\"Cabo, USB \"\"tipo C\"\"\",INV-EXP,2,12.50,25.00,COMPLETED,2001-01-01,"));
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.exportExits(ALL, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS, exported);
+        assertEquals(ROWS, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("Cabo, USB \"tipo C\"", first.get("product_name").asText());
+        assertEquals(0, new BigDecimal("25.00").compareTo(first.get("total_price").decimalValue()));
+        assertEquals("2001-01-01", first.get("exit_date").asText());
+    }
+
+    @Test
+    void exportStopsWhenTheClientDisconnects() {
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        long exported = exportService.exportExits(ALL, ExportFormat.CSV, disconnected);
+
+        assertTrue(exported < ROWS, "a exportação deveria parar na primeira escrita com falha");
+    }
+}
@@ -0,0 +1,103 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.exit.Exit;
+import com.apiestoque.crud.domain.exit.dto.ExitResponseDTO;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.infra.pagination.CursorPage;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ExitRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExitService.class, StockMovementService.class, RollupService.class, StockMetrics.class, SimpleMeterRegistry.class })
+@MockBean(StockReservationService.class)
+class KeysetPaginationTests {
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ExitRepository exitRepository;
+
+    @Test
+    void scrollVisitsEveryRowOnceEvenWhenSortKeysTie() {
+        Category category = new Category();
+        category.setName("Cursor");
+        category = categoryRepository.save(category);
+
+        Product product = productRepository.save(new Product("Produto", "Cursor", "CUR-" + System.nanoTime(),
+                BigDecimal.TEN, category, new HashSet<>(), null));
+
+        // Todas as saídas têm o mesmo exitDate, então só o id desempata a ordenação.
+        List<Exit> exits = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            exits.add(new Exit(product, 1, "INV-CUR", null));
+        }
+        exitRepository.saveAll(exits);
+
+        Set<String> seen = new HashSet<>();
+        CursorPage<ExitResponseDTO> page;
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            page = exitService.scroll(cursor, "exitDate", "asc", 5);
+            page.content().forEach(exit -> assertTrue(seen.add(exit.id()), "Saída repetida: " + exit.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // A rolagem percorre todas as saídas do banco; as deste teste precisam estar entre elas, e a
+        // página que encerra a rolagem (sem próximo cursor) não pode vir vazia.
+        exits.forEach(exit -> assertTrue(seen.contains(exit.getId()), "Saída não visitada: " + exit.getId()));
+        assertFalse(page.content().isEmpty());
+        assertEquals(exitRepository.count(), seen.size());
+        assertEquals((seen.size() + 4) / 5, pages);
+    }
+
+    @Test
+    void rejectsTamperedCursorAndUnknownSort() {
+        ResponseStatusException tampered = assertThrows(ResponseStatusException.class,
+                () -> exitService.scroll("bm9wZQ", null, null, 10));
+        ResponseStatusException unknownSort = assertThrows(ResponseStatusException.class,
+                () -> exitService.scroll(null, "quantity", null, 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, tampered.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, unknownSort.getStatusCode());
+    }
+}
@@ -0,0 +1,174 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.exit.Exit;
+import com.apiestoque.crud.domain.exit.dto.ExitStatus;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.product.category.dto.CategoryResponseDTO;
+import com.apiestoque.crud.domain.receivement.Receivement;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementStatus;
+import com.apiestoque.crud.domain.supplier.Supplier;
+import com.apiestoque.crud.domain.supplier.dto.SupplierCommunicationPreference;
+import com.apiestoque.crud.domain.supplier.dto.SupplierResponseDTO;
+import com.apiestoque.crud.infra.cache.ProductDetailsCache;
+import com.apiestoque.crud.infra.cache.ReferenceDataCache;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ExitRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.repositories.ReceivementRepository;
+import com.apiestoque.crud.repositories.SupplierRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Garante que as listagens paginadas executam um número fixo de consultas, independente do
+ * tamanho da página. Um N+1 reintroduzido faz a contagem crescer com a página e quebra o teste.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ProductService.class, ProductDetailsCache.class, ExitService.class, ReceivementService.class, StockMovementService.class, RollupService.class, StockMetrics.class, SimpleMeterRegistry.class })
+@MockBean(StockReservationService.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListQueryCountTests {
+    private static final int PRODUCTS = 30;
+    private static final int SMALL_PAGE = 5;
+    private static final int LARGE_PAGE = 25;
+
+    @MockBean
+    private ReferenceDataCache<CategoryResponseDTO> categoryCache;
+
+    @MockBean
+    private ReferenceDataCache<SupplierResponseDTO> supplierCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private ReceivementService receivementService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ExitRepository exitRepository;
+
+    @Autowired
+    private ReceivementRepository receivementRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void seed() {
+        long seed = System.nanoTime();
+        Set<Supplier> suppliers = new HashSet<>();
+
+        for (int i = 0; i < 3; i++) {
+            suppliers.add(supplierRepository.save(new Supplier(
+                    "Fornecedor " + i + "-" + seed, i + "-" + seed + "@fornecedor.com", "1199999000" + i,
+                    i + "-" + seed, null, null, null, SupplierCommunicationPreference.values()[0])));
+        }
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Category category = new Category();
+            category.setName("Categoria " + i + "-" + seed);
+            category = categoryRepository.save(category);
+
+            Product product = productRepository.save(new Product("Produto " + i, "Descrição", "P-" + i + "-" + seed,
+                    new BigDecimal("10.00"), category, suppliers, null));
+
+            for (int j = 0; j < 2; j++) {
+                Inventory inventory = inventoryRepository.save(
+                        new Inventory(product, BigDecimal.ZERO, "INV-" + i + "-" + j + "-" + seed));
+
+                exitRepository.save(new Exit(product, 1, inventory.getInventoryCode(), ExitStatus.values()[0]));
+                receivementRepository.save(new Receivement(product, suppliers.iterator().next(),
+                        inventory.getInventoryCode(), "Recebimento", 1, BigDecimal.TEN, LocalDate.now(),
+                        ReceivementStatus.values()[0]));
+            }
+        }
+    }
+
+    @Test
+    void productListRunsBoundedQueries() {
+        assertBounded(4, size -> productService.getAll(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void inventoryListRunsBoundedQueries() {
+        assertBounded(2, size -> productService.getAllInventories(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void exitListRunsBoundedQueries() {
+        assertBounded(2, size -> exitService.getAll(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void receivementListRunsBoundedQueries() {
+        assertBounded(2, size -> receivementService.getAll(PageRequest.of(0, size)));
+    }
+
+    private void assertBounded(long maxQueries, IntFunction<Page<?>> endpoint) {
+        long small = countQueries(endpoint, SMALL_PAGE);
+        long large = countQueries(endpoint, LARGE_PAGE);
+
+        assertTrue(small <= maxQueries, "Consultas na página de " + SMALL_PAGE + ": " + small);
+        assertEquals(small, large, "A quantidade de consultas não pode crescer com o tamanho da página");
+    }
+
+    private long countQueries(IntFunction<Page<?>> endpoint, int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<?> content = endpoint.apply(pageSize).getContent();
+        assertEquals(pageSize, content.size());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
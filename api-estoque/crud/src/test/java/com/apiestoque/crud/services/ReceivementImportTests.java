@@ -0,0 +1,194 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.movement.StockChangedEvent;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementImportErrorDTO;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementImportProgressDTO;
+import com.apiestoque.crud.domain.supplier.Supplier;
+import com.apiestoque.crud.domain.supplier.dto.SupplierCommunicationPreference;
+import com.apiestoque.crud.infra.RedisConfig;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.repositories.SupplierRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({ RedisAutoConfiguration.class, JacksonAutoConfiguration.class })
+@Import({ RedisConfig.class, ReceivementImportService.class, StockMovementService.class, RollupService.class,
+        StockMetrics.class, SimpleMeterRegistry.class })
+@RecordApplicationEvents
+class ReceivementImportTests {
+    @Autowired
+    private ReceivementImportService importService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void csvRowsWithErrorsAreReportedByLineAndTheRestIsImported() {
+        Inventory inventory = stockedInventory("Importa CSV", 0);
+        Inventory other = stockedInventory("Outro CSV", 0);
+        Supplier supplier = supplier();
+        String productId = inventory.getProduct().getId();
+
+        String csv = String.join("\n",
+                "productId,supplierId,description,inventoryId,quantity,receivingDate,status",
+                row(productId, supplier, inventory.getId(), "5", "COMPLETED"),
+                row(productId, supplier, inventory.getId(), "abc", "COMPLETED"),
+                "",
+                row(productId, supplier, "inventario-inexistente", "3", "COMPLETED"),
+                row(productId, supplier, other.getId(), "3", "COMPLETED"),
+                row(productId, supplier, inventory.getId(), "0", "COMPLETED"),
+                row(productId, supplier, inventory.getId(), "7", "PENDING"));
+
+        ReceivementImportProgressDTO progress = importService.importReceivements(stream(csv),
+                ReceivementImportService.ImportFormat.CSV, null);
+
+        assertEquals("COMPLETED", progress.status());
+        assertEquals(8, progress.processedLines());
+        assertEquals(2, progress.importedLines());
+        assertEquals(4, progress.failedLines());
+        assertEquals(List.of(3L, 5L, 6L, 7L), progress.errors().stream().map(ReceivementImportErrorDTO::line).toList());
+        assertEquals("O inventário informado não pertence ao produto.", progress.errors().get(2).message());
+
+        assertStock(inventory, 12);
+        assertStock(other, 0);
+        assertEquals(2, receivementCount(inventory));
+    }
+
+    @Test
+    void ndjsonImportSpansChunksAndKeepsOneStockUpdatePerInventory() {
+        Inventory inventory = stockedInventory("Importa NDJSON", 10);
+        Supplier supplier = supplier();
+        String importId = "import-" + inventory.getId();
+
+        // 1.203 linhas: três lotes de 500, com a linha inválida abrindo o segundo.
+        StringBuilder ndjson = new StringBuilder();
+        for (int line = 1; line <= 1_203; line++) {
+            ndjson.append(line == 501
+                    ? "{ nao e json"
+                    : "{\"productId\":\"" + inventory.getProduct().getId() + "\",\"supplierId\":\"" + supplier.getId()
+                            + "\",\"inventoryId\":\"" + inventory.getId() + "\",\"quantity\":2,\"status\":\"COMPLETED\"}")
+                    .append('\n');
+        }
+
+        ReceivementImportProgressDTO progress = importService.importReceivements(stream(ndjson.toString()),
+                ReceivementImportService.ImportFormat.NDJSON, importId);
+
+        assertEquals(1_203, progress.processedLines());
+        assertEquals(1_202, progress.importedLines());
+        assertEquals(1, progress.failedLines());
+        assertEquals(501, progress.errors().get(0).line());
+
+        ReceivementImportProgressDTO polled = importService.getProgress(importId);
+        assertEquals("COMPLETED", polled.status());
+        assertEquals(1_202, polled.importedLines());
+
+        assertStock(inventory, 10 + 1_202 * 2);
+        assertEquals(1_202, receivementCount(inventory));
+        assertEquals(List.of(new StockChangedEvent(inventory.getId(), inventory.getProduct().getId(), 1_202 * 2, false)),
+                events.stream(StockChangedEvent.class).toList());
+
+        ResponseStatusException duplicate = assertThrows(ResponseStatusException.class,
+                () -> importService.importReceivements(stream(""), ReceivementImportService.ImportFormat.NDJSON, importId));
+        assertEquals(HttpStatus.CONFLICT, duplicate.getStatusCode());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnIsRejected() {
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> importService.importReceivements(stream("productId,supplierId,quantity\n"),
+                        ReceivementImportService.ImportFormat.CSV, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+    }
+
+    private Inventory stockedInventory(String name, int quantity) {
+        Category category = new Category();
+        category.setName(name);
+        category = categoryRepository.save(category);
+
+        Product product = new Product(name, "Importação", "IMP-" + System.nanoTime(), BigDecimal.TEN, category,
+                new HashSet<>(), null);
+        product.setStockQuantity(quantity);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(quantity);
+        return inventoryRepository.save(inventory);
+    }
+
+    private Supplier supplier() {
+        String seed = Long.toString(System.nanoTime(), 36);
+        return supplierRepository.save(new Supplier("Fornecedor " + seed, seed + "@fornecedor.com", "11999990000",
+                seed, null, null, null, SupplierCommunicationPreference.values()[0]));
+    }
+
+    private void assertStock(Inventory inventory, int quantity) {
+        assertEquals(quantity, inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantity());
+        assertEquals(quantity, productRepository.findById(inventory.getProduct().getId()).orElseThrow().getStockQuantity());
+    }
+
+    private int receivementCount(Inventory inventory) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM receivings WHERE inventory_code = ?", Integer.class,
+                inventory.getInventoryCode());
+    }
+
+    private static String row(String productId, Supplier supplier, String inventoryId, String quantity, String status) {
+        return String.join(",", productId, supplier.getId(), "\"Nota, com vírgula\"", inventoryId, quantity, "", status);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,123 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementRequestDTO;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementResponseDTO;
+import com.apiestoque.crud.domain.receivement.dto.ReceivementStatus;
+import com.apiestoque.crud.domain.supplier.Supplier;
+import com.apiestoque.crud.domain.supplier.dto.SupplierCommunicationPreference;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.apiestoque.crud.repositories.ReceivementRepository;
+import com.apiestoque.crud.repositories.SupplierRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReceivementService.class, StockMovementService.class, RollupService.class, StockMetrics.class,
+        SimpleMeterRegistry.class })
+class ReceivementServiceTests {
+    @Autowired
+    private ReceivementService receivementService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private ReceivementRepository receivementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reversalCannotTakeStockAlreadyConsumedByExits() {
+        Inventory inventory = stockedInventory("Estorno", 0);
+        Supplier supplier = supplier();
+        ReceivementResponseDTO receivement = receivementService.create(request(inventory, supplier, 10));
+
+        // Saídas consumiram 7 das 10 unidades recebidas.
+        jdbcTemplate.update("UPDATE inventory SET quantity = 3 WHERE id = ?", inventory.getId());
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 3 WHERE id = ?", inventory.getProduct().getId());
+
+        ResponseStatusException reduced = assertThrows(ResponseStatusException.class,
+                () -> receivementService.update(receivement.id(), request(inventory, supplier, 4)));
+        assertEquals(HttpStatus.CONFLICT, reduced.getStatusCode());
+
+        ResponseStatusException deleted = assertThrows(ResponseStatusException.class,
+                () -> receivementService.delete(receivement.id()));
+        assertEquals(HttpStatus.CONFLICT, deleted.getStatusCode());
+        assertTrue(receivementRepository.existsById(receivement.id()));
+        assertStock(inventory, 3);
+
+        receivementService.update(receivement.id(), request(inventory, supplier, 8));
+        assertStock(inventory, 1);
+        assertEquals(8, inventoryRepository.findById(inventory.getId()).orElseThrow().getReceivementQuantity());
+    }
+
+    private Inventory stockedInventory(String name, int quantity) {
+        Category category = new Category();
+        category.setName(name);
+        category = categoryRepository.save(category);
+
+        Product product = new Product(name, "Recebimento", "REC-" + System.nanoTime(), BigDecimal.TEN, category,
+                new HashSet<>(), null);
+        product.setStockQuantity(quantity);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(quantity);
+        return inventoryRepository.save(inventory);
+    }
+
+    private Supplier supplier() {
+        String seed = Long.toString(System.nanoTime(), 36);
+        return supplierRepository.save(new Supplier("Fornecedor " + seed, seed + "@fornecedor.com", "11999990000",
+                seed, null, null, null, SupplierCommunicationPreference.values()[0]));
+    }
+
+    private void assertStock(Inventory inventory, int quantity) {
+        assertEquals(quantity, inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantity());
+        assertEquals(quantity, productRepository.findById(inventory.getProduct().getId()).orElseThrow().getStockQuantity());
+    }
+
+    private static ReceivementRequestDTO request(Inventory inventory, Supplier supplier, int quantity) {
+        return new ReceivementRequestDTO(inventory.getProduct().getId(), supplier.getId(), null, inventory.getId(),
+                quantity, LocalDate.now(), ReceivementStatus.COMPLETED);
+    }
+}
@@ -0,0 +1,128 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.apiestoque.crud.domain.exit.dto.ExitRequestDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitResponseDTO;
+import com.apiestoque.crud.domain.exit.dto.ExitStatus;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.report.dto.DailyRollupDTO;
+import com.apiestoque.crud.domain.report.dto.ProductRollupSummaryDTO;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ExitService.class, StockMovementService.class, RollupService.class, StockMetrics.class, ReportService.class, SimpleMeterRegistry.class })
+@MockBean(StockReservationService.class)
+class RollupServiceTests {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollupsCountEachMovementOnceAndFollowStatusChanges() {
+        Category category = new Category();
+        category.setName("Rollups " + System.nanoTime());
+        category = categoryRepository.save(category);
+
+        Product product = new Product("Monitor 27", "Monitor", "MON-" + System.nanoTime(),
+                new BigDecimal("100.00"), category, new HashSet<>(), null);
+        product.setStockQuantity(50);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, new BigDecimal("10.00"), "INV-" + System.nanoTime());
+        inventory.setQuantity(50);
+        inventory = inventoryRepository.save(inventory);
+
+        // Dois recebimentos no mesmo lote: com o join das views antigas cada saída contaria duas vezes.
+        String supplierId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO suppliers (id, social_reason, email, phone, cnpj, communication_preference, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, 'EMAIL', CURRENT_TIMESTAMP)", supplierId, "Fornecedor " + supplierId, supplierId + "@teste.com",
+                "11999999999", supplierId);
+        insertReceivement(product, supplierId, inventory.getInventoryCode(), 30, TODAY.minusDays(10));
+        insertReceivement(product, supplierId, inventory.getInventoryCode(), 20, TODAY.minusDays(4));
+        rollupService.markDirty(product.getId(), TODAY.minusDays(10), TODAY.minusDays(4));
+
+        exitService.create(new ExitRequestDTO(product.getId(), inventory.getId(), 2, null, null));
+        exitService.create(new ExitRequestDTO(product.getId(), inventory.getId(), 3, null, null));
+        ExitResponseDTO canceled = exitService.create(new ExitRequestDTO(product.getId(), inventory.getId(), 5, null, null));
+
+        rollupService.refresh();
+
+        List<DailyRollupDTO> daily = reportService.getProductDaily(product.getId(), TODAY.minusDays(10), TODAY);
+        assertEquals(3, daily.size());
+        assertEquals(30, daily.get(0).quantityIn());
+        assertEquals(20, daily.get(1).quantityIn());
+        assertEquals(10, daily.get(2).quantityOut());
+        assertEquals(new BigDecimal("900.00"), daily.get(2).revenue());
+        assertEquals(10.0, daily.get(2).averageDaysToExit());
+
+        ProductRollupSummaryDTO summary = reportService
+                .getProductSummary(TODAY.minusDays(10), TODAY, category.getId(), PageRequest.of(0, 10))
+                .getContent().get(0);
+        assertEquals(50, summary.quantityIn());
+        assertEquals(10, summary.quantityOut());
+
+        // O cancelamento de produção passa por procedure do SQL Server; aqui basta o mesmo efeito no banco.
+        jdbcTemplate.update("UPDATE exits SET exit_status = ? WHERE id = ?", ExitStatus.CANCELED.name(), canceled.id());
+        rollupService.markDirty(product.getId(), TODAY);
+        rollupService.refresh();
+
+        DailyRollupDTO categoryToday = reportService.getCategoryDaily(category.getId(), TODAY, TODAY).get(0);
+        assertEquals(5, categoryToday.quantityOut());
+        assertEquals(new BigDecimal("450.00"), categoryToday.revenue());
+    }
+
+    private void insertReceivement(Product product, String supplierId, String inventoryCode, int quantity, LocalDate day) {
+        jdbcTemplate.update("INSERT INTO receivings (id, product_id, supplier_id, inventory_code, quantity, total_price, " +
+                "receiving_date, receiving_status, version, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, 'COMPLETED', 0, CURRENT_TIMESTAMP)",
+                UUID.randomUUID().toString(), product.getId(), supplierId, inventoryCode, quantity,
+                product.getUnitPrice().multiply(BigDecimal.valueOf(quantity)), day);
+    }
+}
@@ -0,0 +1,130 @@
+package com.apiestoque.crud.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.apiestoque.crud.domain.movement.StockChangedEvent;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.ProductChangedEvent;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashSet;
+
+@DataJpaTest(properties = "alerts.recipients=estoque@empresa.com")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ StockAlertService.class, SimpleMeterRegistry.class })
+class StockAlertServiceTests {
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean(name = "applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private StockAlertService alertService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        alertService.dispatch();
+        reset(emailService);
+    }
+
+    @Test
+    void stockChangeAppliesTheDeltaAndSendsItToTheOtherNodes() {
+        Product product = monitoredProduct("Alerta local", 12, 5);
+
+        // O banco não é relido: o saldo vem do delta do evento.
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 100 WHERE id = ?", product.getId());
+        alertService.onStockChanged(new StockChangedEvent(null, product.getId(), -8, false));
+        alertService.dispatch();
+
+        verify(emailService).sendEmail(eq("estoque@empresa.com"), anyString(), contains("Alerta local"));
+        verify(redisTemplate).convertAndSend(eq(StockAlertService.CHANGED_CHANNEL), endsWith(":" + product.getId() + ":-8"));
+    }
+
+    @Test
+    void stockChangeOnAnotherNodeAppliesTheDelta() {
+        Product product = monitoredProduct("Delta remoto", 12, 5);
+
+        alertService.onRemoteChange("outro-no:" + product.getId() + ":-9");
+        alertService.dispatch();
+
+        verify(emailService).sendEmail(eq("estoque@empresa.com"), anyString(), contains("Delta remoto"));
+        verify(redisTemplate, never()).convertAndSend(eq(StockAlertService.CHANGED_CHANNEL), anyString());
+    }
+
+    @Test
+    void productEditOnAnotherNodeIsRereadFromTheDatabase() {
+        Product product = monitoredProduct("Alerta remoto", 12, 5);
+
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 3 WHERE id = ?", product.getId());
+        alertService.onRemoteChange("outro-no:" + product.getId());
+        alertService.dispatch();
+
+        verify(emailService).sendEmail(eq("estoque@empresa.com"), anyString(), contains("Alerta remoto"));
+        verify(redisTemplate, never()).convertAndSend(eq(StockAlertService.CHANGED_CHANNEL), anyString());
+    }
+
+    private Product monitoredProduct(String name, int stock, int minimum) {
+        Category category = new Category();
+        category.setName("Alertas");
+        category = categoryRepository.save(category);
+
+        Product product = new Product(name, "Alerta", "ALR-" + System.nanoTime(), BigDecimal.TEN, category,
+                new HashSet<>(), null);
+        product.setStockQuantity(stock);
+        product = productRepository.save(product);
+        jdbcTemplate.update("UPDATE products SET minimum_stock = ? WHERE id = ?", minimum, product.getId());
+        alertService.onProductChanged(new ProductChangedEvent(product.getId()));
+        clearInvocations(redisTemplate);
+        return product;
+    }
+}
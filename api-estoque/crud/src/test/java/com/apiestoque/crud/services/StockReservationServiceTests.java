@@ -0,0 +1,363 @@
+package com.apiestoque.crud.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.apiestoque.crud.domain.exit.dto.ExitRequestDTO;
+import com.apiestoque.crud.domain.inventory.Inventory;
+import com.apiestoque.crud.domain.product.Product;
+import com.apiestoque.crud.domain.product.category.Category;
+import com.apiestoque.crud.domain.reservation.ConfirmedReservation;
+import com.apiestoque.crud.domain.reservation.dto.ReservationRequestDTO;
+import com.apiestoque.crud.domain.reservation.dto.ReservationResponseDTO;
+import com.apiestoque.crud.domain.reservation.dto.StockAvailabilityDTO;
+import com.apiestoque.crud.infra.RedisConfig;
+import com.apiestoque.crud.infra.metrics.StockMetrics;
+import com.apiestoque.crud.repositories.CategoryRepository;
+import com.apiestoque.crud.repositories.ExitRepository;
+import com.apiestoque.crud.repositories.InventoryRepository;
+import com.apiestoque.crud.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reservas contra o Redis de verdade (requer {@code redis:6379}). Cada teste usa um inventário
+ * novo; a fila de confirmações e a trava do write-behind são compartilhadas, então o flush também
+ * grava o que outro teste tenha deixado na fila.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({ RedisAutoConfiguration.class, JacksonAutoConfiguration.class })
+@Import({ RedisConfig.class, StockReservationService.class, ReservationWriteBehindService.class, ExitService.class,
+        StockMovementService.class, RollupService.class, StockMetrics.class, SimpleMeterRegistry.class })
+class StockReservationServiceTests {
+    private static final String QUEUE_KEY = "stock:confirmed";
+    private static final String DEAD_LETTER_KEY = "stock:confirmed:dead";
+    private static final String FLUSH_LOCK_KEY = "stock:writebehind:lock";
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private ExitService exitService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ExitRepository exitRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void uniqueReservationIndex() {
+        // No SQL Server é o índice filtrado do scripts/init.sql; no H2, NULLS DISTINCT faz o mesmo papel.
+        jdbcTemplate.execute("CREATE UNIQUE NULLS DISTINCT INDEX IF NOT EXISTS ux_exits_reservation_id ON exits (reservation_id)");
+    }
+
+    @Test
+    void confirmedHoldIsFlushedOnceEvenWhenRedelivered() throws Exception {
+        Inventory inventory = stockedInventory("Reserva", 10);
+
+        ReservationResponseDTO hold = reservationService.hold(request(inventory, 4, null));
+        assertAvailability(inventory, 6, 4, 0);
+
+        reservationService.confirm(hold.reservationId(), null);
+        assertAvailability(inventory, 6, 0, 4);
+
+        reservationService.flushConfirmed();
+        assertEquals(List.of(hold.reservationId()), exitRepository.findReservationIdsIn(List.of(hold.reservationId())));
+        assertEquals(6, quantity(inventory));
+        assertAvailability(inventory, 6, 0, 0);
+
+        // Reentrega do mesmo item, como depois de uma falha entre o commit e a retirada da fila.
+        redisTemplate.opsForList().rightPush(QUEUE_KEY, objectMapper.writeValueAsString(
+                new ConfirmedReservation(hold.reservationId(), inventory.getId(), inventory.getProduct().getId(), 4, null)));
+        reservationService.flushConfirmed();
+
+        assertEquals(1, exitRepository.findReservationIdsIn(List.of(hold.reservationId())).size());
+        assertEquals(6, quantity(inventory));
+    }
+
+    @Test
+    void holdCannotExceedFreeStockAndExpiredHoldsReturnIt() throws Exception {
+        Inventory inventory = stockedInventory("Expira", 10);
+
+        ReservationResponseDTO hold = reservationService.hold(request(inventory, 8, 1));
+        ResponseStatusException insufficient = assertThrows(ResponseStatusException.class,
+                () -> reservationService.hold(request(inventory, 3, null)));
+        assertEquals(HttpStatus.BAD_REQUEST, insufficient.getStatusCode());
+
+        Thread.sleep(1_100);
+        reservationService.releaseExpiredHolds();
+        assertAvailability(inventory, 10, 0, 0);
+
+        ResponseStatusException confirm = assertThrows(ResponseStatusException.class,
+                () -> reservationService.confirm(hold.reservationId(), null));
+        assertEquals(HttpStatus.NOT_FOUND, confirm.getStatusCode());
+    }
+
+    @Test
+    void directExitCannotTakeReservedStock() {
+        Inventory inventory = stockedInventory("Direta", 10);
+        ReservationResponseDTO hold = reservationService.hold(request(inventory, 8, null));
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> exitService.create(exit(inventory, 5)));
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(10, quantity(inventory));
+
+        exitService.create(exit(inventory, 2));
+        assertEquals(8, quantity(inventory));
+        assertAvailability(inventory, 0, 8, 0);
+
+        reservationService.cancel(hold.reservationId());
+        assertAvailability(inventory, 8, 0, 0);
+    }
+
+    @Test
+    void rolledBackDirectExitReturnsToTheCounter() {
+        Inventory inventory = stockedInventory("Rollback", 10);
+        assertAvailability(inventory, 10, 0, 0);
+
+        // O banco mudou por fora: o Redis aceita a baixa, o UPDATE condicional recusa e a transação volta.
+        jdbcTemplate.update("UPDATE inventory SET quantity = 1 WHERE id = ?", inventory.getId());
+        assertThrows(ResponseStatusException.class, () -> exitService.create(exit(inventory, 5)));
+
+        assertAvailability(inventory, 10, 0, 0);
+        assertEquals(1, quantity(inventory));
+    }
+
+    @Test
+    void concurrentDirectExitsNeverTakeReservedStock() throws Exception {
+        Inventory inventory = stockedInventory("Concorrida", 50);
+        reservationService.hold(request(inventory, 10, null));
+        String counter = "stock:inv:" + inventory.getId();
+        redisTemplate.expire(counter, Duration.ofSeconds(5));
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 60; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    exitService.create(exit(inventory, 1));
+                    accepted.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(40, accepted.get());
+        assertEquals(20, rejected.get());
+        assertEquals(10, quantity(inventory));
+        assertAvailability(inventory, 0, 10, 0);
+        assertTrue(redisTemplate.getExpire(counter, TimeUnit.SECONDS) > 5, "TTL do contador renovado pelas baixas");
+    }
+
+    @Test
+    void directExitFallsBackToTheDatabaseWhileTheCounterCannotBeLoaded() {
+        Inventory inventory = stockedInventory("Recarga", 10);
+        String sync = "stock:sync:" + inventory.getId();
+
+        redisTemplate.opsForHash().put(sync, "writers", "1");
+        try {
+            exitService.create(exit(inventory, 4));
+            assertEquals(6, quantity(inventory));
+            assertFalse(redisTemplate.hasKey("stock:inv:" + inventory.getId()));
+        } finally {
+            redisTemplate.delete(sync);
+        }
+
+        assertAvailability(inventory, 6, 0, 0);
+    }
+
+    @Test
+    void unreadableItemIsDeadLetteredWithoutBlockingTheQueue() {
+        Inventory inventory = stockedInventory("Descarte", 10);
+        String poison = "nao-e-json-" + inventory.getId();
+
+        redisTemplate.opsForList().rightPush(QUEUE_KEY, poison);
+        ReservationResponseDTO hold = reservationService.hold(request(inventory, 3, null));
+        reservationService.confirm(hold.reservationId(), null);
+
+        reservationService.flushConfirmed();
+
+        try {
+            assertTrue(redisTemplate.opsForList().range(DEAD_LETTER_KEY, 0, -1).contains(poison));
+            assertFalse(redisTemplate.opsForList().range(QUEUE_KEY, 0, -1).contains(poison));
+            assertEquals(7, quantity(inventory));
+            assertAvailability(inventory, 7, 0, 0);
+        } finally {
+            redisTemplate.opsForList().remove(DEAD_LETTER_KEY, 0, poison);
+        }
+    }
+
+    @Test
+    void reservationRejectedByTheDatabaseIsDeadLetteredAndTheRestOfTheGroupPersists() throws Exception {
+        Inventory inventory = stockedInventory("Recusa", 10);
+
+        ReservationResponseDTO first = reservationService.hold(request(inventory, 4, null));
+        ReservationResponseDTO second = reservationService.hold(request(inventory, 5, null));
+        reservationService.confirm(first.reservationId(), null);
+        reservationService.confirm(second.reservationId(), null);
+
+        // Só cabe a primeira: o agregado (9) é recusado e o lote é baixado reserva a reserva.
+        jdbcTemplate.update("UPDATE inventory SET quantity = 6 WHERE id = ?", inventory.getId());
+        reservationService.flushConfirmed();
+
+        String rejected = objectMapper.writeValueAsString(new ConfirmedReservation(second.reservationId(),
+                inventory.getId(), inventory.getProduct().getId(), 5, null));
+        try {
+            assertEquals(List.of(first.reservationId()),
+                    exitRepository.findReservationIdsIn(List.of(first.reservationId(), second.reservationId())));
+            assertEquals(2, quantity(inventory));
+            assertTrue(redisTemplate.opsForList().range(DEAD_LETTER_KEY, 0, -1).stream()
+                    .anyMatch(item -> item.contains(second.reservationId())));
+            assertAvailability(inventory, 2, 0, 0);
+        } finally {
+            redisTemplate.opsForList().remove(DEAD_LETTER_KEY, 0, rejected);
+        }
+    }
+
+    @Test
+    void flushWaitsWhileAnotherNodeHoldsTheLock() {
+        Inventory inventory = stockedInventory("Trava", 10);
+        ReservationResponseDTO hold = reservationService.hold(request(inventory, 2, null));
+        reservationService.confirm(hold.reservationId(), null);
+
+        redisTemplate.opsForValue().set(FLUSH_LOCK_KEY, "outro-no");
+        try {
+            reservationService.flushConfirmed();
+            assertTrue(exitRepository.findReservationIdsIn(List.of(hold.reservationId())).isEmpty());
+            assertEquals("outro-no", redisTemplate.opsForValue().get(FLUSH_LOCK_KEY));
+        } finally {
+            redisTemplate.delete(FLUSH_LOCK_KEY);
+        }
+
+        reservationService.flushConfirmed();
+        assertEquals(List.of(hold.reservationId()), exitRepository.findReservationIdsIn(List.of(hold.reservationId())));
+    }
+
+    @Test
+    void counterIsNotLoadedWhileAnotherNodeIsWriting() {
+        Inventory inventory = stockedInventory("Sincronia", 10);
+        String sync = "stock:sync:" + inventory.getId();
+
+        redisTemplate.opsForHash().put(sync, "writers", "1");
+        try {
+            ResponseStatusException unavailable = assertThrows(ResponseStatusException.class,
+                    () -> reservationService.getAvailability(inventory.getId()));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, unavailable.getStatusCode());
+        } finally {
+            redisTemplate.delete(sync);
+        }
+
+        assertAvailability(inventory, 10, 0, 0);
+    }
+
+    @Test
+    void reconcileRebuildsTheCounterFromTheDatabase() {
+        Inventory inventory = stockedInventory("Reconcilia", 10);
+        reservationService.hold(request(inventory, 3, null));
+
+        jdbcTemplate.update("UPDATE inventory SET quantity = 20 WHERE id = ?", inventory.getId());
+        reservationService.reconcile();
+
+        assertAvailability(inventory, 17, 3, 0);
+    }
+
+    private Inventory stockedInventory(String name, int quantity) {
+        Category category = new Category();
+        category.setName(name);
+        category = categoryRepository.save(category);
+
+        Product product = new Product(name, "Reserva", "RES-" + System.nanoTime(), BigDecimal.TEN, category,
+                new HashSet<>(), null);
+        product.setStockQuantity(quantity);
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory(product, BigDecimal.ZERO, "INV-" + System.nanoTime());
+        inventory.setQuantity(quantity);
+        return inventoryRepository.save(inventory);
+    }
+
+    private void assertAvailability(Inventory inventory, long available, long held, long pending) {
+        StockAvailabilityDTO availability = reservationService.getAvailability(inventory.getId());
+        assertEquals(available, availability.available(), "available");
+        assertEquals(held, availability.held(), "held");
+        assertEquals(pending, availability.pending(), "pending");
+    }
+
+    private int quantity(Inventory inventory) {
+        return inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantity();
+    }
+
+    private static ReservationRequestDTO request(Inventory inventory, int quantity, Integer ttlSeconds) {
+        return new ReservationRequestDTO(inventory.getProduct().getId(), inventory.getId(), quantity, ttlSeconds);
+    }
+
+    private static ExitRequestDTO exit(Inventory inventory, int quantity) {
+        return new ExitRequestDTO(inventory.getProduct().getId(), inventory.getId(), quantity, null, null);
+    }
+}
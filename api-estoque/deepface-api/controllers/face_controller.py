@@ -1,7 +1,25 @@
 from flask import request, jsonify
-from services.face_service import compare_faces_service
+from services.face_service import (
+    compare_faces_service, represent_face_service, compare_embedding_service,
+    InvalidImageError, FaceNotDetectedError, EmbeddingModelMismatchError, InvalidEmbeddingError
+)
 import logging
 
+# Erros causados pela entrada viram 4xx: o cliente Java só conta 5xx e falhas de rede no disjuntor,
+# então uma foto sem rosto não pode derrubar o serviço para todos os usuários.
+CLIENT_ERRORS = {
+    InvalidImageError: 400,
+    InvalidEmbeddingError: 400,
+    EmbeddingModelMismatchError: 409,
+    FaceNotDetectedError: 422,
+}
+
+def _client_error(e: Exception):
+    for error_type, status in CLIENT_ERRORS.items():
+        if isinstance(e, error_type):
+            return jsonify({"error": str(e)}), status
+    return None
+
 def compare_faces():
     try:
         data = request.get_json()
@@ -14,5 +32,37 @@ def compare_faces():
         return jsonify(result)
 
     except Exception as e:
+        if (response := _client_error(e)) is not None:
+            return response
         logging.exception("Erro ao comparar rostos:")
         return jsonify({"error": "Erro interno ao comparar rostos.", "details": str(e)}), 500
+
+def represent_face():
+    try:
+        data = request.get_json()
+
+        if not data or 'image' not in data:
+            return jsonify({"error": "Parâmetro 'image' é obrigatório."}), 400
+
+        return jsonify(represent_face_service(data['image']))
+
+    except Exception as e:
+        if (response := _client_error(e)) is not None:
+            return response
+        logging.exception("Erro ao extrair embedding:")
+        return jsonify({"error": "Erro interno ao extrair embedding.", "details": str(e)}), 500
+
+def compare_embedding():
+    try:
+        data = request.get_json()
+
+        if not data or 'image' not in data or 'embedding' not in data:
+            return jsonify({"error": "Parâmetros 'image' e 'embedding' são obrigatórios."}), 400
+
+        return jsonify(compare_embedding_service(data['image'], data['embedding'], data.get('model')))
+
+    except Exception as e:
+        if (response := _client_error(e)) is not None:
+            return response
+        logging.exception("Erro ao comparar embedding:")
+        return jsonify({"error": "Erro interno ao comparar rostos.", "details": str(e)}), 500
@@ -1,5 +1,7 @@
 from flask import Blueprint
-from controllers.face_controller import compare_faces
+from controllers.face_controller import compare_faces, represent_face, compare_embedding
 
 face_bp = Blueprint('face', __name__)
 face_bp.route('/compare-faces', methods=['POST'])(compare_faces)
+face_bp.route('/represent', methods=['POST'])(represent_face)
+face_bp.route('/compare-embedding', methods=['POST'])(compare_embedding)
@@ -1,20 +1,49 @@
 from deepface import DeepFace
 from utils.image_utils import decode_base64_image, save_temp_image
+import binascii
+import math
 import os
 
+class InvalidImageError(Exception):
+    """Imagem que não é base64 válido."""
+
+class FaceNotDetectedError(Exception):
+    """Imagem válida, mas sem rosto detectável. É erro do cliente, não do serviço."""
+
+class EmbeddingModelMismatchError(Exception):
+    """Embedding gerado por outro modelo: precisa ser extraído de novo."""
+
+class InvalidEmbeddingError(Exception):
+    """Embedding com tamanho diferente do produzido pelo modelo atual."""
+
+def _decode(image_base64: str) -> bytes:
+    try:
+        return decode_base64_image(image_base64)
+    except (binascii.Error, ValueError, IndexError) as e:
+        raise InvalidImageError("Imagem em base64 inválida.") from e
+
+def _detection_failed(error: ValueError) -> bool:
+    # O DeepFace sinaliza a falta de rosto com ValueError quando enforce_detection está ligado.
+    return "Face could not be detected" in str(error)
+
 def compare_faces_service(captured_image_base64: str, saved_image_base64: str) -> dict:
-    captured_image_path = save_temp_image(decode_base64_image(captured_image_base64))
-    saved_image_path = save_temp_image(decode_base64_image(saved_image_base64))
+    captured_image_path = save_temp_image(_decode(captured_image_base64))
+    saved_image_path = save_temp_image(_decode(saved_image_base64))
 
     try:
         if not os.path.exists(captured_image_path) or not os.path.exists(saved_image_path):
             raise FileNotFoundError("Falha ao salvar imagens temporárias.")
 
-        result = DeepFace.verify(
-            img1_path=captured_image_path,
-            img2_path=saved_image_path,
-            model_name="ArcFace"
-        )
+        try:
+            result = DeepFace.verify(
+                img1_path=captured_image_path,
+                img2_path=saved_image_path,
+                model_name="ArcFace"
+            )
+        except ValueError as e:
+            if _detection_failed(e):
+                raise FaceNotDetectedError("Nenhum rosto detectado em uma das imagens.") from e
+            raise
 
         return {
             "verified": result.get("verified"),
@@ -25,3 +54,46 @@ def compare_faces_service(captured_image_base64: str, saved_image_base64: str) -
         for path in [captured_image_path, saved_image_path]:
             if path and os.path.exists(path):
                 os.remove(path)
+
+MODEL_NAME = "ArcFace"
+# Limiar de distância cosseno usado pelo DeepFace para o ArcFace.
+COSINE_THRESHOLD = 0.68
+
+def _represent(image_base64: str) -> list:
+    image_path = save_temp_image(_decode(image_base64))
+
+    try:
+        try:
+            representations = DeepFace.represent(img_path=image_path, model_name=MODEL_NAME)
+        except ValueError as e:
+            if _detection_failed(e):
+                raise FaceNotDetectedError("Nenhum rosto detectado na imagem.") from e
+            raise
+        return representations[0]["embedding"]
+    finally:
+        if image_path and os.path.exists(image_path):
+            os.remove(image_path)
+
+def represent_face_service(image_base64: str) -> dict:
+    return {"model": MODEL_NAME, "embedding": _represent(image_base64)}
+
+def compare_embedding_service(captured_image_base64: str, saved_embedding: list, model: str = None) -> dict:
+    if model is not None and model != MODEL_NAME:
+        raise EmbeddingModelMismatchError(
+            f"Embedding gerado pelo modelo '{model}', mas o serviço usa '{MODEL_NAME}'.")
+
+    captured = _represent(captured_image_base64)
+
+    if len(saved_embedding) != len(captured):
+        raise InvalidEmbeddingError(
+            f"Embedding com {len(saved_embedding)} dimensões; o modelo {MODEL_NAME} produz {len(captured)}.")
+
+    dot = sum(a * b for a, b in zip(captured, saved_embedding))
+    norm = math.sqrt(sum(a * a for a in captured)) * math.sqrt(sum(b * b for b in saved_embedding))
+    distance = 1 - dot / norm if norm else 1.0
+
+    return {
+        "model": MODEL_NAME,
+        "verified": distance <= COSINE_THRESHOLD,
+        "distance": distance
+    }
@@ -137,39 +137,103 @@ BEGIN
 END;
 GO
 
--- Views 
-
-CREATE VIEW v_produtos_fat AS  
-    SELECT  
-        MAX(p.id) AS id_produto,   
-        p.name AS nome_produto,  
-        MAX(e.name) AS nome_categoria,  
-        SUM(i.quantity) AS quantidade_estoque,  
-        MAX(p.unit_price) AS preco_unitario,  
-        SUM(i.quantity * (p.unit_price - i.discount)) AS valor_faturamento,  
-        ex.exit_date AS data_saida  
-    FROM exits ex  
-    INNER JOIN products p ON p.id = ex.product_id  
-    INNER JOIN inventory i ON i.product_id = ex.product_id  
-    INNER JOIN categories e ON e.id = p.category_id  
-    GROUP BY p.name, ex.exit_date;  
-GO 
-
-CREATE VIEW v_movimentacao_est AS  
-    SELECT  
-        p.id AS id_produto,  
-        p.name AS nome_produto,  
-        e.name AS nome_categoria,  
-        SUM(i.quantity) AS quantidade_estoque,  
-        MAX(p.unit_price) AS preco_unitario,  
-        SUM(i.quantity * (p.unit_price - i.discount)) AS valor_faturamento, 
-        AVG(DATEDIFF(DAY, rc.receiving_date, ex.exit_date)) AS media_dias_para_saida FROM exits ex  
-    INNER JOIN products p ON p.id = ex.product_id  
-    INNER JOIN inventory i ON i.product_id = p.id  
-    INNER JOIN categories e ON e.id = p.category_id  
-    INNER JOIN receivings rc ON rc.product_id = p.id  
-    GROUP BY p.id, p.name, e.name; 
-GO 
+-- Views
+
+-- v_produtos_fat e v_movimentacao_est foram substituídas pelas tabelas de rollup diário
+-- (product_daily_rollups e category_daily_rollups), servidas por /api/reports.
+
+DROP VIEW IF EXISTS v_produtos_fat;
+GO
+
+DROP VIEW IF EXISTS v_movimentacao_est;
+GO
+
+IF OBJECT_ID('dbo.rollup_dirty_days') IS NOT NULL AND OBJECT_ID('dbo.product_daily_rollups') IS NOT NULL
+BEGIN
+    EXEC('
+        IF NOT EXISTS (SELECT 1 FROM product_daily_rollups)
+            INSERT INTO rollup_dirty_days (product_id, rollup_date)
+            SELECT product_id, exit_date FROM exits WHERE exit_date IS NOT NULL
+            UNION
+            SELECT product_id, receiving_date FROM receivings;
+    ');
+END;
+GO
+
+-- Migração das tabelas de junção legadas para o livro de movimentações
+
+IF OBJECT_ID('dbo.inventory_receivements') IS NOT NULL AND OBJECT_ID('dbo.stock_movements') IS NOT NULL
+BEGIN
+    EXEC('
+        INSERT INTO stock_movements (id, inventory_id, product_id, movement_type, quantity, reference_id, created_at)
+        SELECT NEWID(), ir.inventory_id, r.product_id, ''RECEIVEMENT'', r.quantity, r.id, r.created_at
+        FROM inventory_receivements ir
+        INNER JOIN receivings r ON r.id = ir.receivement_id
+        WHERE NOT EXISTS (SELECT 1 FROM stock_movements sm WHERE sm.reference_id = r.id);
+
+        DROP TABLE inventory_receivements;
+    ');
+END;
+GO
+
+IF OBJECT_ID('dbo.inventory_exits') IS NOT NULL AND OBJECT_ID('dbo.stock_movements') IS NOT NULL
+BEGIN
+    EXEC('
+        INSERT INTO stock_movements (id, inventory_id, product_id, movement_type, quantity, reference_id, created_at)
+        SELECT NEWID(), ie.inventory_id, e.product_id, ''EXIT'', -e.quantity, e.id, e.created_at
+        FROM inventory_exits ie
+        INNER JOIN exits e ON e.id = ie.exit_id
+        WHERE NOT EXISTS (SELECT 1 FROM stock_movements sm WHERE sm.reference_id = e.id);
+
+        DROP TABLE inventory_exits;
+    ');
+END;
+GO
+
+-- Migração das imagens faciais para face_images, endereçadas pelo SHA-256 do conteúdo
+
+IF COL_LENGTH('dbo.users', 'face_image') IS NOT NULL
+    AND COL_LENGTH('dbo.users', 'face_image_checksum') IS NOT NULL
+    AND OBJECT_ID('dbo.face_images') IS NOT NULL
+BEGIN
+    EXEC('
+        UPDATE users
+        SET face_image_checksum = LOWER(CONVERT(CHAR(64), HASHBYTES(''SHA2_256'', face_image), 2))
+        WHERE face_image IS NOT NULL AND face_image_checksum IS NULL;
+
+        INSERT INTO face_images (checksum, image, size_bytes, created_at)
+        SELECT d.face_image_checksum, d.face_image, DATALENGTH(d.face_image), GETDATE()
+        FROM (
+            SELECT face_image_checksum, face_image,
+                ROW_NUMBER() OVER (PARTITION BY face_image_checksum ORDER BY id) AS rn
+            FROM users
+            WHERE face_image IS NOT NULL
+        ) d
+        WHERE d.rn = 1
+            AND NOT EXISTS (SELECT 1 FROM face_images f WHERE f.checksum = d.face_image_checksum);
+
+        ALTER TABLE users DROP COLUMN face_image;
+    ');
+END;
+GO
+
+-- Uma saída por reserva gravada pelo write-behind. O índice é filtrado porque as saídas diretas
+-- não têm reserva e um índice único comum aceitaria um único NULL; índices filtrados exigem
+-- QUOTED_IDENTIFIER, que o sqlcmd deixa desligado.
+
+SET QUOTED_IDENTIFIER ON;
+GO
+
+IF OBJECT_ID('dbo.exits') IS NOT NULL
+    AND NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'ux_exits_reservation_id' AND object_id = OBJECT_ID('dbo.exits'))
+BEGIN
+    EXEC('
+        CREATE UNIQUE NONCLUSTERED INDEX ux_exits_reservation_id
+        ON exits (reservation_id)
+        WHERE reservation_id IS NOT NULL;
+    ');
+END;
+GO
 
 -- Inserts 
 
@@ -232,7 +296,7 @@ VALUES
 
 -- Os inserts de usuário são feitos pelo spring boot 
 
--- INSERT INTO [dbo].[users] ([id], [created_at], [email], [face_image], [password], [role], [status], [updated_at], [username])
+-- INSERT INTO [dbo].[users] ([id], [created_at], [email], [face_image_checksum], [password], [role], [status], [updated_at], [username])
 -- VALUES 
 -- ('user001', GETDATE(), 'admin@example.com', NULL, 'root', 'ADMIN', 'ACTIVE', NULL, 'admin'),
 -- ('user002', GETDATE(), 'gerente@estoque.com', NULL, 'gerente123', 'USER', 'ACTIVE', GETDATE(), 'gerente'),
@@ -473,8 +537,9 @@ VALUES
 ('rec015', GETDATE(), 'financeiro', 'Reposição de TP-Link AX6000', 'INV-RNTPAX60-004', NULL, 20, '2025-05-28', 'COMPLETED', 25980.00, GETDATE(), 'prod031', 'sup011'),
 ('rec016', GETDATE(), 'almoxarifado', 'Chegada de WD My Passport 5TB', 'INV-STWDMP5-003', 'qualidade', 50, '2025-05-29', 'PENDING', 34950.00, NULL, 'prod041', 'sup006');
 
-INSERT INTO [dbo].[inventory_receivements] ([inventory_id], [receivement_id])
-VALUES 
+INSERT INTO [dbo].[stock_movements] ([id], [inventory_id], [product_id], [movement_type], [quantity], [reference_id], [created_at])
+SELECT NEWID(), m.inventory_id, t.product_id, 'RECEIVEMENT', t.quantity, t.id, t.created_at
+FROM (VALUES 
 ('inv001', 'rec001'),
 ('inv002', 'rec002'),
 ('inv003', 'rec003'),
@@ -486,7 +551,9 @@ VALUES
 ('inv021', 'rec011'),
 ('inv026', 'rec013'),
 ('inv027', 'rec014'),
-('inv031', 'rec015');
+('inv031', 'rec015')
+) AS m ([inventory_id], [receivement_id])
+INNER JOIN [dbo].[receivings] t ON t.id = m.receivement_id;
 
 INSERT INTO [dbo].[exits] ([id], [created_at], [created_by], [exit_date], [inventory_code], [last_modified_by], [quantity], [exit_status], [updated_at], [product_id])
 VALUES 
@@ -507,8 +574,9 @@ VALUES
 ('exit015', GETDATE(), 'vendas', GETDATE(),  'INV-ACASF-001', 'faturamento', 5, 'COMPLETED', GETDATE(), 'prod046'),
 ('exit016', GETDATE(), 'assistencia', GETDATE(),  'INV-CPS980P-001', NULL, 1, 'COMPLETED', GETDATE(), 'prod029');
 
-INSERT INTO [dbo].[inventory_exits] ([inventory_id], [exit_id])
-VALUES 
+INSERT INTO [dbo].[stock_movements] ([id], [inventory_id], [product_id], [movement_type], [quantity], [reference_id], [created_at])
+SELECT NEWID(), m.inventory_id, t.product_id, 'EXIT', -t.quantity, t.id, t.created_at
+FROM (VALUES 
 ('inv001', 'exit001'),
 ('inv002', 'exit002'),
 ('inv003', 'exit003'),
@@ -524,4 +592,6 @@ VALUES
 ('inv031', 'exit013'),
 ('inv041', 'exit014'),
 ('inv046', 'exit015'),
-('inv029', 'exit016');
+('inv029', 'exit016')
+) AS m ([inventory_id], [exit_id])
+INNER JOIN [dbo].[exits] t ON t.id = m.exit_id;